@@ -0,0 +1,73 @@
+package com.example.TodoListApp.benchmark;
+
+import com.example.TodoListApp.service.UserService;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserService.compressImage, the CPU-heavy part of POST /users/me/avatar.
+ * The method is private, so it is reached through a method handle rather than widening its visibility.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvatarCompressionBenchmark {
+
+    private static final MethodHandle COMPRESS_IMAGE;
+
+    static {
+        try {
+            COMPRESS_IMAGE = MethodHandles.privateLookupIn(UserService.class, MethodHandles.lookup())
+                    .findVirtual(UserService.class, "compressImage",
+                            MethodType.methodType(byte[].class, byte[].class, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"640x480", "1920x1080", "4032x3024"})
+    private String dimensions;
+
+    @Param({"png", "jpg"})
+    private String format;
+
+    private UserService userService;
+    private byte[] original;
+
+    @Setup
+    public void setup() throws Exception {
+        userService = new UserService();
+
+        String[] parts = dimensions.split("x");
+        int width = Integer.parseInt(parts[0]);
+        int height = Integer.parseInt(parts[1]);
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setPaint(new GradientPaint(0, 0, Color.ORANGE, width, height, Color.BLUE));
+        g2d.fillRect(0, 0, width, height);
+        g2d.dispose();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, format, baos);
+        original = baos.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] compressImage() throws Throwable {
+        return (byte[]) COMPRESS_IMAGE.invokeExact(userService, original, "image/" + format);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.TodoListApp.benchmark;
+
+import com.example.TodoListApp.config.RabbitMQConfig;
+import com.example.TodoListApp.dto.NotificationMessage;
+import com.example.TodoListApp.entity.Notification;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notification conversion for the queue, covering both the publish side (toMessage) and the
+ * listener side (fromMessage). "json" is the previous format, the whole entity through
+ * Jackson2JsonMessageConverter; "binary" is the NotificationMessage layout the converter
+ * registered by RabbitMQConfig writes. Setup fails the run if a format does not round-trip the
+ * notification, so a broken converter is never measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageConversionBenchmark {
+
+    @Param({"json", "binary"})
+    public String format;
+
+    private MessageConverter converter;
+    private Object payload;
+    private Message message;
+
+    @Setup
+    public void setup() {
+        Notification notification = new Notification("Todo Completed", "Congratulations! You have completed: Benchmark todo",
+                "user-1", Notification.NotificationType.TODO_COMPLETED);
+        notification.setId("notification-1");
+        notification.setTodoId("todo-1");
+        notification.setCreatedAt(LocalDateTime.now());
+        notification.setExpiresAt(LocalDateTime.now().plusDays(30));
+        notification.setMetadata(Map.of("source", "benchmark"));
+
+        if ("json".equals(format)) {
+            converter = new Jackson2JsonMessageConverter();
+            payload = notification;
+        } else {
+            converter = new RabbitMQConfig().messageConverter();
+            payload = NotificationMessage.from(notification);
+        }
+
+        message = converter.toMessage(payload, new MessageProperties());
+        Object read = converter.fromMessage(message);
+        String readId = read instanceof NotificationMessage m ? m.getId()
+                : read instanceof Notification n ? n.getId() : null;
+        if (!notification.getId().equals(readId)) {
+            throw new IllegalStateException(format + " conversion did not round-trip the notification: " + read);
+        }
+    }
+
+    @Benchmark
+    public Message toMessage() {
+        return converter.toMessage(payload, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object fromMessage() {
+        return converter.fromMessage(message);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.TodoListApp.benchmark;
+
+import com.example.TodoListApp.service.PasswordService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password strength checks run on every registration and password change.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordServiceBenchmark {
+
+    @Param({"short", "weak-password", "Str0ng!Passw0rd#2024"})
+    private String password;
+
+    private PasswordService passwordService;
+
+    @Setup
+    public void setup() {
+        passwordService = new PasswordService();
+    }
+
+    @Benchmark
+    public boolean isValidPassword() {
+        return passwordService.isValidPassword(password);
+    }
+
+    @Benchmark
+    public String getPasswordStrength() {
+        return passwordService.getPasswordStrength(password);
+    }
+}
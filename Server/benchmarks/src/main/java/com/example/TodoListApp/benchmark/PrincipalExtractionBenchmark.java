@@ -0,0 +1,66 @@
+package com.example.TodoListApp.benchmark;
+
+import com.example.TodoListApp.config.CustomOAuth2User;
+import com.example.TodoListApp.config.CustomUserDetailsService;
+import com.example.TodoListApp.controller.TodoController;
+import com.example.TodoListApp.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The getUserId principal extraction every controller runs at the start of each request,
+ * for both OAuth2 and username/password principals.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrincipalExtractionBenchmark {
+
+    private static final MethodHandle GET_USER_ID;
+
+    static {
+        try {
+            GET_USER_ID = MethodHandles.privateLookupIn(TodoController.class, MethodHandles.lookup())
+                    .findVirtual(TodoController.class, "getUserId",
+                            MethodType.methodType(String.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private TodoController controller;
+    private Object oauth2Principal;
+    private Object passwordPrincipal;
+
+    @Setup
+    public void setup() {
+        controller = new TodoController();
+
+        User user = new User("benchmark", "benchmark@example.com", "12345");
+        user.setId("user-1");
+
+        oauth2Principal = new CustomOAuth2User(Map.of("id", 12345, "login", "benchmark"),
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), user);
+        passwordPrincipal = new CustomUserDetailsService.CustomUserPrincipal(user);
+    }
+
+    @Benchmark
+    public String oauth2Principal() throws Throwable {
+        return (String) GET_USER_ID.invokeExact(controller, oauth2Principal);
+    }
+
+    @Benchmark
+    public String passwordPrincipal() throws Throwable {
+        return (String) GET_USER_ID.invokeExact(controller, passwordPrincipal);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.TodoListApp.benchmark;
+
+import com.example.TodoListApp.entity.Notification;
+import com.example.TodoListApp.entity.Todo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the list payloads returned by GET /todos and GET /notifications.
+ * The ObjectMapper is built the same way Spring Boot builds the one used by the MVC converters.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Todo> todos;
+    private List<Notification> notifications;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        todos = new ArrayList<>(size);
+        notifications = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < size; i++) {
+            Todo todo = new Todo("Benchmark todo " + i, "user-1");
+            todo.setId("todo-" + i);
+            todo.setDescription("A todo used to measure serialization cost, number " + i);
+            todo.setDueDate(now.plusDays(i % 14));
+            todo.setTags(List.of("work", "benchmark"));
+            todos.add(todo);
+
+            Notification notification = new Notification("Todo Updated", "Your todo has been updated: " + todo.getTitle(),
+                    "user-1", Notification.NotificationType.TODO_UPDATED);
+            notification.setId("notification-" + i);
+            notification.setTodoId(todo.getId());
+            notification.setExpiresAt(now.plusDays(30));
+            notification.setMetadata(Map.of("source", "benchmark", "index", i));
+            notifications.add(notification);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeTodos() throws Exception {
+        return objectMapper.writeValueAsBytes(todos);
+    }
+
+    @Benchmark
+    public byte[] serializeNotifications() throws Exception {
+        return objectMapper.writeValueAsBytes(notifications);
+    }
+}
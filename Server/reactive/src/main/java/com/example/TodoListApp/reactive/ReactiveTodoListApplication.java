@@ -0,0 +1,15 @@
+package com.example.TodoListApp.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+
+@SpringBootApplication
+@EntityScan("com.example.TodoListApp.entity")
+public class ReactiveTodoListApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveTodoListApplication.class, args);
+	}
+
+}
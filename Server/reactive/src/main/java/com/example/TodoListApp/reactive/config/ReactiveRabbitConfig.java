@@ -0,0 +1,61 @@
+package com.example.TodoListApp.reactive.config;
+
+import com.example.TodoListApp.config.NotificationMessageConverter;
+import com.rabbitmq.client.ConnectionFactory;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.rabbitmq.RabbitFlux;
+import reactor.rabbitmq.Sender;
+import reactor.rabbitmq.SenderOptions;
+
+/**
+ * Non-blocking publisher for the notification and todo event exchanges declared by the servlet
+ * application.
+ */
+@Configuration
+public class ReactiveRabbitConfig {
+
+    @Value("${spring.rabbitmq.host}")
+    private String host;
+
+    @Value("${spring.rabbitmq.port}")
+    private int port;
+
+    @Value("${spring.rabbitmq.username}")
+    private String username;
+
+    @Value("${spring.rabbitmq.password}")
+    private String password;
+
+    @Value("${spring.rabbitmq.virtual-host}")
+    private String virtualHost;
+
+    @Bean
+    public ConnectionFactory rabbitConnectionFactory() {
+        ConnectionFactory connectionFactory = new ConnectionFactory();
+        connectionFactory.setHost(host);
+        connectionFactory.setPort(port);
+        connectionFactory.setUsername(username);
+        connectionFactory.setPassword(password);
+        connectionFactory.setVirtualHost(virtualHost);
+        connectionFactory.useNio();
+        return connectionFactory;
+    }
+
+    @Bean(destroyMethod = "close")
+    public Sender sender(ConnectionFactory rabbitConnectionFactory) {
+        return RabbitFlux.createSender(new SenderOptions().connectionFactory(rabbitConnectionFactory));
+    }
+
+    /**
+     * The servlet application's converter: notifications in the binary NotificationMessage
+     * format, todo change events as JSON with type headers.
+     */
+    @Bean
+    public MessageConverter messageConverter() {
+        return new NotificationMessageConverter(new Jackson2JsonMessageConverter());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.TodoListApp.reactive.config;
+
+import com.example.TodoListApp.config.CustomUserDetailsService;
+import com.example.TodoListApp.reactive.repository.ReactiveUserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorityReactiveAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.security.web.server.authorization.IpAddressReactiveAuthorizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stateless HTTP Basic authentication against the shared users collection.
+ * Principals are the same CustomUserPrincipal the servlet application uses.
+ */
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Value("${metrics.scrape.allowed-addresses:127.0.0.1/32,::1/128}")
+    private String[] scrapeAllowedAddresses;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .httpBasic(basic -> {})
+            .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+            .authorizeExchange(exchanges -> exchanges
+                .pathMatchers("/actuator/health").permitAll()
+                .pathMatchers("/actuator/prometheus").access(scraperOrAdmin())
+                .pathMatchers("/actuator/**", "/notifications/admin/**").hasRole("ADMIN")
+                .anyExchange().authenticated()
+            )
+            .build();
+    }
+
+    /**
+     * Same rule as the servlet application: admins, and scrapers on the addresses in
+     * metrics.scrape.allowed-addresses.
+     */
+    private ReactiveAuthorizationManager<AuthorizationContext> scraperOrAdmin() {
+        List<ReactiveAuthorizationManager<AuthorizationContext>> managers = new ArrayList<>();
+        for (String address : scrapeAllowedAddresses) {
+            if (!address.isBlank()) {
+                managers.add(IpAddressReactiveAuthorizationManager.hasIpAddress(address.trim()));
+            }
+        }
+        managers.add(AuthorityReactiveAuthorizationManager.hasRole("ADMIN"));
+        return (authentication, context) -> Flux.fromIterable(managers)
+            .concatMap(manager -> manager.check(authentication, context))
+            .filter(AuthorizationDecision::isGranted)
+            .next()
+            .defaultIfEmpty(new AuthorizationDecision(false));
+    }
+
+    @Bean
+    public ReactiveUserDetailsService reactiveUserDetailsService() {
+        return usernameOrEmail -> userRepository.findByUsername(usernameOrEmail)
+            .switchIfEmpty(Mono.defer(() -> userRepository.findByEmail(usernameOrEmail)))
+            .filter(user -> user.isActive() && user.isPasswordEnabled())
+            .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User not found: " + usernameOrEmail)))
+            .map(CustomUserDetailsService.CustomUserPrincipal::new);
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+}
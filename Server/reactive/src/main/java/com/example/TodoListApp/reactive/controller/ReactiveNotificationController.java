@@ -0,0 +1,174 @@
+package com.example.TodoListApp.reactive.controller;
+
+import com.example.TodoListApp.config.CustomUserDetailsService.CustomUserPrincipal;
+import com.example.TodoListApp.controller.ETags;
+import com.example.TodoListApp.entity.Notification;
+import com.example.TodoListApp.reactive.service.ReactiveNotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive /notifications API. Admin endpoints are restricted to ROLE_ADMIN in ReactiveSecurityConfig.
+ * Single notifications carry their version as strong ETag, and writes honor If-Match, as in the
+ * servlet application.
+ */
+@RestController
+@RequestMapping("/notifications")
+@CrossOrigin(origins = "*")
+public class ReactiveNotificationController {
+
+    @Autowired
+    private ReactiveNotificationService notificationService;
+
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<Notification> getAllNotifications(@AuthenticationPrincipal CustomUserPrincipal principal) {
+        return notificationService.findAllByUserId(principal.getUser().getId());
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Notification>> getNotificationById(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                                                  @PathVariable String id) {
+        return notificationService.findByIdAndUserId(id, principal.getUser().getId())
+            .map(notification -> ResponseEntity.ok().eTag(ETags.of(notification.getVersion())).body(notification))
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Notification>> updateNotification(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                                                 @PathVariable String id,
+                                                                 @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                                 @Valid @RequestBody Notification notification) {
+        return notificationService.updateNotification(id, principal.getUser().getId(), notification, ETags.expectedVersion(ifMatch))
+            .map(updated -> ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Map<String, String>> deleteNotification(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                                        @PathVariable String id,
+                                                        @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        return notificationService.deleteNotification(id, principal.getUser().getId(), ETags.expectedVersion(ifMatch))
+            .thenReturn(Map.of("message", "Notification deleted successfully"));
+    }
+
+    @PutMapping("/{id}/read")
+    public Mono<ResponseEntity<Notification>> markAsRead(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                                         @PathVariable String id,
+                                                         @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        return notificationService.markAsRead(id, principal.getUser().getId(), ETags.expectedVersion(ifMatch))
+            .map(updated -> ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated));
+    }
+
+    @PutMapping("/read-all")
+    public Mono<Map<String, String>> markAllAsRead(@AuthenticationPrincipal CustomUserPrincipal principal) {
+        return notificationService.markAllAsRead(principal.getUser().getId())
+            .thenReturn(Map.of("message", "All notifications marked as read"));
+    }
+
+    @DeleteMapping("/all")
+    public Mono<Map<String, String>> deleteAllNotifications(@AuthenticationPrincipal CustomUserPrincipal principal) {
+        return notificationService.deleteAllNotifications(principal.getUser().getId())
+            .thenReturn(Map.of("message", "All notifications deleted successfully"));
+    }
+
+    @GetMapping(value = "/unread", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<Notification> getUnreadNotifications(@AuthenticationPrincipal CustomUserPrincipal principal) {
+        return notificationService.findUnreadNotifications(principal.getUser().getId());
+    }
+
+    @GetMapping(value = "/read", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<Notification> getReadNotifications(@AuthenticationPrincipal CustomUserPrincipal principal) {
+        return notificationService.findReadNotifications(principal.getUser().getId());
+    }
+
+    @GetMapping(value = "/status/{status}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<Notification> getNotificationsByStatus(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                                       @PathVariable String status) {
+        Notification.NotificationStatus notificationStatus = Notification.NotificationStatus.valueOf(status.toUpperCase());
+        return notificationService.findByStatus(principal.getUser().getId(), notificationStatus);
+    }
+
+    @GetMapping(value = "/type/{type}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<Notification> getNotificationsByType(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                                     @PathVariable String type) {
+        Notification.NotificationType notificationType = Notification.NotificationType.valueOf(type.toUpperCase());
+        return notificationService.findByType(principal.getUser().getId(), notificationType);
+    }
+
+    @GetMapping(value = "/priority/{priority}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<Notification> getNotificationsByPriority(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                                         @PathVariable String priority) {
+        Notification.NotificationPriority notificationPriority = Notification.NotificationPriority.valueOf(priority.toUpperCase());
+        return notificationService.findByPriority(principal.getUser().getId(), notificationPriority);
+    }
+
+    @GetMapping(value = "/expired", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<Notification> getExpiredNotifications(@AuthenticationPrincipal CustomUserPrincipal principal) {
+        return notificationService.findExpiredNotifications(principal.getUser().getId());
+    }
+
+    @GetMapping(value = "/todo/{todoId}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<Notification> getNotificationsByTodoId(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                                       @PathVariable String todoId) {
+        return notificationService.findByTodoId(todoId);
+    }
+
+    @GetMapping("/stats")
+    public Mono<Map<String, Long>> getNotificationStats(@AuthenticationPrincipal CustomUserPrincipal principal) {
+        String userId = principal.getUser().getId();
+        return Mono.zip(
+                notificationService.countByUserId(userId),
+                notificationService.countUnreadByUserId(userId),
+                notificationService.countByStatus(userId, Notification.NotificationStatus.PENDING),
+                notificationService.countByStatus(userId, Notification.NotificationStatus.SENT),
+                notificationService.countByStatus(userId, Notification.NotificationStatus.READ),
+                notificationService.countByStatus(userId, Notification.NotificationStatus.FAILED))
+            .map(counts -> Map.of(
+                "total", counts.getT1(),
+                "unread", counts.getT2(),
+                "pending", counts.getT3(),
+                "sent", counts.getT4(),
+                "read", counts.getT5(),
+                "failed", counts.getT6()
+            ));
+    }
+
+    @PostMapping("/create")
+    public Mono<Notification> createNotification(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                                 @RequestBody Map<String, Object> notificationData) {
+        String title = (String) notificationData.get("title");
+        String message = (String) notificationData.get("message");
+        String typeStr = (String) notificationData.get("type");
+        String todoId = (String) notificationData.get("todoId");
+
+        Notification.NotificationType type = Notification.NotificationType.valueOf(typeStr.toUpperCase());
+
+        return notificationService.createNotification(principal.getUser().getId(), title, message, type, todoId);
+    }
+
+    @PostMapping("/welcome")
+    public Mono<Map<String, String>> sendWelcomeNotification(@AuthenticationPrincipal CustomUserPrincipal principal) {
+        return notificationService.sendWelcomeNotification(principal.getUser().getId())
+            .thenReturn(Map.of("message", "Welcome notification sent"));
+    }
+
+    // Admin endpoints
+    @PostMapping("/admin/announcement")
+    public Mono<Map<String, String>> sendSystemAnnouncement(@RequestBody Map<String, Object> announcementData) {
+        String title = (String) announcementData.get("title");
+        String message = (String) announcementData.get("message");
+        @SuppressWarnings("unchecked")
+        List<String> userIds = (List<String>) announcementData.get("userIds");
+
+        return notificationService.sendSystemAnnouncement(title, message, userIds)
+            .thenReturn(Map.of("message", "System announcement sent"));
+    }
+}
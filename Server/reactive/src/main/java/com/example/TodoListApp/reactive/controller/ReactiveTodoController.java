@@ -0,0 +1,167 @@
+package com.example.TodoListApp.reactive.controller;
+
+import com.example.TodoListApp.config.CustomUserDetailsService.CustomUserPrincipal;
+import com.example.TodoListApp.controller.ETags;
+import com.example.TodoListApp.entity.Todo;
+import com.example.TodoListApp.reactive.service.ReactiveTodoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import jakarta.validation.Valid;
+import java.util.Map;
+
+/**
+ * Reactive /todos API. List endpoints return a Flux so results are written as the cursor
+ * yields them; request application/x-ndjson to receive one document per line. Single todos
+ * carry their version as strong ETag, and writes honor If-Match, as in the servlet application.
+ */
+@RestController
+@RequestMapping("/todos")
+@CrossOrigin(origins = "*")
+public class ReactiveTodoController {
+
+    @Autowired
+    private ReactiveTodoService todoService;
+
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<Todo> getAllTodos(@AuthenticationPrincipal CustomUserPrincipal principal) {
+        return todoService.findAllByUserId(principal.getUser().getId());
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Todo>> getTodoById(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                                  @PathVariable String id) {
+        return todoService.findByIdAndUserId(id, principal.getUser().getId())
+            .map(todo -> ResponseEntity.ok().eTag(ETags.of(todo.getVersion())).body(todo))
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Todo>> createTodo(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                                 @Valid @RequestBody Todo todo) {
+        todo.setUserId(principal.getUser().getId());
+        return todoService.createTodo(todo).map(ReactiveTodoController::withETag);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Todo>> updateTodo(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                                 @PathVariable String id,
+                                                 @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                 @Valid @RequestBody Todo todo) {
+        return todoService.updateTodo(id, principal.getUser().getId(), todo, ETags.expectedVersion(ifMatch))
+            .map(ReactiveTodoController::withETag);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Map<String, String>> deleteTodo(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                                @PathVariable String id,
+                                                @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        return todoService.deleteTodo(id, principal.getUser().getId(), ETags.expectedVersion(ifMatch))
+            .thenReturn(Map.of("message", "Todo deleted successfully"));
+    }
+
+    @PutMapping("/{id}/complete")
+    public Mono<ResponseEntity<Todo>> markAsCompleted(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                                      @PathVariable String id,
+                                                      @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        return todoService.markAsCompleted(id, principal.getUser().getId(), ETags.expectedVersion(ifMatch))
+            .map(ReactiveTodoController::withETag);
+    }
+
+    @PutMapping("/{id}/pending")
+    public Mono<ResponseEntity<Todo>> markAsPending(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                                    @PathVariable String id,
+                                                    @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        return todoService.markAsPending(id, principal.getUser().getId(), ETags.expectedVersion(ifMatch))
+            .map(ReactiveTodoController::withETag);
+    }
+
+    @PutMapping("/{id}/in-progress")
+    public Mono<ResponseEntity<Todo>> markAsInProgress(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                                       @PathVariable String id,
+                                                       @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        return todoService.markAsInProgress(id, principal.getUser().getId(), ETags.expectedVersion(ifMatch))
+            .map(ReactiveTodoController::withETag);
+    }
+
+    @GetMapping(value = "/status/{status}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<Todo> getTodosByStatus(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                       @PathVariable String status) {
+        Todo.TodoStatus todoStatus = Todo.TodoStatus.valueOf(status.toUpperCase());
+        return todoService.findByStatus(principal.getUser().getId(), todoStatus);
+    }
+
+    @GetMapping(value = "/priority/{priority}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<Todo> getTodosByPriority(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                         @PathVariable String priority) {
+        Todo.TodoPriority todoPriority = Todo.TodoPriority.valueOf(priority.toUpperCase());
+        return todoService.findByPriority(principal.getUser().getId(), todoPriority);
+    }
+
+    @GetMapping(value = "/tag/{tag}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<Todo> getTodosByTag(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                    @PathVariable String tag) {
+        return todoService.findByTag(principal.getUser().getId(), tag);
+    }
+
+    @GetMapping(value = "/overdue", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<Todo> getOverdueTodos(@AuthenticationPrincipal CustomUserPrincipal principal) {
+        return todoService.findOverdueTodos(principal.getUser().getId());
+    }
+
+    @GetMapping(value = "/due-soon", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<Todo> getTodosDueSoon(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                      @RequestParam(defaultValue = "24") int hoursAhead) {
+        return todoService.findTodosDueSoon(principal.getUser().getId(), hoursAhead);
+    }
+
+    @GetMapping(value = "/search", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<Todo> searchTodos(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                  @RequestParam String query) {
+        return todoService.searchByTitle(principal.getUser().getId(), query);
+    }
+
+    @GetMapping("/stats")
+    public Mono<Map<String, Long>> getTodoStats(@AuthenticationPrincipal CustomUserPrincipal principal) {
+        String userId = principal.getUser().getId();
+        return Mono.zip(
+                todoService.countByUserId(userId),
+                todoService.countByStatus(userId, Todo.TodoStatus.PENDING),
+                todoService.countByStatus(userId, Todo.TodoStatus.IN_PROGRESS),
+                todoService.countByStatus(userId, Todo.TodoStatus.COMPLETED),
+                todoService.countByStatus(userId, Todo.TodoStatus.CANCELLED),
+                todoService.countByPriority(userId, Todo.TodoPriority.HIGH),
+                todoService.countByPriority(userId, Todo.TodoPriority.URGENT))
+            .map(counts -> Map.of(
+                "total", counts.getT1(),
+                "pending", counts.getT2(),
+                "inProgress", counts.getT3(),
+                "completed", counts.getT4(),
+                "cancelled", counts.getT5(),
+                "high", counts.getT6(),
+                "urgent", counts.getT7()
+            ));
+    }
+
+    @PostMapping("/check-overdue")
+    public Mono<Map<String, String>> checkOverdueTodos(@AuthenticationPrincipal CustomUserPrincipal principal) {
+        return todoService.checkAndNotifyOverdueTodos(principal.getUser().getId())
+            .thenReturn(Map.of("message", "Overdue todos check completed"));
+    }
+
+    @PostMapping("/check-due-soon")
+    public Mono<Map<String, String>> checkDueSoonTodos(@AuthenticationPrincipal CustomUserPrincipal principal,
+                                                       @RequestParam(defaultValue = "24") int hoursAhead) {
+        return todoService.checkAndNotifyDueSoonTodos(principal.getUser().getId(), hoursAhead)
+            .thenReturn(Map.of("message", "Due soon todos check completed"));
+    }
+
+    private static ResponseEntity<Todo> withETag(Todo todo) {
+        return ResponseEntity.ok().eTag(ETags.of(todo.getVersion())).body(todo);
+    }
+}
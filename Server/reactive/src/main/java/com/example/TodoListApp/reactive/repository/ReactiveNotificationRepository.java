@@ -0,0 +1,66 @@
+package com.example.TodoListApp.reactive.repository;
+
+import com.example.TodoListApp.entity.Notification;
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reactive counterpart of NotificationRepository. Like it, queries for a user's notifications
+ * take the current time and skip notifications that expired but are not removed by the TTL
+ * index yet.
+ */
+@Repository
+public interface ReactiveNotificationRepository extends ReactiveMongoRepository<Notification, String> {
+    
+    @Meta(cursorBatchSize = 256)
+    @Query(value = "{ 'userId': ?0, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?1 } } ] }",
+           sort = "{ 'createdAt': -1 }")
+    Flux<Notification> findUnexpiredByUserId(String userId, LocalDateTime now);
+    
+    @Meta(cursorBatchSize = 256)
+    @Query("{ 'userId': ?0, 'status': ?1, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?2 } } ] }")
+    Flux<Notification> findUnexpiredByUserIdAndStatus(String userId, Notification.NotificationStatus status, LocalDateTime now);
+    
+    @Meta(cursorBatchSize = 256)
+    @Query("{ 'userId': ?0, 'type': ?1, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?2 } } ] }")
+    Flux<Notification> findUnexpiredByUserIdAndType(String userId, Notification.NotificationType type, LocalDateTime now);
+    
+    @Meta(cursorBatchSize = 256)
+    @Query("{ 'userId': ?0, 'priority': ?1, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?2 } } ] }")
+    Flux<Notification> findUnexpiredByUserIdAndPriority(String userId, Notification.NotificationPriority priority, LocalDateTime now);
+    
+    @Meta(cursorBatchSize = 256)
+    @Query("{ 'userId': ?0, 'readAt': null, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?1 } } ] }")
+    Flux<Notification> findUnreadNotificationsByUserId(String userId, LocalDateTime now);
+    
+    @Meta(cursorBatchSize = 256)
+    @Query("{ 'userId': ?0, 'readAt': { $ne: null }, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?1 } } ] }")
+    Flux<Notification> findReadNotificationsByUserId(String userId, LocalDateTime now);
+    
+    // Expired but not swept by the TTL monitor yet
+    @Meta(cursorBatchSize = 256)
+    @Query("{ 'userId': ?0, 'expiresAt': { $lt: ?1 }, 'isDeleted': false }")
+    Flux<Notification> findExpiredNotificationsByUserId(String userId, LocalDateTime now);
+    
+    @Meta(cursorBatchSize = 256)
+    @Query("{ 'todoId': ?0, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?1 } } ] }")
+    Flux<Notification> findByTodoId(String todoId, LocalDateTime now);
+    
+    @Query(value = "{ 'userId': ?0, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?1 } } ] }", count = true)
+    Mono<Long> countUnexpiredByUserId(String userId, LocalDateTime now);
+    
+    @Query(value = "{ 'userId': ?0, 'status': ?1, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?2 } } ] }", count = true)
+    Mono<Long> countUnexpiredByUserIdAndStatus(String userId, Notification.NotificationStatus status, LocalDateTime now);
+    
+    @Query(value = "{ 'userId': ?0, 'readAt': null, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?1 } } ] }", count = true)
+    Mono<Long> countUnreadByUserId(String userId, LocalDateTime now);
+    
+    @Query("{ '_id': ?0, 'userId': ?1, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?2 } } ] }")
+    Mono<Notification> findUnexpiredByIdAndUserId(String id, String userId, LocalDateTime now);
+}
@@ -0,0 +1,51 @@
+package com.example.TodoListApp.reactive.repository;
+
+import com.example.TodoListApp.entity.Todo;
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reactive counterpart of TodoRepository. List queries use a bounded cursor batch size so
+ * documents flow to the client as the driver produces them instead of in one large batch.
+ */
+@Repository
+public interface ReactiveTodoRepository extends ReactiveMongoRepository<Todo, String> {
+    
+    @Meta(cursorBatchSize = 256)
+    Flux<Todo> findByUserIdAndIsDeletedFalse(String userId);
+    
+    @Meta(cursorBatchSize = 256)
+    Flux<Todo> findByUserIdAndStatusAndIsDeletedFalse(String userId, Todo.TodoStatus status);
+    
+    @Meta(cursorBatchSize = 256)
+    Flux<Todo> findByUserIdAndPriorityAndIsDeletedFalse(String userId, Todo.TodoPriority priority);
+    
+    @Meta(cursorBatchSize = 256)
+    Flux<Todo> findByUserIdAndTagsContainingAndIsDeletedFalse(String userId, String tag);
+    
+    @Meta(cursorBatchSize = 256)
+    @Query("{ 'userId': ?0, 'dueDate': { $lt: ?1 }, 'status': { $ne: 'COMPLETED' }, 'isDeleted': false }")
+    Flux<Todo> findOverdueTodosByUserId(String userId, LocalDateTime now);
+    
+    @Meta(cursorBatchSize = 256)
+    @Query("{ 'userId': ?0, 'dueDate': { $gte: ?1, $lte: ?2 }, 'status': { $ne: 'COMPLETED' }, 'isDeleted': false }")
+    Flux<Todo> findTodosDueSoonByUserId(String userId, LocalDateTime start, LocalDateTime end);
+    
+    @Meta(cursorBatchSize = 256)
+    @Query("{ 'userId': ?0, 'title': { $regex: ?1, $options: 'i' }, 'isDeleted': false }")
+    Flux<Todo> findByUserIdAndTitleContainingIgnoreCase(String userId, String title);
+    
+    Mono<Long> countByUserIdAndIsDeletedFalse(String userId);
+    
+    Mono<Long> countByUserIdAndStatusAndIsDeletedFalse(String userId, Todo.TodoStatus status);
+    
+    Mono<Long> countByUserIdAndPriorityAndIsDeletedFalse(String userId, Todo.TodoPriority priority);
+    
+    Mono<Todo> findByIdAndUserIdAndIsDeletedFalse(String id, String userId);
+}
@@ -0,0 +1,14 @@
+package com.example.TodoListApp.reactive.repository;
+
+import com.example.TodoListApp.entity.User;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+    
+    Mono<User> findByUsername(String username);
+    
+    Mono<User> findByEmail(String email);
+}
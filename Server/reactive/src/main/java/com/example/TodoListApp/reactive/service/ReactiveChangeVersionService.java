@@ -0,0 +1,53 @@
+package com.example.TodoListApp.reactive.service;
+
+import com.example.TodoListApp.entity.ChangeVersion;
+import com.example.TodoListApp.service.ChangeVersionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Increments the servlet application's per-user change versions (change_versions) on writes made
+ * here, so its conditional GETs never answer 304 for data changed through this application.
+ * Servlet nodes see the change once their cached versions expire, as with each other's writes.
+ */
+@Service
+public class ReactiveChangeVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveChangeVersionService.class);
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    /**
+     * Increments the user's version, as ChangeVersionService.changed does. changesAt is when the
+     * changed data will next change by itself (due date, expiry), if it will. Users without
+     * versions are left alone: no ETag was issued to them yet, and the servlet application
+     * creates their versions on its first read.
+     */
+    public Mono<Void> changed(String userId, ChangeVersionService.Scope scope, LocalDateTime changesAt) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update().inc(scope.versionField(), 1).set("updatedAt", now);
+        if (changesAt != null && changesAt.isAfter(now)) {
+            update.min(scope.changeAtField(), changesAt);
+        }
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(userId)),
+                update,
+                ChangeVersion.class)
+            .onErrorResume(e -> {
+                // Clients may get a stale 304 until this user's next change
+                logger.warn("Failed to increment {} change version for user {}: {}", scope, userId, e.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+}
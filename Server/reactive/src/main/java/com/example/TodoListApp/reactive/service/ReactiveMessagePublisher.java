@@ -0,0 +1,46 @@
+package com.example.TodoListApp.reactive.service;
+
+import com.rabbitmq.client.AMQP;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.rabbitmq.OutboundMessage;
+import reactor.rabbitmq.Sender;
+
+/**
+ * Publishes through the non-blocking Sender, converting payloads with the servlet application's
+ * message converter (see ReactiveRabbitConfig), so its listeners receive the same bytes and
+ * headers whichever application sent a message.
+ */
+@Component
+public class ReactiveMessagePublisher {
+
+    @Autowired
+    private Sender sender;
+
+    @Autowired
+    private MessageConverter messageConverter;
+
+    public Mono<Void> publish(String exchange, String routingKey, Object payload, MessageProperties properties) {
+        return Mono.fromCallable(() -> toOutboundMessage(exchange, routingKey, payload, properties))
+            .flatMap(message -> sender.send(Mono.just(message)));
+    }
+
+    private OutboundMessage toOutboundMessage(String exchange, String routingKey, Object payload, MessageProperties properties) {
+        Message message = messageConverter.toMessage(payload, properties);
+        MessageProperties converted = message.getMessageProperties();
+        AMQP.BasicProperties basicProperties = new AMQP.BasicProperties.Builder()
+            .contentType(converted.getContentType())
+            .contentEncoding(converted.getContentEncoding())
+            .headers(converted.getHeaders())
+            .deliveryMode(converted.getDeliveryMode() == MessageDeliveryMode.NON_PERSISTENT ? 1 : 2)
+            .priority(converted.getPriority())
+            .messageId(converted.getMessageId())
+            .build();
+        return new OutboundMessage(exchange, routingKey, basicProperties, message.getBody());
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.TodoListApp.reactive.service;
+
+import com.example.TodoListApp.dto.NotificationMessage;
+import com.example.TodoListApp.entity.Notification;
+import com.example.TodoListApp.entity.NotificationCounter;
+import com.example.TodoListApp.reactive.repository.ReactiveNotificationRepository;
+import com.example.TodoListApp.service.ChangeVersionService;
+import com.example.TodoListApp.service.NotificationLanes;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Non-blocking port of NotificationService. Messages are published in the servlet application's
+ * binary NotificationMessage format, on the same priority lanes (NotificationLanes), so its
+ * NotificationListener processes them unchanged and pushes them to open SSE streams once sent.
+ * Writes keep the servlet application's per-user unread counters (notification_counters) and
+ * change versions (change_versions) up to date, and honor If-Match like NotificationService.
+ */
+@Service
+public class ReactiveNotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveNotificationService.class);
+
+    @Autowired
+    private ReactiveNotificationRepository notificationRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private ReactiveChangeVersionService changeVersionService;
+
+    @Autowired
+    private ReactiveOptimisticWrites optimisticWrites;
+
+    @Autowired
+    private ReactiveMessagePublisher messagePublisher;
+
+    @Value("${notification.exchange.name}")
+    private String exchangeName;
+
+    @Value("${notification.routing.key}")
+    private String routingKey;
+
+    @Value("${notification.routing.high-key:todo.notification.high}")
+    private String highRoutingKey;
+
+    @Value("${notification.routing.bulk-key:todo.notification.bulk}")
+    private String bulkRoutingKey;
+
+    private NotificationLanes lanes;
+
+    @PostConstruct
+    public void init() {
+        lanes = new NotificationLanes(routingKey, highRoutingKey, bulkRoutingKey);
+    }
+
+    public Flux<Notification> findAllByUserId(String userId) {
+        return notificationRepository.findUnexpiredByUserId(userId, LocalDateTime.now());
+    }
+
+    public Mono<Notification> findByIdAndUserId(String id, String userId) {
+        return notificationRepository.findUnexpiredByIdAndUserId(id, userId, LocalDateTime.now());
+    }
+
+    public Flux<Notification> findByStatus(String userId, Notification.NotificationStatus status) {
+        return notificationRepository.findUnexpiredByUserIdAndStatus(userId, status, LocalDateTime.now());
+    }
+
+    public Flux<Notification> findByType(String userId, Notification.NotificationType type) {
+        return notificationRepository.findUnexpiredByUserIdAndType(userId, type, LocalDateTime.now());
+    }
+
+    public Flux<Notification> findByPriority(String userId, Notification.NotificationPriority priority) {
+        return notificationRepository.findUnexpiredByUserIdAndPriority(userId, priority, LocalDateTime.now());
+    }
+
+    public Flux<Notification> findUnreadNotifications(String userId) {
+        return notificationRepository.findUnreadNotificationsByUserId(userId, LocalDateTime.now());
+    }
+
+    public Flux<Notification> findReadNotifications(String userId) {
+        return notificationRepository.findReadNotificationsByUserId(userId, LocalDateTime.now());
+    }
+
+    public Flux<Notification> findExpiredNotifications(String userId) {
+        return notificationRepository.findExpiredNotificationsByUserId(userId, LocalDateTime.now());
+    }
+
+    public Flux<Notification> findByTodoId(String todoId) {
+        return notificationRepository.findByTodoId(todoId, LocalDateTime.now());
+    }
+
+    public Mono<Notification> createNotification(String userId, String title, String message,
+                                                 Notification.NotificationType type, String todoId) {
+        return createNotification(userId, title, message, type, todoId,
+                                Notification.NotificationPriority.MEDIUM, null);
+    }
+
+    public Mono<Notification> createNotification(String userId, String title, String message,
+                                                 Notification.NotificationType type, String todoId,
+                                                 Notification.NotificationPriority priority, LocalDateTime expiresAt) {
+        Notification notification = new Notification(title, message, userId, type);
+        notification.setTodoId(todoId);
+        notification.setPriority(priority);
+        notification.setExpiresAt(expiresAt);
+        notification.setCreatedAt(LocalDateTime.now());
+        notification.setStatus(Notification.NotificationStatus.PENDING);
+
+        return notificationRepository.save(notification)
+            .flatMap(saved -> adjustUnread(userId, 1, expiresAt).thenReturn(saved))
+            .flatMap(saved -> changed(userId, expiresAt).thenReturn(saved))
+            .flatMap(saved -> sendToQueue(saved).thenReturn(saved));
+    }
+
+    /**
+     * Replaces the editable fields of a notification. With an expected version (If-Match) the
+     * update only applies if the notification is still at that version.
+     */
+    public Mono<Notification> updateNotification(String id, String userId, Notification updatedNotification, Long expectedVersion) {
+        return findExisting(id, userId)
+            .flatMap(existingNotification -> {
+                optimisticWrites.checkVersion("notification", existingNotification.getVersion(), expectedVersion);
+                existingNotification.setTitle(updatedNotification.getTitle());
+                existingNotification.setMessage(updatedNotification.getMessage());
+                existingNotification.setType(updatedNotification.getType());
+                existingNotification.setPriority(updatedNotification.getPriority());
+                existingNotification.setExpiresAt(updatedNotification.getExpiresAt());
+                existingNotification.setActionUrl(updatedNotification.getActionUrl());
+                existingNotification.setMetadata(updatedNotification.getMetadata());
+                return optimisticWrites.save("notification", expectedVersion, existingNotification, notificationRepository::save)
+                    .flatMap(saved -> adjustUnread(userId, 0, saved.isRead() ? null : saved.getExpiresAt()).thenReturn(saved))
+                    .flatMap(saved -> changed(userId, saved.getExpiresAt()).thenReturn(saved));
+            });
+    }
+
+    public Mono<Notification> markAsRead(String id, String userId, Long expectedVersion) {
+        return findExisting(id, userId)
+            .flatMap(notification -> {
+                optimisticWrites.checkVersion("notification", notification.getVersion(), expectedVersion);
+                boolean wasUnread = !notification.isRead();
+                notification.markAsRead();
+                return optimisticWrites.save("notification", expectedVersion, notification, notificationRepository::save)
+                    .flatMap(saved -> adjustUnread(userId, wasUnread ? -1 : 0, null).thenReturn(saved))
+                    .flatMap(saved -> changed(userId, null).thenReturn(saved));
+            });
+    }
+
+    public Mono<Void> markAllAsRead(String userId) {
+        return notificationRepository.saveAll(
+                findUnreadNotifications(userId).doOnNext(Notification::markAsRead))
+            .count()
+            .flatMap(marked -> adjustUnread(userId, -marked, null)
+                .then(marked > 0 ? changed(userId, null) : Mono.empty()));
+    }
+
+    public Mono<Void> deleteNotification(String id, String userId, Long expectedVersion) {
+        return findExisting(id, userId)
+            .flatMap(notification -> {
+                optimisticWrites.checkVersion("notification", notification.getVersion(), expectedVersion);
+                notification.setDeleted(true);
+                notification.setDeletedAt(LocalDateTime.now());
+                return optimisticWrites.save("notification", expectedVersion, notification, notificationRepository::save)
+                    .flatMap(saved -> adjustUnread(userId, saved.isRead() ? 0 : -1, null))
+                    .then(changed(userId, null));
+            });
+    }
+
+    public Mono<Void> deleteAllNotifications(String userId) {
+        return notificationRepository.saveAll(
+                findAllByUserId(userId).doOnNext(notification -> {
+                    notification.setDeleted(true);
+                    notification.setDeletedAt(LocalDateTime.now());
+                }))
+            .reduceWith(() -> new long[2], (counts, notification) -> {
+                counts[0]++;
+                counts[1] += notification.isRead() ? 0 : 1;
+                return counts;
+            })
+            .flatMap(counts -> adjustUnread(userId, -counts[1], null)
+                .then(counts[0] > 0 ? changed(userId, null) : Mono.empty()));
+    }
+
+    public Mono<Long> countByUserId(String userId) {
+        return notificationRepository.countUnexpiredByUserId(userId, LocalDateTime.now());
+    }
+
+    public Mono<Long> countByStatus(String userId, Notification.NotificationStatus status) {
+        return notificationRepository.countUnexpiredByUserIdAndStatus(userId, status, LocalDateTime.now());
+    }
+
+    public Mono<Long> countUnreadByUserId(String userId) {
+        return notificationRepository.countUnreadByUserId(userId, LocalDateTime.now());
+    }
+
+    public Mono<Void> sendToQueue(Notification notification) {
+        MessageProperties properties = new MessageProperties();
+        properties.setMessageId(notification.getId());
+        properties.setPriority(NotificationLanes.messagePriority(notification.getPriority()));
+        return messagePublisher.publish(exchangeName,
+                lanes.routingKeyFor(notification.getType(), notification.getPriority()),
+                NotificationMessage.from(notification), properties)
+            .onErrorResume(e -> {
+                notification.setStatus(Notification.NotificationStatus.FAILED);
+                return notificationRepository.save(notification)
+                    .then(changed(notification.getUserId(), null))
+                    .then(Mono.error(new RuntimeException("Failed to send notification to queue", e)));
+            });
+    }
+
+    public Mono<Void> sendWelcomeNotification(String userId) {
+        return createNotification(
+            userId,
+            "Welcome to TodoList App!",
+            "Thank you for joining us. Start creating your first todo to get organized!",
+            Notification.NotificationType.USER_WELCOME,
+            null,
+            Notification.NotificationPriority.LOW,
+            LocalDateTime.now().plusDays(7) // Expires in 7 days
+        ).then();
+    }
+
+    public Mono<Void> sendSystemAnnouncement(String title, String message, List<String> userIds) {
+        return Flux.fromIterable(userIds)
+            .concatMap(userId -> createNotification(
+                userId,
+                title,
+                message,
+                Notification.NotificationType.SYSTEM_ANNOUNCEMENT,
+                null,
+                Notification.NotificationPriority.MEDIUM,
+                LocalDateTime.now().plusDays(30) // Expires in 30 days
+            ))
+            .then();
+    }
+
+    /**
+     * Applies delta to the user's unread counter, as UnreadCountService does, recording the
+     * expiry of an unread notification that was added or changed so the counter is rebuilt once
+     * it passes. A missing counter is left alone; the servlet application rebuilds it on its
+     * first read.
+     */
+    private Mono<Void> adjustUnread(String userId, long delta, LocalDateTime expiresAt) {
+        if (delta == 0 && expiresAt == null) {
+            return Mono.empty();
+        }
+        Update update = new Update().inc("unread", delta).set("updatedAt", LocalDateTime.now());
+        if (expiresAt != null) {
+            update.min("recountAt", expiresAt);
+        }
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(userId)),
+                update,
+                NotificationCounter.class)
+            .onErrorResume(e -> {
+                // The next reconciliation repairs the counter; the notification change itself succeeded
+                logger.warn("Failed to adjust unread counter for user {}: {}", userId, e.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private Mono<Void> changed(String userId, LocalDateTime changesAt) {
+        return changeVersionService.changed(userId, ChangeVersionService.Scope.NOTIFICATIONS, changesAt);
+    }
+
+    private Mono<Notification> findExisting(String id, String userId) {
+        return notificationRepository.findUnexpiredByIdAndUserId(id, userId, LocalDateTime.now())
+            .switchIfEmpty(Mono.error(() -> new RuntimeException("Notification not found")));
+    }
+}
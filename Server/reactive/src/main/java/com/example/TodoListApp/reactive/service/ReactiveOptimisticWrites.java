@@ -0,0 +1,82 @@
+package com.example.TodoListApp.reactive.service;
+
+import com.example.TodoListApp.entity.Notification;
+import com.example.TodoListApp.entity.Todo;
+import com.example.TodoListApp.exception.VersionConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Conditional writes of versioned entities, as OptimisticWrites does in the servlet application,
+ * with outcomes counted in the same concurrency.writes meter.
+ */
+@Service
+public class ReactiveOptimisticWrites {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    /**
+     * Fails with VersionConflictException if the client expects a version other than the
+     * current one. A null expected version means the write is unconditional.
+     */
+    public void checkVersion(String entity, Long currentVersion, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            record(entity, "stale");
+            throw new VersionConflictException(entity, currentVersion);
+        }
+    }
+
+    /**
+     * Runs a versioned save of document. If another write got in between, a conditional write
+     * fails with VersionConflictException, an unconditional one with
+     * OptimisticLockingFailureException. A document without a version first gets version 0, as
+     * in OptimisticWrites.
+     */
+    public <T> Mono<T> save(String entity, Long expectedVersion, T document, Function<T, Mono<T>> save) {
+        return initializeVersion(document)
+            .then(Mono.defer(() -> save.apply(document)))
+            .doOnSuccess(saved -> record(entity, "ok"))
+            .onErrorMap(OptimisticLockingFailureException.class, e -> {
+                record(entity, "lost_race");
+                return expectedVersion != null ? new VersionConflictException(entity, null) : e;
+            });
+    }
+
+    private Mono<Void> initializeVersion(Object document) {
+        if (document instanceof Todo todo && todo.getVersion() == null) {
+            return initializeVersion(Todo.class, todo.getId()).doOnSuccess(done -> todo.setVersion(0L));
+        }
+        if (document instanceof Notification notification && notification.getVersion() == null) {
+            return initializeVersion(Notification.class, notification.getId()).doOnSuccess(done -> notification.setVersion(0L));
+        }
+        return Mono.empty();
+    }
+
+    private Mono<Void> initializeVersion(Class<?> type, String id) {
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id).and("version").exists(false)),
+                new Update().set("version", 0L), type)
+            .then();
+    }
+
+    private void record(String entity, String outcome) {
+        Counter.builder("concurrency.writes")
+                .tag("entity", entity)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.TodoListApp.reactive.service;
+
+import com.example.TodoListApp.entity.Todo;
+import com.example.TodoListApp.entity.TodoDailyStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Keeps the servlet application's daily todo rollups (todo_daily_stats) up to date on changes
+ * made here, with the same updates as TodoAnalyticsService. Updates are best effort: a failure
+ * is logged and the change itself still succeeds.
+ */
+@Service
+public class ReactiveTodoAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTodoAnalyticsService.class);
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    public Mono<Void> recordCreated(Todo todo) {
+        return increment(todo.getUserId(), todo.getCreatedAt(), new Update().inc("created", 1));
+    }
+
+    public Mono<Void> recordCompleted(Todo todo) {
+        LocalDateTime completedAt = todo.getCompletedAt();
+        if (completedAt == null) {
+            return Mono.empty();
+        }
+        Mono<Void> completed = increment(todo.getUserId(), completedAt, new Update()
+                .inc("completed", 1)
+                .inc("completionLeadTimeMillis", leadTimeMillis(todo, completedAt)));
+        if (todo.getDueDate() != null && completedAt.isAfter(todo.getDueDate())) {
+            return completed.then(recordOverdue(todo));
+        }
+        return completed;
+    }
+
+    /**
+     * Takes back the completion counted on previousCompletedAt when a todo is reopened.
+     */
+    public Mono<Void> recordReopened(Todo todo, LocalDateTime previousCompletedAt) {
+        if (previousCompletedAt == null) {
+            return Mono.empty();
+        }
+        return increment(todo.getUserId(), previousCompletedAt, new Update()
+                .inc("completed", -1)
+                .inc("completionLeadTimeMillis", -leadTimeMillis(todo, previousCompletedAt)));
+    }
+
+    /**
+     * Counts a todo whose due date passed while it was open, once per due date, as
+     * TodoAnalyticsService.recordOverdue does.
+     */
+    public Mono<Void> recordOverdue(Todo todo) {
+        if (todo.isOverdueCounted() || todo.getDueDate() == null) {
+            return Mono.empty();
+        }
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(todo.getId()).and("overdueCounted").ne(true)),
+                // Bump the version like any other write, so a save of a copy read before this fails
+                new Update().set("overdueCounted", true).inc("version", 1),
+                Todo.class)
+            .flatMap(result -> {
+                todo.setOverdueCounted(true);
+                if (result.getModifiedCount() == 0) {
+                    return Mono.empty();
+                }
+                if (todo.getVersion() != null) {
+                    todo.setVersion(todo.getVersion() + 1);
+                }
+                return increment(todo.getUserId(), todo.getDueDate(), new Update().inc("overdue", 1));
+            })
+            .onErrorResume(e -> {
+                logger.warn("Failed to record overdue todo {} in analytics: {}", todo.getId(), e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    private Mono<Void> increment(String userId, LocalDateTime at, Update update) {
+        LocalDate day = at.toLocalDate();
+        return mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(TodoDailyStats.idOf(userId, day))),
+                update.setOnInsert("userId", userId).setOnInsert("day", day),
+                TodoDailyStats.class)
+            .onErrorResume(e -> {
+                logger.warn("Failed to update todo analytics for user {} on {}: {}", userId, day, e.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private static long leadTimeMillis(Todo todo, LocalDateTime completedAt) {
+        return todo.getCreatedAt() != null
+                ? Math.max(0, Duration.between(todo.getCreatedAt(), completedAt).toMillis())
+                : 0;
+    }
+}
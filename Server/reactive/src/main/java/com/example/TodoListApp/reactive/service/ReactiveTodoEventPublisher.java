@@ -0,0 +1,37 @@
+package com.example.TodoListApp.reactive.service;
+
+import com.example.TodoListApp.dto.TodoChangeEvent;
+import com.example.TodoListApp.entity.Todo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Publishes todo changes made here to the servlet application's todo.events exchange, as
+ * TodoEventPublisher does, so every servlet node pushes them to the owner's WebSocket sessions.
+ */
+@Component
+public class ReactiveTodoEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTodoEventPublisher.class);
+
+    @Autowired
+    private ReactiveMessagePublisher messagePublisher;
+
+    @Value("${todo.events.exchange.name:todo.events}")
+    private String exchangeName;
+
+    public Mono<Void> publish(TodoChangeEvent.ChangeType type, Todo todo) {
+        return messagePublisher.publish(exchangeName, "todo." + type.name().toLowerCase(),
+                TodoChangeEvent.of(type, todo), new MessageProperties())
+            .onErrorResume(e -> {
+                // Live sync is best effort; the change itself is already saved
+                logger.warn("Failed to publish {} event for todo {}: {}", type, todo.getId(), e.getMessage());
+                return Mono.empty();
+            });
+    }
+}
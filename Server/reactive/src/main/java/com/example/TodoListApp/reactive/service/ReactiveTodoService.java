@@ -0,0 +1,279 @@
+package com.example.TodoListApp.reactive.service;
+
+import com.example.TodoListApp.dto.TodoChangeEvent;
+import com.example.TodoListApp.entity.Notification;
+import com.example.TodoListApp.entity.Todo;
+import com.example.TodoListApp.reactive.repository.ReactiveTodoRepository;
+import com.example.TodoListApp.service.ChangeVersionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Non-blocking port of TodoService with the same side effects: writes honor If-Match, send the
+ * same notifications, publish todo change events for the servlet application's WebSocket
+ * clients, update the daily analytics rollups and move on the change versions behind the ETags
+ * of todo reads.
+ */
+@Service
+public class ReactiveTodoService {
+
+    @Autowired
+    private ReactiveTodoRepository todoRepository;
+
+    @Autowired
+    private ReactiveNotificationService notificationService;
+
+    @Autowired
+    private ReactiveChangeVersionService changeVersionService;
+
+    @Autowired
+    private ReactiveTodoEventPublisher eventPublisher;
+
+    @Autowired
+    private ReactiveTodoAnalyticsService analyticsService;
+
+    @Autowired
+    private ReactiveOptimisticWrites optimisticWrites;
+
+    public Flux<Todo> findAllByUserId(String userId) {
+        return todoRepository.findByUserIdAndIsDeletedFalse(userId);
+    }
+
+    public Mono<Todo> findByIdAndUserId(String id, String userId) {
+        return todoRepository.findByIdAndUserIdAndIsDeletedFalse(id, userId);
+    }
+
+    public Flux<Todo> findByStatus(String userId, Todo.TodoStatus status) {
+        return todoRepository.findByUserIdAndStatusAndIsDeletedFalse(userId, status);
+    }
+
+    public Flux<Todo> findByPriority(String userId, Todo.TodoPriority priority) {
+        return todoRepository.findByUserIdAndPriorityAndIsDeletedFalse(userId, priority);
+    }
+
+    public Flux<Todo> findByTag(String userId, String tag) {
+        return todoRepository.findByUserIdAndTagsContainingAndIsDeletedFalse(userId, tag);
+    }
+
+    public Flux<Todo> findOverdueTodos(String userId) {
+        return todoRepository.findOverdueTodosByUserId(userId, LocalDateTime.now());
+    }
+
+    public Flux<Todo> findTodosDueSoon(String userId, int hoursAhead) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime future = now.plusHours(hoursAhead);
+        return todoRepository.findTodosDueSoonByUserId(userId, now, future);
+    }
+
+    public Flux<Todo> searchByTitle(String userId, String title) {
+        return todoRepository.findByUserIdAndTitleContainingIgnoreCase(userId, title);
+    }
+
+    public Mono<Todo> createTodo(Todo todo) {
+        todo.setCreatedAt(LocalDateTime.now());
+        todo.setUpdatedAt(LocalDateTime.now());
+        todo.setStatus(Todo.TodoStatus.PENDING);
+        todo.setPriority(Todo.TodoPriority.MEDIUM);
+        todo.setDeleted(false);
+
+        return todoRepository.save(todo)
+            .flatMap(savedTodo -> publishChange(TodoChangeEvent.ChangeType.CREATED, savedTodo))
+            .flatMap(savedTodo -> analyticsService.recordCreated(savedTodo).thenReturn(savedTodo))
+            .flatMap(savedTodo -> notificationService.createNotification(
+                savedTodo.getUserId(),
+                "New Todo Created",
+                "You have created a new todo: " + savedTodo.getTitle(),
+                Notification.NotificationType.TODO_CREATED,
+                savedTodo.getId()
+            ).thenReturn(savedTodo));
+    }
+
+    /**
+     * Replaces the editable fields of a todo. With an expected version (If-Match) the update only
+     * applies if the todo is still at that version.
+     */
+    public Mono<Todo> updateTodo(String id, String userId, Todo updatedTodo, Long expectedVersion) {
+        return findExisting(id, userId)
+            .flatMap(existingTodo -> {
+                optimisticWrites.checkVersion("todo", existingTodo.getVersion(), expectedVersion);
+
+                // Track if status changed to completed
+                boolean wasCompleted = existingTodo.isCompleted();
+                boolean isNowCompleted = updatedTodo.getStatus() == Todo.TodoStatus.COMPLETED;
+                LocalDateTime previousCompletedAt = existingTodo.getCompletedAt();
+                if (!Objects.equals(existingTodo.getDueDate(), updatedTodo.getDueDate())) {
+                    // A new due date can be missed again
+                    existingTodo.setOverdueCounted(false);
+                }
+
+                existingTodo.setTitle(updatedTodo.getTitle());
+                existingTodo.setDescription(updatedTodo.getDescription());
+                existingTodo.setStatus(updatedTodo.getStatus());
+                existingTodo.setPriority(updatedTodo.getPriority());
+                existingTodo.setDueDate(updatedTodo.getDueDate());
+                existingTodo.setTags(updatedTodo.getTags());
+                existingTodo.setAttachments(updatedTodo.getAttachments());
+                existingTodo.setUpdatedAt(LocalDateTime.now());
+
+                Mono<Notification> notification;
+                if (isNowCompleted && !wasCompleted) {
+                    existingTodo.setCompletedAt(LocalDateTime.now());
+                    notification = notificationService.createNotification(
+                        userId,
+                        "Todo Completed",
+                        "Congratulations! You have completed: " + existingTodo.getTitle(),
+                        Notification.NotificationType.TODO_COMPLETED,
+                        existingTodo.getId()
+                    );
+                } else {
+                    if (!isNowCompleted && wasCompleted) {
+                        existingTodo.setCompletedAt(null);
+                    }
+                    notification = notificationService.createNotification(
+                        userId,
+                        "Todo Updated",
+                        "Your todo has been updated: " + existingTodo.getTitle(),
+                        Notification.NotificationType.TODO_UPDATED,
+                        existingTodo.getId()
+                    );
+                }
+
+                return optimisticWrites.save("todo", expectedVersion, existingTodo, todoRepository::save)
+                    .flatMap(savedTodo -> publishChange(isNowCompleted && !wasCompleted
+                            ? TodoChangeEvent.ChangeType.COMPLETED
+                            : TodoChangeEvent.ChangeType.UPDATED, savedTodo))
+                    .flatMap(savedTodo -> {
+                        Mono<Void> analytics = Mono.empty();
+                        if (isNowCompleted && !wasCompleted) {
+                            analytics = analyticsService.recordCompleted(savedTodo);
+                        } else if (!isNowCompleted && wasCompleted) {
+                            analytics = analyticsService.recordReopened(savedTodo, previousCompletedAt);
+                        }
+                        return analytics.then(notification).thenReturn(savedTodo);
+                    });
+            });
+    }
+
+    public Mono<Void> deleteTodo(String id, String userId, Long expectedVersion) {
+        return findExisting(id, userId)
+            .flatMap(todo -> {
+                optimisticWrites.checkVersion("todo", todo.getVersion(), expectedVersion);
+                todo.setDeleted(true);
+                todo.setDeletedAt(LocalDateTime.now());
+                todo.setUpdatedAt(LocalDateTime.now());
+                return optimisticWrites.save("todo", expectedVersion, todo, todoRepository::save)
+                    .flatMap(savedTodo -> publishChange(TodoChangeEvent.ChangeType.DELETED, savedTodo));
+            })
+            .then();
+    }
+
+    public Mono<Todo> markAsCompleted(String id, String userId, Long expectedVersion) {
+        return findExisting(id, userId)
+            .flatMap(todo -> {
+                optimisticWrites.checkVersion("todo", todo.getVersion(), expectedVersion);
+                boolean wasCompleted = todo.isCompleted();
+                todo.markAsCompleted();
+                todo.setUpdatedAt(LocalDateTime.now());
+                return optimisticWrites.save("todo", expectedVersion, todo, todoRepository::save)
+                    .flatMap(savedTodo -> publishChange(TodoChangeEvent.ChangeType.COMPLETED, savedTodo))
+                    .flatMap(savedTodo -> (wasCompleted ? Mono.<Void>empty() : analyticsService.recordCompleted(savedTodo))
+                        .thenReturn(savedTodo));
+            })
+            .flatMap(savedTodo -> notificationService.createNotification(
+                userId,
+                "Todo Completed",
+                "Congratulations! You have completed: " + savedTodo.getTitle(),
+                Notification.NotificationType.TODO_COMPLETED,
+                savedTodo.getId()
+            ).thenReturn(savedTodo));
+    }
+
+    public Mono<Todo> markAsPending(String id, String userId, Long expectedVersion) {
+        return findExisting(id, userId)
+            .flatMap(todo -> {
+                optimisticWrites.checkVersion("todo", todo.getVersion(), expectedVersion);
+                LocalDateTime previousCompletedAt = todo.isCompleted() ? todo.getCompletedAt() : null;
+                todo.markAsPending();
+                todo.setUpdatedAt(LocalDateTime.now());
+                return reopened(todo, previousCompletedAt, expectedVersion);
+            });
+    }
+
+    public Mono<Todo> markAsInProgress(String id, String userId, Long expectedVersion) {
+        return findExisting(id, userId)
+            .flatMap(todo -> {
+                optimisticWrites.checkVersion("todo", todo.getVersion(), expectedVersion);
+                LocalDateTime previousCompletedAt = todo.isCompleted() ? todo.getCompletedAt() : null;
+                todo.markAsInProgress();
+                todo.setUpdatedAt(LocalDateTime.now());
+                return reopened(todo, previousCompletedAt, expectedVersion);
+            });
+    }
+
+    public Mono<Long> countByUserId(String userId) {
+        return todoRepository.countByUserIdAndIsDeletedFalse(userId);
+    }
+
+    public Mono<Long> countByStatus(String userId, Todo.TodoStatus status) {
+        return todoRepository.countByUserIdAndStatusAndIsDeletedFalse(userId, status);
+    }
+
+    public Mono<Long> countByPriority(String userId, Todo.TodoPriority priority) {
+        return todoRepository.countByUserIdAndPriorityAndIsDeletedFalse(userId, priority);
+    }
+
+    public Mono<Void> checkAndNotifyOverdueTodos(String userId) {
+        return findOverdueTodos(userId)
+            .concatMap(todo -> analyticsService.recordOverdue(todo)
+                .then(notificationService.createNotification(
+                    userId,
+                    "Todo Overdue",
+                    "Your todo is overdue: " + todo.getTitle(),
+                    Notification.NotificationType.TODO_OVERDUE,
+                    todo.getId()
+                )))
+            .then();
+    }
+
+    public Mono<Void> checkAndNotifyDueSoonTodos(String userId, int hoursAhead) {
+        return findTodosDueSoon(userId, hoursAhead)
+            .concatMap(todo -> notificationService.createNotification(
+                userId,
+                "Todo Due Soon",
+                "Your todo is due soon: " + todo.getTitle(),
+                Notification.NotificationType.TODO_DUE_SOON,
+                todo.getId()
+            ))
+            .then();
+    }
+
+    /**
+     * Saves a todo moved back from completed and takes back its completion in the rollups.
+     */
+    private Mono<Todo> reopened(Todo todo, LocalDateTime previousCompletedAt, Long expectedVersion) {
+        return optimisticWrites.save("todo", expectedVersion, todo, todoRepository::save)
+            .flatMap(savedTodo -> publishChange(TodoChangeEvent.ChangeType.UPDATED, savedTodo))
+            .flatMap(savedTodo -> analyticsService.recordReopened(savedTodo, previousCompletedAt).thenReturn(savedTodo));
+    }
+
+    /**
+     * Announces a saved change to the user's WebSocket sessions and moves on the change version,
+     * as TodoService.publishChange does.
+     */
+    private Mono<Todo> publishChange(TodoChangeEvent.ChangeType type, Todo todo) {
+        return eventPublisher.publish(type, todo)
+            .then(changeVersionService.changed(todo.getUserId(), ChangeVersionService.Scope.TODOS,
+                todo.isDeleted() || todo.isCompleted() ? null : todo.getDueDate()))
+            .thenReturn(todo);
+    }
+
+    private Mono<Todo> findExisting(String id, String userId) {
+        return todoRepository.findByIdAndUserIdAndIsDeletedFalse(id, userId)
+            .switchIfEmpty(Mono.error(() -> new RuntimeException("Todo not found")));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.TodoListApp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the indexes declared on the entities (@Indexed, @CompoundIndex) once the application
+ * is up, instead of through auto-index-creation, which makes building MongoTemplate fail when
+ * Mongo is unreachable. Index creation is idempotent; indexes that cannot be created, including
+ * all of them while Mongo is down, are logged and retried on the next start.
+ */
+@Component
+public class MongoIndexInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+            try {
+                IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+                resolver.resolveIndexFor(entity.getType()).forEach(indexOps::createIndex);
+            } catch (DataAccessResourceFailureException e) {
+                // Mongo is down; the remaining entities would each wait for the same timeout
+                logger.warn("Could not create indexes, Mongo is unreachable: {}", e.getMessage());
+                return;
+            } catch (Exception e) {
+                logger.warn("Could not create indexes for {}: {}", entity.getCollection(), e.getMessage());
+            }
+        }
+    }
+}
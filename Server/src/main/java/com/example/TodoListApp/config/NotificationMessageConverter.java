@@ -0,0 +1,148 @@
+package com.example.TodoListApp.config;
+
+import com.example.TodoListApp.dto.NotificationMessage;
+import com.example.TodoListApp.entity.Notification;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Writes NotificationMessage in a compact, versioned binary layout and hands every other
+ * payload (todo change events) to the JSON converter.
+ *
+ * Version 1 layout: version byte, flags byte (which optional fields follow), id, then userId,
+ * todoId, type ordinal, priority ordinal and createdAt as epoch millis (UTC) when present.
+ * Strings use modified UTF-8. Enum constants may only ever be appended; any other change to
+ * the layout needs a new version.
+ *
+ * JSON messages carrying a whole Notification, as published before this format, are still
+ * accepted and reduced to a NotificationMessage.
+ */
+public class NotificationMessageConverter implements MessageConverter {
+
+    public static final String CONTENT_TYPE = "application/x-todo-notification";
+    public static final byte VERSION = 1;
+
+    private static final int HAS_USER_ID = 1;
+    private static final int HAS_TODO_ID = 1 << 1;
+    private static final int HAS_TYPE = 1 << 2;
+    private static final int HAS_PRIORITY = 1 << 3;
+    private static final int HAS_CREATED_AT = 1 << 4;
+
+    private static final Notification.NotificationType[] TYPES = Notification.NotificationType.values();
+    private static final Notification.NotificationPriority[] PRIORITIES = Notification.NotificationPriority.values();
+
+    private final MessageConverter fallback;
+
+    public NotificationMessageConverter(MessageConverter fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) throws MessageConversionException {
+        if (!(object instanceof NotificationMessage notificationMessage)) {
+            return fallback.toMessage(object, messageProperties);
+        }
+        byte[] body = encode(notificationMessage);
+        messageProperties.setContentType(CONTENT_TYPE);
+        messageProperties.setContentLength(body.length);
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws MessageConversionException {
+        MessageProperties properties = message.getMessageProperties();
+        if (CONTENT_TYPE.equals(properties.getContentType())) {
+            return decode(message.getBody());
+        }
+
+        // Legacy JSON: deserialize as the entity it was written from, then keep only the message fields
+        Type inferred = properties.getInferredArgumentType();
+        if (NotificationMessage.class.equals(inferred)) {
+            properties.setInferredArgumentType(Notification.class);
+        }
+        Object converted = fallback.fromMessage(message);
+        if (converted instanceof Notification notification) {
+            return NotificationMessage.from(notification);
+        }
+        return converted;
+    }
+
+    public static byte[] encode(NotificationMessage message) {
+        if (message.getId() == null) {
+            throw new MessageConversionException("Notification message has no id");
+        }
+        int flags = (message.getUserId() != null ? HAS_USER_ID : 0)
+                | (message.getTodoId() != null ? HAS_TODO_ID : 0)
+                | (message.getType() != null ? HAS_TYPE : 0)
+                | (message.getPriority() != null ? HAS_PRIORITY : 0)
+                | (message.getCreatedAt() != null ? HAS_CREATED_AT : 0);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(flags);
+            out.writeUTF(message.getId());
+            if ((flags & HAS_USER_ID) != 0) {
+                out.writeUTF(message.getUserId());
+            }
+            if ((flags & HAS_TODO_ID) != 0) {
+                out.writeUTF(message.getTodoId());
+            }
+            if ((flags & HAS_TYPE) != 0) {
+                out.writeByte(message.getType().ordinal());
+            }
+            if ((flags & HAS_PRIORITY) != 0) {
+                out.writeByte(message.getPriority().ordinal());
+            }
+            if ((flags & HAS_CREATED_AT) != 0) {
+                out.writeLong(message.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+            }
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to encode notification message", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static NotificationMessage decode(byte[] body) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new MessageConversionException("Unsupported notification message version " + version);
+            }
+            int flags = in.readUnsignedByte();
+
+            NotificationMessage message = new NotificationMessage();
+            message.setId(in.readUTF());
+            if ((flags & HAS_USER_ID) != 0) {
+                message.setUserId(in.readUTF());
+            }
+            if ((flags & HAS_TODO_ID) != 0) {
+                message.setTodoId(in.readUTF());
+            }
+            if ((flags & HAS_TYPE) != 0) {
+                message.setType(TYPES[in.readUnsignedByte()]);
+            }
+            if ((flags & HAS_PRIORITY) != 0) {
+                message.setPriority(PRIORITIES[in.readUnsignedByte()]);
+            }
+            if ((flags & HAS_CREATED_AT) != 0) {
+                message.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readLong()), ZoneOffset.UTC));
+            }
+            return message;
+        } catch (IOException | ArrayIndexOutOfBoundsException e) {
+            throw new MessageConversionException("Malformed notification message", e);
+        }
+    }
+}
@@ -1,17 +1,31 @@
 package com.example.TodoListApp.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class RabbitMQConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(RabbitMQConfig.class);
+
+    public static final String DEAD_LETTER_EXCHANGE = "notification.dlx";
+    public static final String DEAD_LETTER_ROUTING_KEY = "notification.failed";
+    public static final String PARKING_LOT_QUEUE = "notification.parking-lot";
+    public static final String RETRY_EXCHANGE_PREFIX = "notification.retry.";
+
     @Value("${notification.queue.name}")
     private String queueName;
 
@@ -21,6 +35,27 @@ public class RabbitMQConfig {
     @Value("${notification.routing.key}")
     private String routingKey;
 
+    @Value("${notification.queue.high.name:notification.lane.high}")
+    private String highQueueName;
+
+    @Value("${notification.routing.high-key:todo.notification.high}")
+    private String highRoutingKey;
+
+    @Value("${notification.queue.bulk.name:notification.lane.bulk}")
+    private String bulkQueueName;
+
+    @Value("${notification.routing.bulk-key:todo.notification.bulk}")
+    private String bulkRoutingKey;
+
+    @Value("${notification.consumers.high.prefetch:1}")
+    private int highPrefetch;
+
+    @Value("${todo.events.exchange.name:todo.events}")
+    private String todoEventsExchangeName;
+
+    @Value("${notification.retry.delays:1000,5000,30000,120000}")
+    private List<Long> retryDelays;
+
     @Bean
     public TopicExchange notificationExchange() {
         return new TopicExchange(exchangeName);
@@ -34,44 +69,145 @@ public class RabbitMQConfig {
                 .with(routingKey);
     }
 
+    // Priority lanes: urgent/high traffic and bulk fan-outs get their own queues and consumers,
+    // so a large announcement never queues in front of a time-sensitive notification
+    @Bean
+    public Queue highPriorityNotificationQueue() {
+        return QueueBuilder.durable(highQueueName)
+                .withArgument("x-dead-letter-exchange", DEAD_LETTER_EXCHANGE)
+                .withArgument("x-dead-letter-routing-key", DEAD_LETTER_ROUTING_KEY)
+                .withArgument("x-max-priority", 10) // URGENT overtakes HIGH within the lane
+                .build();
+    }
+
+    @Bean
+    public Binding highPriorityNotificationBinding() {
+        return BindingBuilder
+                .bind(highPriorityNotificationQueue())
+                .to(notificationExchange())
+                .with(highRoutingKey);
+    }
+
+    @Bean
+    public Queue bulkNotificationQueue() {
+        return QueueBuilder.durable(bulkQueueName)
+                .withArgument("x-dead-letter-exchange", DEAD_LETTER_EXCHANGE)
+                .withArgument("x-dead-letter-routing-key", DEAD_LETTER_ROUTING_KEY)
+                .build();
+    }
+
+    @Bean
+    public Binding bulkNotificationBinding() {
+        return BindingBuilder
+                .bind(bulkNotificationQueue())
+                .to(notificationExchange())
+                .with(bulkRoutingKey);
+    }
+
+    /**
+     * Listener factory for the high-priority lane. Prefetch 1 keeps each consumer from buffering
+     * messages it cannot start yet, so a free consumer always picks up the next urgent message.
+     */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public SimpleRabbitListenerContainerFactory highPriorityContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setPrefetchCount(highPrefetch);
+        return factory;
     }
 
+    /**
+     * Notification messages use the compact binary format; everything else stays JSON.
+     */
+    @Bean
+    public MessageConverter messageConverter() {
+        return new NotificationMessageConverter(new Jackson2JsonMessageConverter());
+    }
+
+    /**
+     * Publisher confirms and returns are enabled on the connection factory
+     * (spring.rabbitmq.publisher-confirm-type / publisher-returns); mandatory makes the broker
+     * return messages that match no queue instead of dropping them silently.
+     */
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
-        template.setMessageConverter(jsonMessageConverter());
+        template.setMessageConverter(messageConverter());
+        template.setObservationEnabled(true); // publish timers (spring.rabbit.template)
+        template.setMandatory(true);
+        template.setReturnsCallback(returned -> logger.warn("Message returned by broker: {} {} (exchange={}, routingKey={})",
+                returned.getReplyCode(), returned.getReplyText(), returned.getExchange(), returned.getRoutingKey()));
         return template;
     }
 
-    // Dead Letter Queue Configuration for failed notifications
+    // Todo change events: one exclusive, auto-delete queue per node receives every event
+    @Bean
+    public TopicExchange todoEventsExchange() {
+        return new TopicExchange(todoEventsExchangeName);
+    }
+
+    @Bean
+    public Queue todoEventsQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("todo.events."));
+    }
+
+    @Bean
+    public Binding todoEventsBinding() {
+        return BindingBuilder
+                .bind(todoEventsQueue())
+                .to(todoEventsExchange())
+                .with("todo.#");
+    }
+
+    /**
+     * Delayed retries: one fanout exchange and queue per tier. A failed message is published to
+     * the tier for its attempt, waits out the queue TTL and is dead-lettered back to the
+     * notification exchange with its original routing key, so it re-enters its own lane.
+     */
+    @Bean
+    public Declarables notificationRetryTopology() {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int tier = 1; tier <= retryDelays.size(); tier++) {
+            String name = RETRY_EXCHANGE_PREFIX + tier;
+            FanoutExchange exchange = new FanoutExchange(name);
+            Queue queue = QueueBuilder.durable(name)
+                    .withArgument("x-message-ttl", retryDelays.get(tier - 1))
+                    .withArgument("x-dead-letter-exchange", exchangeName)
+                    .build();
+            declarables.add(exchange);
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(exchange));
+        }
+        return new Declarables(declarables);
+    }
+
+    // Parking lot: messages that exhausted their retries or could not be converted at all.
+    // Nothing consumes it; messages stay until an operator inspects or moves them.
     @Bean
-    public Queue deadLetterQueue() {
-        return QueueBuilder.durable("notification.dlq").build();
+    public Queue parkingLotQueue() {
+        return QueueBuilder.durable(PARKING_LOT_QUEUE).build();
     }
 
     @Bean
     public TopicExchange deadLetterExchange() {
-        return new TopicExchange("notification.dlx");
+        return new TopicExchange(DEAD_LETTER_EXCHANGE);
     }
 
     @Bean
     public Binding deadLetterBinding() {
         return BindingBuilder
-                .bind(deadLetterQueue())
+                .bind(parkingLotQueue())
                 .to(deadLetterExchange())
-                .with("notification.failed");
+                .with(DEAD_LETTER_ROUTING_KEY);
     }
 
     // Configure main queue with dead letter
     @Bean
     public Queue notificationQueueWithDLQ() {
         return QueueBuilder.durable(queueName)
-                .withArgument("x-dead-letter-exchange", "notification.dlx")
-                .withArgument("x-dead-letter-routing-key", "notification.failed")
-                .withArgument("x-message-ttl", 300000) // 5 minutes TTL
+                .withArgument("x-dead-letter-exchange", DEAD_LETTER_EXCHANGE)
+                .withArgument("x-dead-letter-routing-key", DEAD_LETTER_ROUTING_KEY)
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.example.TodoListApp.config;
+
+import com.example.TodoListApp.resilience.DependencyGuard;
+import com.mongodb.MongoException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.AmqpException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breakers and bulkheads for Mongo and RabbitMQ, configured from resilience.mongo.* and
+ * resilience.rabbitmq.*, plus the Mongo driver timeouts that bound how long a single call can
+ * hang. Only infrastructure errors count against a breaker; business exceptions ("Todo not
+ * found") and optimistic locking conflicts pass through unrecorded.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public DependencyGuard mongoGuard(Environment environment, MeterRegistry meterRegistry) {
+        return new DependencyGuard("mongo", settings(environment, "mongo"),
+                e -> e instanceof DataAccessResourceFailureException
+                        || (e instanceof TransientDataAccessException && !(e instanceof ConcurrencyFailureException))
+                        || e instanceof MongoException,
+                meterRegistry);
+    }
+
+    @Bean
+    public DependencyGuard rabbitGuard(Environment environment, MeterRegistry meterRegistry) {
+        return new DependencyGuard("rabbitmq", settings(environment, "rabbitmq"),
+                e -> e instanceof AmqpException, meterRegistry);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoTimeouts(
+            @Value("${resilience.mongo.connect-timeout:2000}") int connectTimeout,
+            @Value("${resilience.mongo.read-timeout:5000}") int readTimeout,
+            @Value("${resilience.mongo.server-selection-timeout:2000}") long serverSelectionTimeout,
+            @Value("${resilience.mongo.pool-max-wait:1000}") long poolMaxWait) {
+        return settings -> settings
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout(connectTimeout, TimeUnit.MILLISECONDS)
+                        .readTimeout(readTimeout, TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(cluster -> cluster
+                        .serverSelectionTimeout(serverSelectionTimeout, TimeUnit.MILLISECONDS))
+                .applyToConnectionPoolSettings(pool -> pool
+                        .maxWaitTime(poolMaxWait, TimeUnit.MILLISECONDS));
+    }
+
+    private static DependencyGuard.Settings settings(Environment environment, String dependency) {
+        String prefix = "resilience." + dependency + ".";
+        return new DependencyGuard.Settings(
+                environment.getProperty(prefix + "max-concurrent-calls", Integer.class, 64),
+                Duration.ofMillis(environment.getProperty(prefix + "max-wait", Long.class, 500L)),
+                environment.getProperty(prefix + "window-size", Integer.class, 50),
+                environment.getProperty(prefix + "minimum-calls", Integer.class, 20),
+                environment.getProperty(prefix + "failure-rate-threshold", Double.class, 0.5),
+                Duration.ofMillis(environment.getProperty(prefix + "slow-call-duration", Long.class, 3000L)),
+                Duration.ofMillis(environment.getProperty(prefix + "open-duration", Long.class, 10000L)),
+                environment.getProperty(prefix + "half-open-calls", Integer.class, 3));
+    }
+}
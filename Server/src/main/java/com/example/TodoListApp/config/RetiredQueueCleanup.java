@@ -0,0 +1,182 @@
+package com.example.TodoListApp.config;
+
+import com.rabbitmq.client.GetResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retires queues of earlier versions that cannot be redeclared as this version declares them.
+ *
+ * notification.dlq was bound to the dead-letter exchange and nothing consumes it since retries
+ * go through the delay tiers; brokers that still have it would keep copying every parked message
+ * into it. It is unbound and deleted if empty; messages left in it are reported so an operator
+ * can move or drop them.
+ *
+ * todo.notifications, todo.notifications.high and todo.notifications.bulk were declared with a
+ * 5 minute x-message-ttl, which the broker does not let a redeclaration drop, so the lanes now use
+ * new queues (notification.queue.*.name). Each old lane queue is unbound, its messages are moved
+ * to the exchange under the lane's routing key, so they reach the new queue, and it is deleted
+ * once empty and unused. During a rolling deploy, nodes of the previous version keep consuming
+ * it and may bind it again when they reconnect; messages then reach both queues and the listener
+ * drops the duplicate. The check repeats until every retired queue is gone.
+ */
+@Component
+public class RetiredQueueCleanup {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetiredQueueCleanup.class);
+
+    static final String RETIRED_DEAD_LETTER_QUEUE = "notification.dlq";
+    static final String RETIRED_STANDARD_QUEUE = "todo.notifications";
+    static final String RETIRED_HIGH_QUEUE = "todo.notifications.high";
+    static final String RETIRED_BULK_QUEUE = "todo.notifications.bulk";
+
+    private final MessagePropertiesConverter propertiesConverter = new DefaultMessagePropertiesConverter();
+
+    @Autowired
+    private AmqpAdmin amqpAdmin;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Value("${notification.exchange.name}")
+    private String exchangeName;
+
+    @Value("${notification.queue.name}")
+    private String queueName;
+
+    @Value("${notification.routing.key}")
+    private String routingKey;
+
+    @Value("${notification.queue.high.name:notification.lane.high}")
+    private String highQueueName;
+
+    @Value("${notification.routing.high-key:todo.notification.high}")
+    private String highRoutingKey;
+
+    @Value("${notification.queue.bulk.name:notification.lane.bulk}")
+    private String bulkQueueName;
+
+    @Value("${notification.routing.bulk-key:todo.notification.bulk}")
+    private String bulkRoutingKey;
+
+    @Value("${notification.spool.confirm-timeout:10000}")
+    private long confirmTimeoutMillis;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${notification.retired-queues.check-interval:300000}",
+               fixedDelayString = "${notification.retired-queues.check-interval:300000}")
+    public void removeRetiredQueues() {
+        removeRetiredDeadLetterQueue();
+
+        Map<String, String> retiredLanes = new LinkedHashMap<>();
+        retiredLanes.put(RETIRED_HIGH_QUEUE, highRoutingKey);
+        retiredLanes.put(RETIRED_STANDARD_QUEUE, routingKey);
+        retiredLanes.put(RETIRED_BULK_QUEUE, bulkRoutingKey);
+        Set<String> current = Set.of(queueName, highQueueName, bulkQueueName);
+        retiredLanes.forEach((queue, laneRoutingKey) -> {
+            // Still configured as a lane here, so not retired
+            if (!current.contains(queue)) {
+                retireLaneQueue(queue, laneRoutingKey);
+            }
+        });
+    }
+
+    private void removeRetiredDeadLetterQueue() {
+        try {
+            QueueInformation info = amqpAdmin.getQueueInfo(RETIRED_DEAD_LETTER_QUEUE);
+            if (info == null) {
+                return;
+            }
+            amqpAdmin.removeBinding(new Binding(RETIRED_DEAD_LETTER_QUEUE, Binding.DestinationType.QUEUE,
+                    RabbitMQConfig.DEAD_LETTER_EXCHANGE, RabbitMQConfig.DEAD_LETTER_ROUTING_KEY, null));
+            if (info.getMessageCount() == 0) {
+                amqpAdmin.deleteQueue(RETIRED_DEAD_LETTER_QUEUE, true, true);
+                logger.info("Deleted retired queue {}", RETIRED_DEAD_LETTER_QUEUE);
+            } else {
+                logger.warn("Unbound retired queue {}; it still holds {} messages and is left for inspection",
+                        RETIRED_DEAD_LETTER_QUEUE, info.getMessageCount());
+            }
+        } catch (Exception e) {
+            // Retried on the next check
+            logger.warn("Could not remove retired queue {}: {}", RETIRED_DEAD_LETTER_QUEUE, e.getMessage());
+        }
+    }
+
+    private void retireLaneQueue(String queue, String laneRoutingKey) {
+        try {
+            if (amqpAdmin.getQueueInfo(queue) == null) {
+                return;
+            }
+            amqpAdmin.removeBinding(new Binding(queue, Binding.DestinationType.QUEUE,
+                    exchangeName, laneRoutingKey, null));
+            long moved = moveMessages(queue, laneRoutingKey);
+            if (moved > 0) {
+                logger.info("Moved {} messages from retired queue {} to routing key {}", moved, queue, laneRoutingKey);
+            }
+            QueueInformation info = amqpAdmin.getQueueInfo(queue);
+            if (info != null && info.getMessageCount() == 0 && info.getConsumerCount() == 0) {
+                amqpAdmin.deleteQueue(queue, true, true);
+                logger.info("Deleted retired queue {}", queue);
+            } else if (info != null) {
+                logger.info("Retired queue {} still has {} messages and {} consumers; checking again later",
+                        queue, info.getMessageCount(), info.getConsumerCount());
+            }
+        } catch (Exception e) {
+            // Retried on the next check
+            logger.warn("Could not retire queue {}: {}", queue, e.getMessage());
+        }
+    }
+
+    /**
+     * Republishes every message in the queue under the lane's routing key, acknowledging each
+     * one only once the broker confirmed its copy, so a failure leaves it in the old queue.
+     */
+    private long moveMessages(String queue, String laneRoutingKey) {
+        Long moved = rabbitTemplate.execute(channel -> {
+            long count = 0;
+            GetResponse response;
+            while ((response = channel.basicGet(queue, false)) != null) {
+                long deliveryTag = response.getEnvelope().getDeliveryTag();
+                MessageProperties properties = propertiesConverter.toMessageProperties(
+                        response.getProps(), response.getEnvelope(), StandardCharsets.UTF_8.name());
+                CorrelationData correlation = new CorrelationData();
+                try {
+                    rabbitTemplate.send(exchangeName, laneRoutingKey, new Message(response.getBody(), properties), correlation);
+                    CorrelationData.Confirm confirm = correlation.getFuture().get(confirmTimeoutMillis, TimeUnit.MILLISECONDS);
+                    if (!confirm.isAck() || correlation.getReturned() != null) {
+                        throw new AmqpException("Broker did not accept the moved message: " + confirm.getReason());
+                    }
+                } catch (Exception e) {
+                    channel.basicNack(deliveryTag, false, true);
+                    throw e;
+                }
+                channel.basicAck(deliveryTag, false);
+                count++;
+            }
+            return count;
+        });
+        return moved != null ? moved : 0;
+    }
+}
@@ -1,10 +1,16 @@
 package com.example.TodoListApp.config;
 
+import com.example.TodoListApp.resilience.RateLimiter;
 import com.example.TodoListApp.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -16,11 +22,16 @@ import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserService;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.IpAddressAuthorizationManager;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 @EnableWebSecurity
@@ -32,6 +43,15 @@ public class SecurityConfig {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${metrics.scrape.allowed-addresses:127.0.0.1/32,::1/128}")
+    private String[] scrapeAllowedAddresses;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -44,7 +64,8 @@ public class SecurityConfig {
             )
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/auth/**", "/public/**", "/actuator/health").permitAll()
-                .requestMatchers("/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/prometheus").access(scraperOrAdmin())
+                .requestMatchers("/actuator/**", "/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .formLogin(form -> form
@@ -69,11 +90,28 @@ public class SecurityConfig {
                 .invalidateHttpSession(true)
                 .clearAuthentication(true)
                 .permitAll()
-            );
+            )
+            .addFilterAfter(new RateLimitFilter(rateLimiter, objectMapper), AnonymousAuthenticationFilter.class);
 
         return http.build();
     }
 
+    /**
+     * Metrics reveal traffic, error rates and queue state, so they are only served to admins and
+     * to scrapers on the addresses in metrics.scrape.allowed-addresses.
+     */
+    @SuppressWarnings("unchecked")
+    private AuthorizationManager<RequestAuthorizationContext> scraperOrAdmin() {
+        List<AuthorizationManager<RequestAuthorizationContext>> managers = new ArrayList<>();
+        for (String address : scrapeAllowedAddresses) {
+            if (!address.isBlank()) {
+                managers.add(IpAddressAuthorizationManager.hasIpAddress(address.trim()));
+            }
+        }
+        managers.add(AuthorityAuthorizationManager.hasRole("ADMIN"));
+        return AuthorizationManagers.anyOf(managers.toArray(AuthorizationManager[]::new));
+    }
+
     @Bean
     public OAuth2UserService<OAuth2UserRequest, OAuth2User> oauth2UserService() {
         return new CustomOAuth2UserService(userService);
@@ -95,6 +133,7 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("ETag"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
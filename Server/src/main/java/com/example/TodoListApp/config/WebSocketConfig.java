@@ -0,0 +1,67 @@
+package com.example.TodoListApp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * STOMP over WebSocket at /ws. Clients subscribe to /user/queue/todos and receive
+ * TodoChangeEvents for their own account. The handshake runs behind the normal session
+ * authentication, and the STOMP user is named by user id so events can be routed with
+ * SimpMessagingTemplate.convertAndSendToUser(userId, ...).
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws")
+                .setAllowedOriginPatterns("*")
+                .setHandshakeHandler(new UserIdHandshakeHandler());
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+        heartbeatScheduler.setPoolSize(1);
+        heartbeatScheduler.setThreadNamePrefix("ws-heartbeat-");
+        heartbeatScheduler.initialize();
+
+        registry.enableSimpleBroker("/queue")
+                .setHeartbeatValue(new long[] { 10000, 10000 })
+                .setTaskScheduler(heartbeatScheduler);
+        registry.setApplicationDestinationPrefixes("/app");
+        registry.setUserDestinationPrefix("/user");
+    }
+
+    private static class UserIdHandshakeHandler extends DefaultHandshakeHandler {
+
+        @Override
+        protected Principal determineUser(ServerHttpRequest request, WebSocketHandler wsHandler,
+                                          Map<String, Object> attributes) {
+            Principal principal = request.getPrincipal();
+            if (principal instanceof Authentication authentication) {
+                Object user = authentication.getPrincipal();
+                if (user instanceof CustomOAuth2User) {
+                    String userId = ((CustomOAuth2User) user).getId();
+                    return () -> userId;
+                } else if (user instanceof CustomUserDetailsService.CustomUserPrincipal) {
+                    String userId = ((CustomUserDetailsService.CustomUserPrincipal) user).getUser().getId();
+                    return () -> userId;
+                }
+            }
+            return principal;
+        }
+    }
+}
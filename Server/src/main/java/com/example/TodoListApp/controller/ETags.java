@@ -0,0 +1,61 @@
+package com.example.TodoListApp.controller;
+
+/**
+ * Entity tags. Single items, on reads and write responses alike, carry the strong tag of the
+ * todo or notification, its version, which is what If-Match expects. Collection and stats reads
+ * carry the weak tag of the user's change version (ChangeVersionService), so If-None-Match can be
+ * answered without loading anything; a client that wants to update an item from a collection
+ * sends the version from the body as If-Match. Shared with the reactive application's controllers.
+ */
+public final class ETags {
+
+    // Matches no stored version, so a tag we never issued fails the precondition
+    private static final long NO_VERSION = -1;
+
+    private ETags() {}
+
+    public static String of(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    /**
+     * Whether an If-None-Match header matches the current tag, using weak comparison: "*" or any
+     * listed tag whose opaque part equals the current one.
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || eTag == null) {
+            return false;
+        }
+        String current = opaque(eTag);
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || opaque(candidate).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Version required by an If-Match header, or null if the write is unconditional (no header
+     * or "*"). Weak and unknown tags never match, as If-Match uses strong comparison.
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return NO_VERSION;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return NO_VERSION;
+        }
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -2,14 +2,29 @@ package com.example.TodoListApp.controller;
 
 import com.example.TodoListApp.config.CustomOAuth2User;
 import com.example.TodoListApp.config.CustomUserDetailsService;
+import com.example.TodoListApp.entity.Announcement;
 import com.example.TodoListApp.entity.Notification;
+import com.example.TodoListApp.service.AnnouncementService;
+import com.example.TodoListApp.service.ArchiveService;
+import com.example.TodoListApp.service.ChangeVersionService;
+import com.example.TodoListApp.service.NotificationEngagementService;
 import com.example.TodoListApp.service.NotificationService;
+import com.example.TodoListApp.service.NotificationStreamHub;
+import com.example.TodoListApp.service.UnreadCountService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -22,6 +37,27 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationStreamHub notificationStreamHub;
+
+    @Autowired
+    private UnreadCountService unreadCountService;
+
+    @Autowired
+    private AnnouncementService announcementService;
+
+    @Autowired
+    private NotificationEngagementService notificationEngagementService;
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    @Value("${notification.unread-count.max-wait:60000}")
+    private long maxUnreadWait;
+
     /**
      * Helper method to extract user ID from either OAuth2 or username/password authentication
      */
@@ -35,11 +71,40 @@ public class NotificationController {
             (principal != null ? principal.getClass().getName() : "null"));
     }
 
+    /**
+     * Helper method to check the ADMIN role for either OAuth2 or username/password authentication
+     */
+    private boolean isAdmin(Object principal) {
+        if (principal instanceof CustomOAuth2User) {
+            return ((CustomOAuth2User) principal).getUser().getRoles().contains("ADMIN");
+        } else if (principal instanceof CustomUserDetailsService.CustomUserPrincipal) {
+            return ((CustomUserDetailsService.CustomUserPrincipal) principal).getUser().getRoles().contains("ADMIN");
+        }
+        return false;
+    }
+
     @GetMapping
-    public ResponseEntity<List<Notification>> getAllNotifications(@AuthenticationPrincipal Object principal) {
+    public ResponseEntity<List<Notification>> getAllNotifications(@AuthenticationPrincipal Object principal,
+                                                               @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         String userId = getUserId(principal);
+        String eTag = changeVersionService.eTag(userId, ChangeVersionService.Scope.NOTIFICATIONS);
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         List<Notification> notifications = notificationService.findAllByUserId(userId);
-        return ResponseEntity.ok(notifications);
+        return ResponseEntity.ok().eTag(eTag).body(notifications);
+    }
+
+    /**
+     * Server-Sent Events stream of new and updated notifications for the current user.
+     * Clients load the list once, then apply "notification" events by id; a "resync" event
+     * means the replay window was missed and the list should be reloaded.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@AuthenticationPrincipal Object principal,
+                                          @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        String userId = getUserId(principal);
+        return notificationStreamHub.subscribe(userId, lastEventId);
     }
 
     @GetMapping("/{id}")
@@ -48,26 +113,32 @@ public class NotificationController {
         String userId = getUserId(principal);
         Optional<Notification> notification = notificationService.findByIdAndUserId(id, userId);
         if (notification.isPresent()) {
-            return ResponseEntity.ok(notification.get());
+            return ResponseEntity.ok().eTag(ETags.of(notification.get().getVersion())).body(notification.get());
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * Updates a notification; with If-Match set to its ETag, only if nobody changed it since
+     * (412 otherwise)
+     */
     @PutMapping("/{id}")
     public ResponseEntity<Notification> updateNotification(@AuthenticationPrincipal Object principal,
                                                         @PathVariable String id,
+                                                        @RequestHeader(value = "If-Match", required = false) String ifMatch,
                                                         @Valid @RequestBody Notification notification) {
         String userId = getUserId(principal);
-        Notification updatedNotification = notificationService.updateNotification(id, userId, notification);
-        return ResponseEntity.ok(updatedNotification);
+        Notification updatedNotification = notificationService.updateNotification(id, userId, notification, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedNotification.getVersion())).body(updatedNotification);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, String>> deleteNotification(@AuthenticationPrincipal Object principal,
-                                                              @PathVariable String id) {
+                                                              @PathVariable String id,
+                                                              @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         String userId = getUserId(principal);
-        notificationService.deleteNotification(id, userId);
+        notificationService.deleteNotification(id, userId, ETags.expectedVersion(ifMatch));
         Map<String, String> response = Map.of(
             "message", "Notification deleted successfully"
         );
@@ -76,10 +147,11 @@ public class NotificationController {
 
     @PutMapping("/{id}/read")
     public ResponseEntity<Notification> markAsRead(@AuthenticationPrincipal Object principal,
-                                                       @PathVariable String id) {
+                                                       @PathVariable String id,
+                                                       @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         String userId = getUserId(principal);
-        Notification updatedNotification = notificationService.markAsRead(id, userId);
-        return ResponseEntity.ok(updatedNotification);
+        Notification updatedNotification = notificationService.markAsRead(id, userId, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedNotification.getVersion())).body(updatedNotification);
     }
 
     @PutMapping("/read-all")
@@ -109,6 +181,23 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    /**
+     * Unread badge count. With since, the request is held until the count differs from it
+     * or the timeout elapses, so clients can long-poll instead of re-fetching on a timer.
+     */
+    @GetMapping("/unread/count")
+    public DeferredResult<Map<String, Long>> getUnreadCount(@AuthenticationPrincipal Object principal,
+                                                          @RequestParam(required = false) Long since,
+                                                          @RequestParam(defaultValue = "30000") long timeout) {
+        String userId = getUserId(principal);
+        if (since == null) {
+            DeferredResult<Map<String, Long>> result = new DeferredResult<>();
+            result.setResult(Map.of("unread", unreadCountService.getUnreadCount(userId)));
+            return result;
+        }
+        return unreadCountService.awaitChange(userId, since, Math.min(Math.max(timeout, 0), maxUnreadWait));
+    }
+
     @GetMapping("/read")
     public ResponseEntity<List<Notification>> getReadNotifications(@AuthenticationPrincipal Object principal) {
         String userId = getUserId(principal);
@@ -157,9 +246,36 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    /**
+     * Archived notifications, most recently archived first
+     */
+    @GetMapping("/archive")
+    public ResponseEntity<List<Notification>> getArchivedNotifications(@AuthenticationPrincipal Object principal,
+                                                                       @RequestParam(defaultValue = "50") int limit) {
+        String userId = getUserId(principal);
+        return ResponseEntity.ok(archiveService.findArchivedNotifications(userId, Math.min(Math.max(limit, 1), 200)));
+    }
+
+    @PostMapping("/archive/{id}/restore")
+    public ResponseEntity<Notification> restoreArchivedNotification(@AuthenticationPrincipal Object principal,
+                                                                    @PathVariable String id) {
+        String userId = getUserId(principal);
+        Optional<Notification> notification = archiveService.restoreNotification(id, userId);
+        if (notification.isPresent()) {
+            return ResponseEntity.ok(notification.get());
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Long>> getNotificationStats(@AuthenticationPrincipal Object principal) {
+    public ResponseEntity<Map<String, Long>> getNotificationStats(@AuthenticationPrincipal Object principal,
+                                                                @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         String userId = getUserId(principal);
+        String eTag = changeVersionService.eTag(userId, ChangeVersionService.Scope.NOTIFICATIONS);
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         
         Map<String, Long> stats = Map.of(
             "total", notificationService.countByUserId(userId),
@@ -170,7 +286,7 @@ public class NotificationController {
             "failed", notificationService.countByStatus(userId, Notification.NotificationStatus.FAILED)
         );
         
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok().eTag(eTag).body(stats);
     }
 
     @PostMapping("/create")
@@ -201,7 +317,7 @@ public class NotificationController {
 
     // Admin endpoints
     @PostMapping("/admin/announcement")
-    public ResponseEntity<Map<String, String>> sendSystemAnnouncement(@AuthenticationPrincipal CustomOAuth2User oauth2User,
+    public ResponseEntity<Map<String, Object>> sendSystemAnnouncement(@AuthenticationPrincipal CustomOAuth2User oauth2User,
                                                                    @RequestBody Map<String, Object> announcementData) {
         // Check if user is admin
         if (!oauth2User.getUser().getRoles().contains("ADMIN")) {
@@ -213,14 +329,65 @@ public class NotificationController {
         @SuppressWarnings("unchecked")
         List<String> userIds = (List<String>) announcementData.get("userIds");
         
-        notificationService.sendSystemAnnouncement(title, message, userIds);
+        // Delivery runs in the background; poll the status endpoint for progress
+        Announcement announcement = announcementService.createAnnouncement(title, message, userIds, oauth2User.getId());
         
-        Map<String, String> response = Map.of(
-            "message", "System announcement sent"
+        Map<String, Object> response = Map.of(
+            "message", "System announcement queued",
+            "announcementId", announcement.getId(),
+            "totalRecipients", announcement.getTotalRecipients()
         );
+        return ResponseEntity.accepted().body(response);
+    }
+
+    @GetMapping("/admin/announcement/{announcementId}")
+    public ResponseEntity<Map<String, Object>> getAnnouncementStatus(@AuthenticationPrincipal CustomOAuth2User oauth2User,
+                                                                  @PathVariable String announcementId) {
+        // Check if user is admin
+        if (!oauth2User.getUser().getRoles().contains("ADMIN")) {
+            return ResponseEntity.status(403).build();
+        }
+        
+        Optional<Announcement> announcementOpt = announcementService.findById(announcementId);
+        if (announcementOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        Announcement announcement = announcementOpt.get();
+        Map<String, Object> response = new HashMap<>();
+        response.put("announcementId", announcement.getId());
+        response.put("status", announcement.getStatus());
+        response.put("totalRecipients", announcement.getTotalRecipients());
+        response.put("processedRecipients", announcement.getProcessedRecipients());
+        response.put("failedRecipients", announcement.getFailedRecipients());
+        response.put("createdAt", announcement.getCreatedAt());
+        response.put("startedAt", announcement.getStartedAt());
+        response.put("completedAt", announcement.getCompletedAt());
+        response.put("lastError", announcement.getLastError());
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Delivery and read latency percentiles per type and priority over [from, to), merged from
+     * the hourly engagement histograms. Defaults to the last 24 hours.
+     */
+    @GetMapping("/admin/engagement")
+    public ResponseEntity<Map<String, Object>> getEngagement(@AuthenticationPrincipal Object principal,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                             @RequestParam(required = false) String stage,
+                                                             @RequestParam(required = false) Notification.NotificationType type,
+                                                             @RequestParam(required = false) Notification.NotificationPriority priority) {
+        // Check if user is admin
+        if (!isAdmin(principal)) {
+            return ResponseEntity.status(403).build();
+        }
+        
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        return ResponseEntity.ok(notificationEngagementService.getEngagement(start, end, stage, type, priority));
+    }
+
     @PostMapping("/admin/cleanup")
     public ResponseEntity<Map<String, String>> cleanupNotifications(@AuthenticationPrincipal CustomOAuth2User oauth2User) {
         // Check if user is admin
@@ -228,7 +395,6 @@ public class NotificationController {
             return ResponseEntity.status(403).build();
         }
         
-        notificationService.cleanupExpiredNotifications();
         notificationService.cleanupOldPendingNotifications(24); // Clean up notifications older than 24 hours
         
         Map<String, String> response = Map.of(
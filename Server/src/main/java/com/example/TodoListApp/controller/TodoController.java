@@ -4,14 +4,22 @@ import com.example.TodoListApp.config.CustomOAuth2User;
 import com.example.TodoListApp.config.CustomUserDetailsService;
 import com.example.TodoListApp.entity.Todo;
 import com.example.TodoListApp.entity.User;
+import com.example.TodoListApp.service.ArchiveService;
+import com.example.TodoListApp.service.ChangeVersionService;
+import com.example.TodoListApp.service.TodoAnalyticsService;
 import com.example.TodoListApp.service.TodoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -21,9 +29,20 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class TodoController {
 
+    private static final Logger logger = LoggerFactory.getLogger(TodoController.class);
+
     @Autowired
     private TodoService todoService;
 
+    @Autowired
+    private TodoAnalyticsService todoAnalyticsService;
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
     /**
      * Helper method to extract user ID from either OAuth2 or username/password authentication
      */
@@ -38,28 +57,31 @@ public class TodoController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Todo>> getAllTodos(@AuthenticationPrincipal Object principal) {
-        try {
-            System.out.println("Principal type: " + (principal != null ? principal.getClass().getName() : "null"));
-            String userId = getUserId(principal);
-            System.out.println("User ID: " + userId);
-            List<Todo> todos = todoService.findAllByUserId(userId);
-            System.out.println("Found " + todos.size() + " todos");
-            return ResponseEntity.ok(todos);
-        } catch (Exception e) {
-            System.out.println("Error in getAllTodos: " + e.getMessage());
-            e.printStackTrace();
-            throw e;
+    public ResponseEntity<List<Todo>> getAllTodos(@AuthenticationPrincipal Object principal,
+                                               @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        String userId = getUserId(principal);
+        String eTag = changeVersionService.eTag(userId, ChangeVersionService.Scope.TODOS);
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
         }
+        List<Todo> todos = todoService.findAllByUserId(userId);
+        logger.debug("Found {} todos for user {}", todos.size(), userId);
+        return ResponseEntity.ok().eTag(eTag).body(todos);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Todo> getTodoById(@AuthenticationPrincipal Object principal,
-                                         @PathVariable String id) {
+                                         @PathVariable String id,
+                                         @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         String userId = getUserId(principal);
         Optional<Todo> todo = todoService.findByIdAndUserId(id, userId);
         if (todo.isPresent()) {
-            return ResponseEntity.ok(todo.get());
+            // The item's own strong tag, which a client can send back as If-Match
+            String eTag = ETags.of(todo.get().getVersion());
+            if (ETags.matches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            return ResponseEntity.ok().eTag(eTag).body(todo.get());
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -71,23 +93,28 @@ public class TodoController {
         String userId = getUserId(principal);
         todo.setUserId(userId);
         Todo createdTodo = todoService.createTodo(todo);
-        return ResponseEntity.ok(createdTodo);
+        return ResponseEntity.ok().eTag(ETags.of(createdTodo.getVersion())).body(createdTodo);
     }
 
+    /**
+     * Updates a todo; with If-Match set to its ETag, only if nobody changed it since (412 otherwise)
+     */
     @PutMapping("/{id}")
     public ResponseEntity<Todo> updateTodo(@AuthenticationPrincipal Object principal,
                                        @PathVariable String id,
+                                       @RequestHeader(value = "If-Match", required = false) String ifMatch,
                                        @Valid @RequestBody Todo todo) {
         String userId = getUserId(principal);
-        Todo updatedTodo = todoService.updateTodo(id, userId, todo);
-        return ResponseEntity.ok(updatedTodo);
+        Todo updatedTodo = todoService.updateTodo(id, userId, todo, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedTodo.getVersion())).body(updatedTodo);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, String>> deleteTodo(@AuthenticationPrincipal Object principal,
-                                                       @PathVariable String id) {
+                                                       @PathVariable String id,
+                                                       @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         String userId = getUserId(principal);
-        todoService.deleteTodo(id, userId);
+        todoService.deleteTodo(id, userId, ETags.expectedVersion(ifMatch));
         Map<String, String> response = Map.of(
             "message", "Todo deleted successfully"
         );
@@ -96,29 +123,29 @@ public class TodoController {
 
     @PutMapping("/{id}/complete")
     public ResponseEntity<Todo> markAsCompleted(@AuthenticationPrincipal Object principal,
-                                             @PathVariable String id) {
+                                             @PathVariable String id,
+                                             @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         String userId = getUserId(principal);
-        todoService.markAsCompleted(id, userId);
-        Optional<Todo> todo = todoService.findByIdAndUserId(id, userId);
-        return ResponseEntity.ok(todo.get());
+        Todo todo = todoService.markAsCompleted(id, userId, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(todo.getVersion())).body(todo);
     }
 
     @PutMapping("/{id}/pending")
     public ResponseEntity<Todo> markAsPending(@AuthenticationPrincipal Object principal,
-                                           @PathVariable String id) {
+                                           @PathVariable String id,
+                                           @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         String userId = getUserId(principal);
-        todoService.markAsPending(id, userId);
-        Optional<Todo> todo = todoService.findByIdAndUserId(id, userId);
-        return ResponseEntity.ok(todo.get());
+        Todo todo = todoService.markAsPending(id, userId, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(todo.getVersion())).body(todo);
     }
 
     @PutMapping("/{id}/in-progress")
     public ResponseEntity<Todo> markAsInProgress(@AuthenticationPrincipal Object principal,
-                                             @PathVariable String id) {
+                                             @PathVariable String id,
+                                             @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         String userId = getUserId(principal);
-        todoService.markAsInProgress(id, userId);
-        Optional<Todo> todo = todoService.findByIdAndUserId(id, userId);
-        return ResponseEntity.ok(todo.get());
+        Todo todo = todoService.markAsInProgress(id, userId, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(todo.getVersion())).body(todo);
     }
 
     @GetMapping("/status/{status}")
@@ -171,8 +198,13 @@ public class TodoController {
     }
 
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Long>> getTodoStats(@AuthenticationPrincipal Object principal) {
+    public ResponseEntity<Map<String, Long>> getTodoStats(@AuthenticationPrincipal Object principal,
+                                                        @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         String userId = getUserId(principal);
+        String eTag = changeVersionService.eTag(userId, ChangeVersionService.Scope.TODOS);
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         
         Map<String, Long> stats = Map.of(
             "total", todoService.countByUserId(userId),
@@ -184,7 +216,53 @@ public class TodoController {
             "urgent", todoService.countByPriority(userId, Todo.TodoPriority.URGENT)
         );
         
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok().eTag(eTag).body(stats);
+    }
+
+    /**
+     * Completion rate, lead time, overdue counts and completion streaks per day, served from
+     * the daily rollups. Defaults to the last 30 days.
+     */
+    @GetMapping("/analytics")
+    public ResponseEntity<Map<String, Object>> getTodoAnalytics(@AuthenticationPrincipal Object principal,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        String userId = getUserId(principal);
+        return ResponseEntity.ok(todoAnalyticsService.getAnalytics(userId, from, to));
+    }
+
+    @PostMapping("/analytics/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildTodoAnalytics(@AuthenticationPrincipal Object principal) {
+        String userId = getUserId(principal);
+        int days = todoAnalyticsService.rebuild(userId);
+        
+        Map<String, Object> response = Map.of(
+            "message", "Todo analytics rebuilt",
+            "days", days
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Archived todos, most recently archived first
+     */
+    @GetMapping("/archive")
+    public ResponseEntity<List<Todo>> getArchivedTodos(@AuthenticationPrincipal Object principal,
+                                                       @RequestParam(defaultValue = "50") int limit) {
+        String userId = getUserId(principal);
+        return ResponseEntity.ok(archiveService.findArchivedTodos(userId, Math.min(Math.max(limit, 1), 200)));
+    }
+
+    @PostMapping("/archive/{id}/restore")
+    public ResponseEntity<Todo> restoreArchivedTodo(@AuthenticationPrincipal Object principal,
+                                                    @PathVariable String id) {
+        String userId = getUserId(principal);
+        Optional<Todo> todo = archiveService.restoreTodo(id, userId);
+        if (todo.isPresent()) {
+            return ResponseEntity.ok(todo.get());
+        } else {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @PostMapping("/check-overdue")
@@ -0,0 +1,97 @@
+package com.example.TodoListApp.dto;
+
+import com.example.TodoListApp.entity.Notification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Queue payload for a notification. Carries the id plus the fields needed for routing and
+ * metrics; consumers load the current state from the database instead of trusting a copy.
+ * Serialized by NotificationMessageConverter.
+ */
+public class NotificationMessage {
+
+    private String id;
+    private String userId;
+    private String todoId;
+    private Notification.NotificationType type;
+    private Notification.NotificationPriority priority;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public NotificationMessage() {}
+
+    public NotificationMessage(String id, String userId, String todoId, Notification.NotificationType type,
+                               Notification.NotificationPriority priority, LocalDateTime createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.todoId = todoId;
+        this.type = type;
+        this.priority = priority;
+        this.createdAt = createdAt;
+    }
+
+    public static NotificationMessage from(Notification notification) {
+        return new NotificationMessage(notification.getId(), notification.getUserId(), notification.getTodoId(),
+                notification.getType(), notification.getPriority(), notification.getCreatedAt());
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getTodoId() {
+        return todoId;
+    }
+
+    public void setTodoId(String todoId) {
+        this.todoId = todoId;
+    }
+
+    public Notification.NotificationType getType() {
+        return type;
+    }
+
+    public void setType(Notification.NotificationType type) {
+        this.type = type;
+    }
+
+    public Notification.NotificationPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Notification.NotificationPriority priority) {
+        this.priority = priority;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "NotificationMessage{" +
+                "id='" + id + '\'' +
+                ", userId='" + userId + '\'' +
+                ", type=" + type +
+                ", priority=" + priority +
+                '}';
+    }
+}
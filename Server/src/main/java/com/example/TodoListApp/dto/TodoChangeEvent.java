@@ -0,0 +1,151 @@
+package com.example.TodoListApp.dto;
+
+import com.example.TodoListApp.entity.Todo;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Change event pushed to a user's WebSocket sessions. Carries only the fields a client needs to
+ * patch its local list; deletes carry the id alone.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TodoChangeEvent {
+    
+    private ChangeType type;
+    private String userId;
+    private String todoId;
+    private String title;
+    private String description;
+    private Todo.TodoStatus status;
+    private Todo.TodoPriority priority;
+    private LocalDateTime dueDate;
+    private LocalDateTime completedAt;
+    private LocalDateTime updatedAt;
+    private List<String> tags;
+    private LocalDateTime occurredAt;
+    
+    // Constructors
+    public TodoChangeEvent() {}
+    
+    public static TodoChangeEvent of(ChangeType type, Todo todo) {
+        TodoChangeEvent event = new TodoChangeEvent();
+        event.type = type;
+        event.userId = todo.getUserId();
+        event.todoId = todo.getId();
+        event.occurredAt = LocalDateTime.now();
+        if (type != ChangeType.DELETED) {
+            event.title = todo.getTitle();
+            event.description = todo.getDescription();
+            event.status = todo.getStatus();
+            event.priority = todo.getPriority();
+            event.dueDate = todo.getDueDate();
+            event.completedAt = todo.getCompletedAt();
+            event.updatedAt = todo.getUpdatedAt();
+            event.tags = todo.getTags();
+        }
+        return event;
+    }
+    
+    // Getters and Setters
+    public ChangeType getType() {
+        return type;
+    }
+    
+    public void setType(ChangeType type) {
+        this.type = type;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    
+    public String getTodoId() {
+        return todoId;
+    }
+    
+    public void setTodoId(String todoId) {
+        this.todoId = todoId;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public Todo.TodoStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Todo.TodoStatus status) {
+        this.status = status;
+    }
+    
+    public Todo.TodoPriority getPriority() {
+        return priority;
+    }
+    
+    public void setPriority(Todo.TodoPriority priority) {
+        this.priority = priority;
+    }
+    
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+    
+    public void setDueDate(LocalDateTime dueDate) {
+        this.dueDate = dueDate;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public List<String> getTags() {
+        return tags;
+    }
+    
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+    
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+    
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+    
+    public enum ChangeType {
+        CREATED, UPDATED, COMPLETED, DELETED
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.TodoListApp.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A system announcement stored once and fanned out to per-user notifications by a background
+ * worker. Progress is checkpointed after every chunk so an interrupted job resumes where it
+ * stopped instead of starting over.
+ */
+@Document(collection = "announcements")
+public class Announcement {
+    
+    @Id
+    private String id;
+    
+    private String title;
+    private String message;
+    private String createdBy;
+    
+    // Explicit recipients; null means every active user
+    private List<String> userIds;
+    
+    @Indexed
+    private AnnouncementStatus status;
+    
+    private long totalRecipients;
+    private long processedRecipients;
+    private long failedRecipients;
+    
+    // Index into userIds, or the last user id processed when targeting all active users
+    private int nextIndex;
+    private String lastUserId;
+    
+    private String owner;
+    private LocalDateTime heartbeatAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+    private String lastError;
+    
+    // Constructors
+    public Announcement() {
+        this.status = AnnouncementStatus.QUEUED;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public Announcement(String title, String message, List<String> userIds, String createdBy) {
+        this();
+        this.title = title;
+        this.message = message;
+        this.userIds = userIds;
+        this.createdBy = createdBy;
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public String getCreatedBy() {
+        return createdBy;
+    }
+    
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+    
+    public List<String> getUserIds() {
+        return userIds;
+    }
+    
+    public void setUserIds(List<String> userIds) {
+        this.userIds = userIds;
+    }
+    
+    public AnnouncementStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(AnnouncementStatus status) {
+        this.status = status;
+    }
+    
+    public long getTotalRecipients() {
+        return totalRecipients;
+    }
+    
+    public void setTotalRecipients(long totalRecipients) {
+        this.totalRecipients = totalRecipients;
+    }
+    
+    public long getProcessedRecipients() {
+        return processedRecipients;
+    }
+    
+    public void setProcessedRecipients(long processedRecipients) {
+        this.processedRecipients = processedRecipients;
+    }
+    
+    public long getFailedRecipients() {
+        return failedRecipients;
+    }
+    
+    public void setFailedRecipients(long failedRecipients) {
+        this.failedRecipients = failedRecipients;
+    }
+    
+    public int getNextIndex() {
+        return nextIndex;
+    }
+    
+    public void setNextIndex(int nextIndex) {
+        this.nextIndex = nextIndex;
+    }
+    
+    public String getLastUserId() {
+        return lastUserId;
+    }
+    
+    public void setLastUserId(String lastUserId) {
+        this.lastUserId = lastUserId;
+    }
+    
+    public String getOwner() {
+        return owner;
+    }
+    
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+    
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+    
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    
+    public enum AnnouncementStatus {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
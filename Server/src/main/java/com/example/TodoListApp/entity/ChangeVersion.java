@@ -0,0 +1,79 @@
+package com.example.TodoListApp.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user change counters for todos and notifications, keyed by user id and incremented on
+ * every write, so whether a user's data changed since a client's last fetch is a single
+ * primary-key lookup. The changeAt fields hold the next time the data changes without a write
+ * (a todo becoming overdue, a notification expiring).
+ */
+@Document(collection = "change_versions")
+public class ChangeVersion {
+
+    @Id
+    private String userId;
+
+    private long todos;
+    private long notifications;
+
+    private LocalDateTime todosChangeAt;
+    private LocalDateTime notificationsChangeAt;
+
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ChangeVersion() {}
+
+    // Getters and Setters
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public long getTodos() {
+        return todos;
+    }
+
+    public void setTodos(long todos) {
+        this.todos = todos;
+    }
+
+    public long getNotifications() {
+        return notifications;
+    }
+
+    public void setNotifications(long notifications) {
+        this.notifications = notifications;
+    }
+
+    public LocalDateTime getTodosChangeAt() {
+        return todosChangeAt;
+    }
+
+    public void setTodosChangeAt(LocalDateTime todosChangeAt) {
+        this.todosChangeAt = todosChangeAt;
+    }
+
+    public LocalDateTime getNotificationsChangeAt() {
+        return notificationsChangeAt;
+    }
+
+    public void setNotificationsChangeAt(LocalDateTime notificationsChangeAt) {
+        this.notificationsChangeAt = notificationsChangeAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
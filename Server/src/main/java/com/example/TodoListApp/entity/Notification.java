@@ -1,8 +1,13 @@
 package com.example.TodoListApp.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 
 import jakarta.validation.constraints.NotBlank;
@@ -11,11 +16,25 @@ import java.time.LocalDateTime;
 import java.util.Map;
 
 @Document(collection = "notifications")
+@CompoundIndexes({
+    @CompoundIndex(name = "user_deleted_created_at", def = "{'user_id': 1, 'isDeleted': 1, 'createdAt': -1}"),
+    @CompoundIndex(name = "status_created_at", def = "{'status': 1, 'createdAt': 1}"),
+    @CompoundIndex(name = "deleted_tombstones", def = "{'isDeleted': 1}", partialFilter = "{'isDeleted': true}"),
+    @CompoundIndex(name = "archive_deleted", def = "{'deletedAt': 1}", partialFilter = "{'isDeleted': true}"),
+    @CompoundIndex(name = "archive_read", def = "{'readAt': 1}", partialFilter = "{'readAt': {$exists: true}}"),
+    @CompoundIndex(name = "announcement_recipients", def = "{'metadata.announcementId': 1, 'user_id': 1}",
+                   partialFilter = "{'metadata.announcementId': {$exists: true}}")
+})
 public class Notification {
     
     @Id
     private String id;
     
+    // Incremented on every save; saving a copy read at an older version fails instead of overwriting
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    
     @NotBlank(message = "Title is required")
     @Size(min = 1, max = 200, message = "Title must be between 1 and 200 characters")
     private String title;
@@ -35,8 +54,12 @@ public class Notification {
     private LocalDateTime createdAt;
     private LocalDateTime sentAt;
     private LocalDateTime readAt;
+    
+    // Removed by Mongo once expired; soft-deleted ones are left to the archive
+    @Indexed(name = "expires_at_ttl", expireAfter = "0s", partialFilter = "{'isDeleted': false}")
     private LocalDateTime expiresAt;
     
+    @Indexed(sparse = true)
     private String todoId;
     private String actionUrl;
     private Map<String, Object> metadata;
@@ -44,6 +67,10 @@ public class Notification {
     private boolean isDeleted;
     private LocalDateTime deletedAt;
     
+    // Set when brought back from the archive; the retention period starts over from here
+    @JsonIgnore
+    private LocalDateTime restoredAt;
+    
     // Constructors
     public Notification() {
         this.createdAt = LocalDateTime.now();
@@ -198,6 +225,22 @@ public class Notification {
         this.deletedAt = deletedAt;
     }
     
+    public LocalDateTime getRestoredAt() {
+        return restoredAt;
+    }
+    
+    public void setRestoredAt(LocalDateTime restoredAt) {
+        this.restoredAt = restoredAt;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     // Helper methods
     public boolean isRead() {
         return readAt != null;
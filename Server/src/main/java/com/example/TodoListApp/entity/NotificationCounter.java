@@ -0,0 +1,67 @@
+package com.example.TodoListApp.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user unread notification count, keyed by user id and maintained with $inc so reading it
+ * is a single primary-key lookup instead of a count over the user's notifications. recountAt is
+ * the earliest expiry among the counted notifications; the count is rebuilt once it has passed,
+ * since the TTL index removes expired notifications without adjusting the counter.
+ */
+@Document(collection = "notification_counters")
+public class NotificationCounter {
+    
+    @Id
+    private String userId;
+    
+    private long unread;
+    
+    private LocalDateTime recountAt;
+    
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public NotificationCounter() {}
+    
+    public NotificationCounter(String userId, long unread) {
+        this.userId = userId;
+        this.unread = unread;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public String getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    
+    public long getUnread() {
+        return unread;
+    }
+    
+    public void setUnread(long unread) {
+        this.unread = unread;
+    }
+    
+    public LocalDateTime getRecountAt() {
+        return recountAt;
+    }
+    
+    public void setRecountAt(LocalDateTime recountAt) {
+        this.recountAt = recountAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.TodoListApp.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Latency histogram of one notification stage (delivery: createdAt to sentAt, read: sentAt to
+ * readAt) for one type, priority and hour. Bucket counts are keyed by LatencyHistogram bucket
+ * index and only non-empty buckets are stored, so a document stays small and nodes merge into
+ * it with $inc.
+ */
+@Document(collection = "notification_engagement")
+@CompoundIndex(name = "hour_stage", def = "{'hour': 1, 'stage': 1}")
+public class NotificationEngagement {
+
+    @Id
+    private String id;
+
+    private String stage;
+    private Notification.NotificationType type;
+    private Notification.NotificationPriority priority;
+
+    @Indexed(expireAfter = "400d")
+    private LocalDateTime hour;
+
+    private long count;
+    private long sumMillis;
+    private long maxMillis;
+    private Map<String, Long> buckets = new HashMap<>();
+
+    // Constructors
+    public NotificationEngagement() {}
+
+    public static String idOf(String stage, Notification.NotificationType type,
+                              Notification.NotificationPriority priority, LocalDateTime hour) {
+        return stage + ":" + type + ":" + priority + ":" + hour;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    public Notification.NotificationType getType() {
+        return type;
+    }
+
+    public void setType(Notification.NotificationType type) {
+        this.type = type;
+    }
+
+    public Notification.NotificationPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Notification.NotificationPriority priority) {
+        this.priority = priority;
+    }
+
+    public LocalDateTime getHour() {
+        return hour;
+    }
+
+    public void setHour(LocalDateTime hour) {
+        this.hour = hour;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getSumMillis() {
+        return sumMillis;
+    }
+
+    public void setSumMillis(long sumMillis) {
+        this.sumMillis = sumMillis;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    public void setMaxMillis(long maxMillis) {
+        this.maxMillis = maxMillis;
+    }
+
+    public Map<String, Long> getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(Map<String, Long> buckets) {
+        this.buckets = buckets;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.TodoListApp.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Id of a queue message whose processing completed. Entries expire after seven days, well past
+ * the longest retry delay, so redeliveries within that window are recognised as duplicates.
+ */
+@Document(collection = "processed_messages")
+public class ProcessedMessage {
+
+    @Id
+    private String messageId;
+
+    @Indexed(expireAfter = "7d")
+    private LocalDateTime processedAt;
+
+    // Constructors
+    public ProcessedMessage() {}
+
+    public ProcessedMessage(String messageId) {
+        this.messageId = messageId;
+        this.processedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getMessageId() {
+        return messageId;
+    }
+
+    public void setMessageId(String messageId) {
+        this.messageId = messageId;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+}
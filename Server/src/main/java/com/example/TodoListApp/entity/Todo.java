@@ -1,8 +1,13 @@
 package com.example.TodoListApp.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 
 import jakarta.validation.constraints.NotBlank;
@@ -11,11 +16,27 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Document(collection = "todos")
+@CompoundIndexes({
+    @CompoundIndex(name = "user_deleted_status", def = "{'user_id': 1, 'isDeleted': 1, 'status': 1}"),
+    @CompoundIndex(name = "user_deleted_priority", def = "{'user_id': 1, 'isDeleted': 1, 'priority': 1}"),
+    @CompoundIndex(name = "user_tags", def = "{'user_id': 1, 'tags': 1}"),
+    @CompoundIndex(name = "user_due_date", def = "{'user_id': 1, 'dueDate': 1}"),
+    @CompoundIndex(name = "user_created_at", def = "{'user_id': 1, 'createdAt': 1}"),
+    @CompoundIndex(name = "user_completed_at", def = "{'user_id': 1, 'completedAt': 1}"),
+    @CompoundIndex(name = "deleted_tombstones", def = "{'isDeleted': 1}", partialFilter = "{'isDeleted': true}"),
+    @CompoundIndex(name = "archive_deleted", def = "{'deletedAt': 1}", partialFilter = "{'isDeleted': true}"),
+    @CompoundIndex(name = "archive_completed", def = "{'completedAt': 1}", partialFilter = "{'status': 'COMPLETED'}")
+})
 public class Todo {
     
     @Id
     private String id;
     
+    // Incremented on every save; saving a copy read at an older version fails instead of overwriting
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    
     @NotBlank(message = "Title is required")
     @Size(min = 1, max = 200, message = "Title must be between 1 and 200 characters")
     private String title;
@@ -41,6 +62,14 @@ public class Todo {
     private boolean isDeleted;
     private LocalDateTime deletedAt;
     
+    // Set once this todo's missed due date is counted in the daily analytics
+    @JsonIgnore
+    private boolean overdueCounted;
+    
+    // Set when brought back from the archive; the retention period starts over from here
+    @JsonIgnore
+    private LocalDateTime restoredAt;
+    
     // Constructors
     public Todo() {
         this.createdAt = LocalDateTime.now();
@@ -185,6 +214,30 @@ public class Todo {
         this.deletedAt = deletedAt;
     }
     
+    public boolean isOverdueCounted() {
+        return overdueCounted;
+    }
+    
+    public void setOverdueCounted(boolean overdueCounted) {
+        this.overdueCounted = overdueCounted;
+    }
+    
+    public LocalDateTime getRestoredAt() {
+        return restoredAt;
+    }
+    
+    public void setRestoredAt(LocalDateTime restoredAt) {
+        this.restoredAt = restoredAt;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     // Helper methods
     public boolean isCompleted() {
         return status == TodoStatus.COMPLETED;
@@ -0,0 +1,106 @@
+package com.example.TodoListApp.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDate;
+
+/**
+ * One user's todo activity on one day, keyed by "{userId}:{day}" and maintained with $inc as
+ * todos change, so analytics over a date range read one small document per day instead of
+ * every todo in it.
+ */
+@Document(collection = "todo_daily_stats")
+@CompoundIndex(name = "user_day", def = "{'user_id': 1, 'day': 1}")
+public class TodoDailyStats {
+
+    @Id
+    private String id;
+
+    @Field("user_id")
+    private String userId;
+
+    private LocalDate day;
+
+    // Todos created on this day
+    private long created;
+
+    // Todos completed on this day, and the sum of their createdAt -> completedAt times
+    private long completed;
+    private long completionLeadTimeMillis;
+
+    // Todos whose due date was this day and that were still open when it passed
+    private long overdue;
+
+    // Constructors
+    public TodoDailyStats() {}
+
+    public TodoDailyStats(String userId, LocalDate day) {
+        this.id = idOf(userId, day);
+        this.userId = userId;
+        this.day = day;
+    }
+
+    public static String idOf(String userId, LocalDate day) {
+        return userId + ":" + day;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+
+    public long getCompletionLeadTimeMillis() {
+        return completionLeadTimeMillis;
+    }
+
+    public void setCompletionLeadTimeMillis(long completionLeadTimeMillis) {
+        this.completionLeadTimeMillis = completionLeadTimeMillis;
+    }
+
+    public long getOverdue() {
+        return overdue;
+    }
+
+    public void setOverdue(long overdue) {
+        this.overdue = overdue;
+    }
+}
@@ -30,7 +30,7 @@ public class User {
     private String firstName;
     private String lastName;
     
-    @Indexed(unique = true)
+    @Indexed(unique = true, sparse = true)
     private String githubId;
     
     // Password fields for username/password authentication
@@ -51,7 +51,9 @@ public class User {
     private LocalDateTime updatedAt;
     private LocalDateTime lastLoginAt;
     
+    @Indexed
     private List<String> roles;
+    @Indexed
     private boolean active;
     
     // Constructors
@@ -0,0 +1,25 @@
+package com.example.TodoListApp.exception;
+
+/**
+ * Thrown instead of calling a dependency (Mongo, RabbitMQ) whose circuit is open or whose
+ * bulkhead is full. Surfaces to clients as 503 with a Retry-After header.
+ */
+public class DependencyUnavailableException extends RuntimeException {
+
+    private final String dependency;
+    private final long retryAfterSeconds;
+
+    public DependencyUnavailableException(String dependency, String reason, long retryAfterSeconds) {
+        super(dependency + " unavailable: " + reason);
+        this.dependency = dependency;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getDependency() {
+        return dependency;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.TodoListApp.exception;
+
+/**
+ * Thrown when a conditional write (If-Match) was based on a version that is no longer current.
+ * Surfaces to clients as 412 with the current ETag, if known.
+ */
+public class VersionConflictException extends RuntimeException {
+
+    private final String entity;
+    private final Long currentVersion;
+
+    public VersionConflictException(String entity, Long currentVersion) {
+        super(entity + " was modified concurrently");
+        this.entity = entity;
+        this.currentVersion = currentVersion;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
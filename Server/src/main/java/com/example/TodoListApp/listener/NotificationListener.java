@@ -1,13 +1,19 @@
 package com.example.TodoListApp.listener;
 
-import com.example.TodoListApp.entity.Notification;
+import com.example.TodoListApp.dto.NotificationMessage;
 import com.example.TodoListApp.service.NotificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
 @Component
 public class NotificationListener {
 
@@ -16,8 +22,36 @@ public class NotificationListener {
     @Autowired
     private NotificationService notificationService;
 
-    @RabbitListener(queues = "${notification.queue.name}")
-    public void handleNotification(Notification notification) {
+    @Autowired
+    private NotificationRetryHandler retryHandler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @RabbitListener(queues = "${notification.queue.high.name:notification.lane.high}",
+                    containerFactory = "highPriorityContainerFactory",
+                    concurrency = "${notification.consumers.high.concurrency:4-8}")
+    public void handleHighPriorityNotification(NotificationMessage notification, Message message) {
+        handleNotification(notification, message, "high");
+    }
+
+    @RabbitListener(queues = "${notification.queue.name}",
+                    concurrency = "${notification.consumers.standard.concurrency:2-4}")
+    public void handleNotification(NotificationMessage notification, Message message) {
+        handleNotification(notification, message, "standard");
+    }
+
+    @RabbitListener(queues = "${notification.queue.bulk.name:notification.lane.bulk}",
+                    concurrency = "${notification.consumers.bulk.concurrency:1-2}")
+    public void handleBulkNotification(NotificationMessage notification, Message message) {
+        handleNotification(notification, message, "bulk");
+    }
+
+    private void handleNotification(NotificationMessage notification, Message message, String lane) {
+        int attempt = NotificationRetryHandler.attemptOf(message);
+        if (attempt == 0) {
+            recordQueueLatency(notification, lane);
+        }
         try {
             logger.info("Processing notification: {}", notification.getId());
             
@@ -25,24 +59,30 @@ public class NotificationListener {
             notificationService.processNotificationFromQueue(notification);
             
             logger.info("Successfully processed notification: {}", notification.getId());
+            retryHandler.record(lane, attempt, "success");
             
         } catch (Exception e) {
             logger.error("Failed to process notification: {}", notification.getId(), e);
             
-            // The notification will be moved to DLQ automatically due to exception
-            throw new RuntimeException("Notification processing failed", e);
+            // Delayed retry or parking lot; the delivery itself is acknowledged
+            retryHandler.retryOrPark(notification, message, lane, e);
         }
     }
 
-    @RabbitListener(queues = "notification.dlq")
-    public void handleFailedNotification(Notification notification) {
-        logger.warn("Received failed notification in DLQ: {}", notification.getId());
-        
-        // Mark notification as failed in database
-        try {
-            notificationService.processNotificationFromQueue(notification);
-        } catch (Exception e) {
-            logger.error("Failed to mark notification as failed: {}", notification.getId(), e);
+    /**
+     * Time from creation to pickup by a consumer, per lane and priority.
+     */
+    private void recordQueueLatency(NotificationMessage notification, String lane) {
+        if (notification.getCreatedAt() == null) {
+            return;
         }
+        Duration waited = Duration.between(notification.getCreatedAt(), LocalDateTime.now());
+        Timer.builder("notification.delivery.latency")
+                .description("Time from notification creation until a consumer picks it up")
+                .tag("lane", lane)
+                .tag("priority", String.valueOf(notification.getPriority()))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(waited.isNegative() ? Duration.ZERO : waited);
     }
 }
\ No newline at end of file
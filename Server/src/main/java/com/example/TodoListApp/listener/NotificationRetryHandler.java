@@ -0,0 +1,86 @@
+package com.example.TodoListApp.listener;
+
+import com.example.TodoListApp.config.RabbitMQConfig;
+import com.example.TodoListApp.dto.NotificationMessage;
+import com.example.TodoListApp.service.NotificationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Sends a message whose processing failed to the next delay tier, or to the parking lot once
+ * every tier has been used. The attempt count travels in the x-retry-attempt header, so the
+ * listener acknowledges the original delivery and never redelivers it in a tight loop.
+ */
+@Component
+public class NotificationRetryHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetryHandler.class);
+
+    public static final String ATTEMPT_HEADER = "x-retry-attempt";
+    public static final String ERROR_HEADER = "x-last-error";
+    public static final String ROUTING_KEY_HEADER = "x-original-routing-key";
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notification.retry.delays:1000,5000,30000,120000}")
+    private List<Long> retryDelays;
+
+    /**
+     * Number of retries the message has already had; 0 for the first delivery.
+     */
+    public static int attemptOf(Message message) {
+        Object attempt = message.getMessageProperties().getHeader(ATTEMPT_HEADER);
+        return attempt instanceof Number number ? number.intValue() : 0;
+    }
+
+    public void retryOrPark(NotificationMessage notification, Message message, String lane, Exception cause) {
+        MessageProperties properties = message.getMessageProperties();
+        int attempt = attemptOf(message);
+        String routingKey = properties.getReceivedRoutingKey();
+        properties.setHeader(ERROR_HEADER, String.valueOf(cause.getMessage()));
+
+        if (attempt < retryDelays.size()) {
+            int tier = attempt + 1;
+            properties.setHeader(ATTEMPT_HEADER, tier);
+            // The tier exchange is a fanout; the routing key is kept so the message returns to its lane
+            rabbitTemplate.send(RabbitMQConfig.RETRY_EXCHANGE_PREFIX + tier, routingKey, message);
+            record(lane, attempt, "retried");
+            logger.warn("Notification {} failed on attempt {}, retrying in {} ms", notification.getId(),
+                    attempt + 1, retryDelays.get(attempt));
+            return;
+        }
+
+        properties.setHeader(ROUTING_KEY_HEADER, routingKey);
+        rabbitTemplate.send(RabbitMQConfig.DEAD_LETTER_EXCHANGE, RabbitMQConfig.DEAD_LETTER_ROUTING_KEY, message);
+        notificationService.markAsFailed(notification.getId());
+        record(lane, attempt, "parked");
+        logger.error("Notification {} failed after {} attempts, moved to {}", notification.getId(),
+                attempt + 1, RabbitMQConfig.PARKING_LOT_QUEUE);
+    }
+
+    /**
+     * Counts processing outcomes per lane and attempt (0 is the first delivery).
+     */
+    public void record(String lane, int attempt, String outcome) {
+        meterRegistry.counter("notification.processing.attempts",
+                "lane", lane,
+                "attempt", String.valueOf(attempt),
+                "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.TodoListApp.listener;
+
+import com.example.TodoListApp.dto.TodoChangeEvent;
+import com.example.TodoListApp.service.TodoEventPublisher;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Receives todo change events from every node through this node's exclusive queue and hands
+ * them to the local WebSocket broker.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.events.transport", havingValue = "rabbit", matchIfMissing = true)
+public class TodoEventListener {
+
+    @Autowired
+    private TodoEventPublisher todoEventPublisher;
+
+    @RabbitListener(queues = "#{todoEventsQueue.name}")
+    public void handleTodoEvent(TodoChangeEvent event) {
+        todoEventPublisher.deliver(event);
+    }
+}
@@ -9,56 +9,66 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Expired notifications are removed by the TTL index on expiresAt, which Mongo sweeps about once
+ * a minute; queries for a user's notifications therefore take the current time and skip
+ * notifications whose expiresAt has passed but that are not removed yet.
+ */
 @Repository
 public interface NotificationRepository extends MongoRepository<Notification, String> {
-    
-    List<Notification> findByUserIdAndIsDeletedFalseOrderByCreatedAtDesc(String userId);
-    
-    List<Notification> findByUserIdAndStatusAndIsDeletedFalse(String userId, Notification.NotificationStatus status);
-    
-    List<Notification> findByUserIdAndTypeAndIsDeletedFalse(String userId, Notification.NotificationType type);
-    
-    List<Notification> findByUserIdAndPriorityAndIsDeletedFalse(String userId, Notification.NotificationPriority priority);
-    
-    @Query("{ 'userId': ?0, 'readAt': null, 'isDeleted': false }")
-    List<Notification> findUnreadNotificationsByUserId(String userId);
-    
-    @Query("{ 'userId': ?0, 'readAt': { $ne: null }, 'isDeleted': false }")
-    List<Notification> findReadNotificationsByUserId(String userId);
-    
+
+    @Query(value = "{ 'userId': ?0, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?1 } } ] }",
+           sort = "{ 'createdAt': -1 }")
+    List<Notification> findUnexpiredByUserId(String userId, LocalDateTime now);
+
+    @Query("{ 'userId': ?0, 'status': ?1, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?2 } } ] }")
+    List<Notification> findUnexpiredByUserIdAndStatus(String userId, Notification.NotificationStatus status, LocalDateTime now);
+
+    @Query("{ 'userId': ?0, 'type': ?1, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?2 } } ] }")
+    List<Notification> findUnexpiredByUserIdAndType(String userId, Notification.NotificationType type, LocalDateTime now);
+
+    @Query("{ 'userId': ?0, 'priority': ?1, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?2 } } ] }")
+    List<Notification> findUnexpiredByUserIdAndPriority(String userId, Notification.NotificationPriority priority, LocalDateTime now);
+
+    @Query("{ 'userId': ?0, 'readAt': null, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?1 } } ] }")
+    List<Notification> findUnreadNotificationsByUserId(String userId, LocalDateTime now);
+
+    @Query("{ 'userId': ?0, 'readAt': { $ne: null }, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?1 } } ] }")
+    List<Notification> findReadNotificationsByUserId(String userId, LocalDateTime now);
+
+    // Expired but not swept by the TTL monitor yet
     @Query("{ 'userId': ?0, 'expiresAt': { $lt: ?1 }, 'isDeleted': false }")
     List<Notification> findExpiredNotificationsByUserId(String userId, LocalDateTime now);
-    
-    @Query("{ 'userId': ?0, 'createdAt': { $gte: ?1, $lte: ?2 }, 'isDeleted': false }")
-    List<Notification> findByUserIdAndCreatedAtBetween(String userId, LocalDateTime start, LocalDateTime end);
-    
-    @Query("{ 'userId': ?0, 'sentAt': { $gte: ?1, $lte: ?2 }, 'isDeleted': false }")
-    List<Notification> findByUserIdAndSentAtBetween(String userId, LocalDateTime start, LocalDateTime end);
-    
-    @Query("{ 'userId': ?0, 'readAt': { $gte: ?1, $lte: ?2 }, 'isDeleted': false }")
-    List<Notification> findByUserIdAndReadAtBetween(String userId, LocalDateTime start, LocalDateTime end);
-    
-    @Query("{ 'status': 'PENDING', 'createdAt': { $lt: ?0 } }")
-    List<Notification> findPendingNotificationsOlderThan(LocalDateTime threshold);
-    
-    @Query("{ 'status': 'SENT', 'expiresAt': { $lt: ?0 } }")
-    List<Notification> findExpiredSentNotifications(LocalDateTime now);
-    
-    @Query("{ 'todoId': ?0, 'isDeleted': false }")
-    List<Notification> findByTodoId(String todoId);
-    
-    long countByUserIdAndIsDeletedFalse(String userId);
-    
-    long countByUserIdAndStatusAndIsDeletedFalse(String userId, Notification.NotificationStatus status);
-    
-    long countByUserIdAndTypeAndIsDeletedFalse(String userId, Notification.NotificationType type);
-    
-    long countByUserIdAndReadAtNullAndIsDeletedFalse(String userId);
-    
-    Optional<Notification> findByIdAndUserIdAndIsDeletedFalse(String id, String userId);
-    
+
+    @Query("{ 'userId': ?0, 'createdAt': { $gte: ?1, $lte: ?2 }, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?3 } } ] }")
+    List<Notification> findByUserIdAndCreatedAtBetween(String userId, LocalDateTime start, LocalDateTime end, LocalDateTime now);
+
+    @Query("{ 'userId': ?0, 'sentAt': { $gte: ?1, $lte: ?2 }, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?3 } } ] }")
+    List<Notification> findByUserIdAndSentAtBetween(String userId, LocalDateTime start, LocalDateTime end, LocalDateTime now);
+
+    @Query("{ 'userId': ?0, 'readAt': { $gte: ?1, $lte: ?2 }, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?3 } } ] }")
+    List<Notification> findByUserIdAndReadAtBetween(String userId, LocalDateTime start, LocalDateTime end, LocalDateTime now);
+
+    @Query("{ 'todoId': ?0, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?1 } } ] }")
+    List<Notification> findByTodoId(String todoId, LocalDateTime now);
+
+    @Query(value = "{ 'userId': ?0, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?1 } } ] }", count = true)
+    long countUnexpiredByUserId(String userId, LocalDateTime now);
+
+    @Query(value = "{ 'userId': ?0, 'status': ?1, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?2 } } ] }", count = true)
+    long countUnexpiredByUserIdAndStatus(String userId, Notification.NotificationStatus status, LocalDateTime now);
+
+    @Query(value = "{ 'userId': ?0, 'type': ?1, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?2 } } ] }", count = true)
+    long countUnexpiredByUserIdAndType(String userId, Notification.NotificationType type, LocalDateTime now);
+
+    @Query(value = "{ 'userId': ?0, 'readAt': null, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?1 } } ] }", count = true)
+    long countUnreadByUserId(String userId, LocalDateTime now);
+
+    @Query("{ '_id': ?0, 'userId': ?1, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?2 } } ] }")
+    Optional<Notification> findUnexpiredByIdAndUserId(String id, String userId, LocalDateTime now);
+
     List<Notification> findByIsDeletedTrue();
-    
-    @Query("{ 'userId': ?0, 'isDeleted': false }")
-    List<Notification> findAllActiveNotificationsByUserId(String userId);
-}
\ No newline at end of file
+
+    @Query("{ 'userId': ?0, 'isDeleted': false, '$or': [ { 'expiresAt': null }, { 'expiresAt': { $gt: ?1 } } ] }")
+    List<Notification> findAllActiveNotificationsByUserId(String userId, LocalDateTime now);
+}
@@ -0,0 +1,18 @@
+package com.example.TodoListApp.repository;
+
+import com.example.TodoListApp.entity.TodoDailyStats;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TodoDailyStatsRepository extends MongoRepository<TodoDailyStats, String> {
+
+    @Query(value = "{ 'userId': ?0, 'day': { $gte: ?1, $lte: ?2 } }", sort = "{ 'day': 1 }")
+    List<TodoDailyStats> findByUserIdAndDayRange(String userId, LocalDate from, LocalDate to);
+
+    void deleteByUserId(String userId);
+}
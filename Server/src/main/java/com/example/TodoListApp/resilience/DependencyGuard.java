@@ -0,0 +1,245 @@
+package com.example.TodoListApp.resilience;
+
+import com.example.TodoListApp.exception.DependencyUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead and circuit breaker for one dependency.
+ *
+ * The bulkhead caps concurrent calls; a caller waits at most maxWait for a permit and is then
+ * rejected, so a slow dependency can tie up only a bounded number of request threads. The
+ * breaker tracks the last windowSize calls: once at least minimumCalls were made and the share
+ * of failed or slow calls reaches the threshold, it opens and rejects every call for
+ * openDuration. It then lets halfOpenCalls probes through; if all succeed it closes, any failure
+ * opens it again.
+ *
+ * Calls nested on the same thread (a repository method calling MongoTemplate) pass
+ * straight through and are accounted to the outermost call.
+ */
+public class DependencyGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependencyGuard.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private enum Permission { DENIED, PERMITTED, PROBE }
+
+    private final String name;
+    private final Semaphore bulkhead;
+    private final long maxWaitMillis;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final Predicate<Throwable> recordAsFailure;
+    private final ThreadLocal<Boolean> inside = new ThreadLocal<>();
+    private final Map<Outcome, Counter> counters = new EnumMap<>(Outcome.class);
+
+    // Breaker state, guarded by this
+    private State state = State.CLOSED;
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCount;
+    private int windowFailures;
+    private long openedAt;
+    private int probesLeft;
+    private int probeSuccesses;
+
+    private enum Outcome { SUCCESS, FAILURE, SLOW, REJECTED, SHORT_CIRCUITED }
+
+    public DependencyGuard(String name, Settings settings, Predicate<Throwable> recordAsFailure, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.bulkhead = new Semaphore(settings.maxConcurrentCalls(), true);
+        this.maxWaitMillis = settings.maxWait().toMillis();
+        this.windowSize = settings.windowSize();
+        this.minimumCalls = settings.minimumCalls();
+        this.failureRateThreshold = settings.failureRateThreshold();
+        this.slowCallNanos = settings.slowCallDuration().toNanos();
+        this.openNanos = settings.openDuration().toNanos();
+        this.halfOpenCalls = settings.halfOpenCalls();
+        this.recordAsFailure = recordAsFailure;
+        this.window = new boolean[windowSize];
+
+        for (Outcome outcome : Outcome.values()) {
+            counters.put(outcome, Counter.builder("resilience.calls")
+                    .tag("dependency", name)
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("resilience.circuit.state", this, guard -> guard.getState().ordinal())
+                .description("0 closed, 1 open, 2 half-open")
+                .tag("dependency", name)
+                .register(meterRegistry);
+        Gauge.builder("resilience.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .tag("dependency", name)
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        if (Boolean.TRUE.equals(inside.get())) {
+            return call.get();
+        }
+
+        Permission permission = acquirePermission();
+        if (permission == Permission.DENIED) {
+            counters.get(Outcome.SHORT_CIRCUITED).increment();
+            throw new DependencyUnavailableException(name, "circuit open", retryAfterSeconds());
+        }
+        if (!acquireBulkhead()) {
+            if (permission == Permission.PROBE) {
+                returnProbe();
+            }
+            counters.get(Outcome.REJECTED).increment();
+            throw new DependencyUnavailableException(name, "too many concurrent calls", 1);
+        }
+
+        inside.set(Boolean.TRUE);
+        long startNanos = System.nanoTime();
+        try {
+            T result = call.get();
+            onComplete(permission, false, System.nanoTime() - startNanos);
+            return result;
+        } catch (Throwable e) {
+            // Errors always count, so a failing probe can never leave the breaker half-open for good
+            onComplete(permission, e instanceof Error || recordAsFailure.test(e), System.nanoTime() - startNanos);
+            throw e;
+        } finally {
+            inside.remove();
+            bulkhead.release();
+        }
+    }
+
+    public void run(Runnable call) {
+        execute(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private boolean acquireBulkhead() {
+        try {
+            return bulkhead.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private synchronized Permission acquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return Permission.DENIED;
+            }
+            transition(State.HALF_OPEN);
+            probesLeft = halfOpenCalls;
+            probeSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesLeft == 0) {
+                return Permission.DENIED;
+            }
+            probesLeft--;
+            return Permission.PROBE;
+        }
+        return Permission.PERMITTED;
+    }
+
+    private synchronized void returnProbe() {
+        if (state == State.HALF_OPEN) {
+            probesLeft++;
+        }
+    }
+
+    private synchronized void onComplete(Permission permission, boolean failed, long durationNanos) {
+        boolean slow = !failed && durationNanos > slowCallNanos;
+        counters.get(failed ? Outcome.FAILURE : slow ? Outcome.SLOW : Outcome.SUCCESS).increment();
+        boolean bad = failed || slow;
+
+        if (permission == Permission.PROBE) {
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            if (bad) {
+                open();
+            } else if (++probeSuccesses >= halfOpenCalls) {
+                transition(State.CLOSED);
+                resetWindow();
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            // Call started before the breaker opened
+            return;
+        }
+
+        if (windowCount == windowSize) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = bad;
+        if (bad) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % windowSize;
+
+        if (windowCount >= minimumCalls && (double) windowFailures / windowCount >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    private void open() {
+        transition(State.OPEN);
+        openedAt = System.nanoTime();
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        windowNext = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    private void transition(State next) {
+        if (state != next) {
+            logger.warn("Circuit for {} changed from {} to {}", name, state, next);
+            state = next;
+        }
+    }
+
+    private synchronized long retryAfterSeconds() {
+        long remainingNanos = openNanos - (System.nanoTime() - openedAt);
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remainingNanos) + 1);
+    }
+
+    /**
+     * Limits for one guard, read from resilience.&lt;dependency&gt;.* properties.
+     */
+    public record Settings(int maxConcurrentCalls, Duration maxWait, int windowSize, int minimumCalls,
+                           double failureRateThreshold, Duration slowCallDuration, Duration openDuration,
+                           int halfOpenCalls) {}
+}
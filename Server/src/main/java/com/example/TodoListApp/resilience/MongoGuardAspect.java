@@ -0,0 +1,59 @@
+package com.example.TodoListApp.resilience;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs every Mongo call, through MongoTemplate or a repository, through the Mongo guard, so a
+ * struggling database fails requests fast with 503 instead of piling up blocked threads. Only
+ * the database call itself is timed and holds a bulkhead permit; the service work around it
+ * (queue publishes, image processing) does not count against Mongo. A repository call that goes
+ * through MongoTemplate counts as one call.
+ */
+@Aspect
+@Component
+public class MongoGuardAspect {
+
+    @Autowired
+    @Qualifier("mongoGuard")
+    private DependencyGuard mongoGuard;
+
+    // MongoOperations methods only, not MongoTemplate setters or lifecycle callbacks. Accessors
+    // (getConverter, indexOps...) and the fluent entry points (query, update...) only build
+    // objects without reaching the server, and would fill the breaker window with instant
+    // successes
+    @Around("(execution(public * org.springframework.data.mongodb.core.MongoOperations.*(..))"
+            + " && !execution(* org.springframework.data.mongodb.core.MongoOperations.get*(..))"
+            + " && !execution(* org.springframework.data.mongodb.core.MongoOperations.*Ops(..))"
+            + " && !execution(* org.springframework.data.mongodb.core.MongoOperations.withSession(..))"
+            + " && !execution(* org.springframework.data.mongodb.core.Executable*Operation.*(..)))"
+            + " || execution(public * org.springframework.data.repository.Repository+.*(..))")
+    public Object guard(ProceedingJoinPoint joinPoint) throws Throwable {
+        try {
+            return mongoGuard.execute(() -> {
+                try {
+                    return joinPoint.proceed();
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new CheckedFailure(e);
+                }
+            });
+        } catch (CheckedFailure e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Carries a checked exception through the Supplier; never recorded as a dependency failure.
+     */
+    private static final class CheckedFailure extends RuntimeException {
+        CheckedFailure(Throwable cause) {
+            super(cause);
+        }
+    }
+}
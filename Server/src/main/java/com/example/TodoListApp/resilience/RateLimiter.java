@@ -0,0 +1,224 @@
+package com.example.TodoListApp.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySource;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limits per client (user id, or IP address when anonymous) and endpoint class.
+ *
+ * Endpoint classes are configured under ratelimit.classes.&lt;name&gt; with a list of
+ * "METHOD /ant/pattern" endpoints, a burst capacity and a refill rate. A request must pass every
+ * class it matches, so an expensive endpoint can have its own tight limit on top of the general
+ * write limit. Settings in the optional rules-file override the application properties and are
+ * reloaded whenever the file changes.
+ *
+ * Each bucket is a single AtomicLong holding the time at which it will be full again (the
+ * "theoretical arrival time" form of a token bucket), updated with one CAS and no lock. Because a
+ * bucket stores no settings of its own, reloaded limits apply to existing buckets immediately.
+ * Buckets that have been full for idle-eviction ms hold no state worth keeping and are dropped.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Path rulesFile;
+    private final long idleEvictionNanos;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+    private volatile List<Rule> rules = List.of();
+    private volatile long rulesFileModified = Long.MIN_VALUE;
+
+    public RateLimiter(Environment environment, MeterRegistry meterRegistry,
+                       @Value("${ratelimit.rules-file:}") String rulesFile,
+                       @Value("${ratelimit.idle-eviction:600000}") long idleEvictionMillis) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.rulesFile = rulesFile.isBlank() ? null : Paths.get(rulesFile);
+        this.idleEvictionNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictionMillis);
+        reload();
+
+        Gauge.builder("ratelimit.buckets", buckets, Map::size)
+                .description("Token buckets currently held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a token from every bucket of the client that matches the request.
+     *
+     * @return 0 if the request may proceed, otherwise the nanoseconds until it would be allowed
+     */
+    public long tryAcquire(String client, String method, String path) {
+        if (!enabled) {
+            return 0;
+        }
+        for (Rule rule : rules) {
+            if (!rule.matches(pathMatcher, method, path)) {
+                continue;
+            }
+            long waitNanos = take(client + '|' + rule.name(), rule);
+            if (waitNanos > 0) {
+                rejections.computeIfAbsent(rule.name(), name -> Counter.builder("ratelimit.rejected")
+                        .description("Requests rejected with 429")
+                        .tag("endpoint_class", name)
+                        .register(meterRegistry)).increment();
+                return waitNanos;
+            }
+        }
+        return 0;
+    }
+
+    @Scheduled(fixedDelayString = "${ratelimit.reload-interval:10000}")
+    public void reloadIfChanged() {
+        if (rulesFile == null) {
+            return;
+        }
+        long modified;
+        try {
+            modified = Files.exists(rulesFile) ? Files.getLastModifiedTime(rulesFile).toMillis() : Long.MIN_VALUE;
+        } catch (IOException e) {
+            return;
+        }
+        if (modified != rulesFileModified) {
+            reload();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ratelimit.eviction-interval:60000}")
+    public void evictIdleBuckets() {
+        long cutoff = System.nanoTime() - idleEvictionNanos;
+        // A request racing with removal may briefly use a fresh bucket; that only ever allows more
+        buckets.values().removeIf(bucket -> bucket.get() - cutoff < 0);
+    }
+
+    public int getBucketCount() {
+        return buckets.size();
+    }
+
+    private long take(String key, Rule rule) {
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt - now, 0) + rule.intervalNanos();
+            if (next > rule.burstNanos()) {
+                return next - rule.burstNanos();
+            }
+            if (bucket.compareAndSet(fullAt, now + next)) {
+                return 0;
+            }
+        }
+    }
+
+    private synchronized void reload() {
+        List<ConfigurationPropertySource> sources = new ArrayList<>();
+        long modified = Long.MIN_VALUE;
+        if (rulesFile != null && Files.exists(rulesFile)) {
+            Properties overrides = new Properties();
+            try (InputStream in = Files.newInputStream(rulesFile)) {
+                modified = Files.getLastModifiedTime(rulesFile).toMillis();
+                overrides.load(in);
+                sources.add(new MapConfigurationPropertySource(overrides));
+            } catch (IOException e) {
+                logger.warn("Could not read rate limit rules from {}, keeping current rules: {}", rulesFile, e.getMessage());
+                return;
+            }
+        }
+        ConfigurationPropertySources.get(environment).forEach(sources::add);
+        Binder binder = new Binder(sources);
+
+        List<Rule> loaded = new ArrayList<>();
+        try {
+            Map<String, RuleProperties> classes = binder.bind("ratelimit.classes",
+                    Bindable.mapOf(String.class, RuleProperties.class)).orElse(Map.of());
+            classes.forEach((name, properties) -> loaded.add(Rule.of(name, properties)));
+        } catch (RuntimeException e) {
+            logger.warn("Invalid rate limit rules, keeping current rules: {}", e.getMessage());
+            return;
+        }
+
+        enabled = binder.bind("ratelimit.enabled", Boolean.class).orElse(true);
+        rules = List.copyOf(loaded);
+        rulesFileModified = modified;
+        logger.info("Rate limiting {} with {} endpoint classes", enabled ? "enabled" : "disabled", rules.size());
+    }
+
+    /**
+     * Binding target for one ratelimit.classes.&lt;name&gt; entry.
+     */
+    public static class RuleProperties {
+        private List<String> endpoints = new ArrayList<>();
+        private int capacity = 60;
+        private double refillPerSecond = 1;
+
+        public List<String> getEndpoints() { return endpoints; }
+        public void setEndpoints(List<String> endpoints) { this.endpoints = endpoints; }
+
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+
+        public double getRefillPerSecond() { return refillPerSecond; }
+        public void setRefillPerSecond(double refillPerSecond) { this.refillPerSecond = refillPerSecond; }
+    }
+
+    private record Endpoint(String method, String pattern) {}
+
+    private record Rule(String name, List<Endpoint> endpoints, long intervalNanos, long burstNanos) {
+
+        static Rule of(String name, RuleProperties properties) {
+            if (properties.getCapacity() < 1 || properties.getRefillPerSecond() <= 0) {
+                throw new IllegalArgumentException("Endpoint class " + name + " needs capacity >= 1 and refill-per-second > 0");
+            }
+            List<Endpoint> endpoints = new ArrayList<>();
+            for (String endpoint : properties.getEndpoints()) {
+                String[] parts = endpoint.trim().split("\\s+", 2);
+                endpoints.add(parts.length == 2
+                        ? new Endpoint(parts[0].toUpperCase(), parts[1])
+                        : new Endpoint(null, parts[0]));
+            }
+            long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / properties.getRefillPerSecond());
+            return new Rule(name, List.copyOf(endpoints), intervalNanos, intervalNanos * properties.getCapacity());
+        }
+
+        boolean matches(AntPathMatcher pathMatcher, String method, String path) {
+            for (Endpoint endpoint : endpoints) {
+                if ((endpoint.method() == null || endpoint.method().equals(method))
+                        && pathMatcher.match(endpoint.pattern(), path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
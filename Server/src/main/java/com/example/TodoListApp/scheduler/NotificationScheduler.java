@@ -1,16 +1,21 @@
 package com.example.TodoListApp.scheduler;
 
 import com.example.TodoListApp.entity.User;
+import com.example.TodoListApp.service.ArchiveService;
 import com.example.TodoListApp.service.NotificationService;
 import com.example.TodoListApp.service.TodoService;
+import com.example.TodoListApp.service.UnreadCountService;
 import com.example.TodoListApp.service.UserService;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 @Component
+@Timed(value = "notification.scheduler.run", histogram = true)
 public class NotificationScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationScheduler.class);
@@ -24,6 +29,15 @@ public class NotificationScheduler {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UnreadCountService unreadCountService;
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Value("${archive.enabled:true}")
+    private boolean archiveEnabled;
+
     // Check for overdue todos every hour
     @Scheduled(fixedRate = 3600000) // 1 hour in milliseconds
     public void checkOverdueTodos() {
@@ -71,13 +85,12 @@ public class NotificationScheduler {
         }
     }
 
-    // Cleanup expired notifications daily at 2 AM
+    // Fail notifications stuck in PENDING daily at 2 AM; expired ones are removed by the TTL index
     @Scheduled(cron = "0 0 2 * * ?")
-    public void cleanupExpiredNotifications() {
+    public void cleanupOldPendingNotifications() {
         logger.info("Starting notification cleanup...");
         
         try {
-            notificationService.cleanupExpiredNotifications();
             notificationService.cleanupOldPendingNotifications(24); // Clean up notifications older than 24 hours
             
             logger.info("Notification cleanup completed");
@@ -86,6 +99,35 @@ public class NotificationScheduler {
         }
     }
 
+    // Correct unread counters that drifted from the notifications collection
+    @Scheduled(fixedDelayString = "${notification.unread-count.reconcile-interval:3600000}")
+    public void reconcileUnreadCounters() {
+        logger.info("Starting unread counter reconciliation...");
+        
+        try {
+            int corrected = unreadCountService.reconcileAll();
+            logger.info("Unread counter reconciliation completed, {} counters corrected", corrected);
+        } catch (Exception e) {
+            logger.error("Error during unread counter reconciliation: {}", e.getMessage());
+        }
+    }
+
+    // Move cold todos and notifications to the archive collections and purge old archives daily at 3:30 AM
+    @Scheduled(cron = "${archive.cron:0 30 3 * * ?}")
+    public void archiveColdDocuments() {
+        if (!archiveEnabled) {
+            return;
+        }
+        logger.info("Starting archival...");
+        
+        try {
+            var result = archiveService.runArchival();
+            logger.info("Archival completed: {}", result);
+        } catch (Exception e) {
+            logger.error("Error during archival: {}", e.getMessage());
+        }
+    }
+
     // Send welcome notifications to new users (check every 5 minutes)
     @Scheduled(fixedRate = 300000) // 5 minutes in milliseconds
     public void sendWelcomeNotifications() {
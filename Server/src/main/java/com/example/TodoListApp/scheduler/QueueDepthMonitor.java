@@ -0,0 +1,67 @@
+package com.example.TodoListApp.scheduler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes message and consumer counts for every declared queue, including the retry tiers, as gauges.
+ * The broker is polled on a schedule so a Prometheus scrape never waits on RabbitMQ.
+ */
+@Component
+public class QueueDepthMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueueDepthMonitor.class);
+
+    @Autowired
+    private AmqpAdmin amqpAdmin;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private List<Queue> queues;
+
+    @Autowired
+    private List<Declarables> declarables;
+
+    private final Map<String, AtomicLong> depths = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> consumers = new ConcurrentHashMap<>();
+
+    @Scheduled(fixedRateString = "${notification.metrics.queue-depth-interval:15000}")
+    public void pollQueueDepths() {
+        List<Queue> allQueues = new ArrayList<>(queues);
+        declarables.forEach(group -> allQueues.addAll(group.getDeclarablesByType(Queue.class)));
+        for (Queue queue : allQueues) {
+            try {
+                QueueInformation info = amqpAdmin.getQueueInfo(queue.getName());
+                if (info == null) {
+                    continue;
+                }
+                gauge(depths, "rabbitmq.queue.depth", queue.getName()).set(info.getMessageCount());
+                gauge(consumers, "rabbitmq.queue.consumers", queue.getName()).set(info.getConsumerCount());
+            } catch (Exception e) {
+                logger.warn("Could not read queue info for {}: {}", queue.getName(), e.getMessage());
+            }
+        }
+    }
+
+    private AtomicLong gauge(Map<String, AtomicLong> gauges, String name, String queueName) {
+        return gauges.computeIfAbsent(queueName,
+                key -> meterRegistry.gauge(name, Tags.of("queue", key), new AtomicLong()));
+    }
+}
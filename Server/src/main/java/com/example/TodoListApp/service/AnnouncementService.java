@@ -0,0 +1,253 @@
+package com.example.TodoListApp.service;
+
+import com.example.TodoListApp.entity.Announcement;
+import com.example.TodoListApp.entity.Notification;
+import com.example.TodoListApp.entity.User;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Fans system announcements out to per-user notifications in the background.
+ *
+ * The admin request only stores the announcement. A single worker per node claims queued jobs,
+ * then for each chunk of recipients inserts all notifications with one insertMany, bumps the
+ * unread counters in bulk and publishes the chunk on one channel. Progress is saved after every
+ * chunk; a job whose owner stops heartbeating is claimed again by any node and resumes from the
+ * last checkpoint, skipping recipients that already received it.
+ */
+@Service
+public class AnnouncementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnnouncementService.class);
+
+    public static final String ANNOUNCEMENT_ID_KEY = "announcementId";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UnreadCountService unreadCountService;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    @Value("${notification.announcement.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${notification.announcement.stale-after:60000}")
+    private long staleAfterMillis;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicBoolean working = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "announcement-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Stores the announcement and returns at once; delivery happens on the worker.
+     *
+     * @param userIds explicit recipients, or null/empty for every active user
+     */
+    public Announcement createAnnouncement(String title, String message, List<String> userIds, String createdBy) {
+        Announcement announcement = new Announcement(title, message,
+                userIds == null || userIds.isEmpty() ? null : userIds, createdBy);
+        announcement.setExpiresAt(LocalDateTime.now().plusDays(30)); // Expires in 30 days
+        announcement.setTotalRecipients(announcement.getUserIds() != null
+                ? announcement.getUserIds().size()
+                : mongoTemplate.count(Query.query(Criteria.where("active").is(true)), User.class));
+
+        Announcement savedAnnouncement = mongoTemplate.save(announcement);
+        triggerWorker();
+        return savedAnnouncement;
+    }
+
+    public Optional<Announcement> findById(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, Announcement.class));
+    }
+
+    @Scheduled(fixedDelayString = "${notification.announcement.poll-interval:5000}")
+    public void triggerWorker() {
+        if (working.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                try {
+                    Announcement announcement;
+                    while ((announcement = claimNext()) != null) {
+                        run(announcement);
+                    }
+                } finally {
+                    working.set(false);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private Announcement claimNext() {
+        LocalDateTime staleBefore = LocalDateTime.now().minus(Duration.ofMillis(staleAfterMillis));
+        Query query = Query.query(new Criteria().orOperator(
+                Criteria.where("status").is(Announcement.AnnouncementStatus.QUEUED),
+                Criteria.where("status").is(Announcement.AnnouncementStatus.RUNNING).and("heartbeatAt").lt(staleBefore)))
+                .with(Sort.by("createdAt"));
+        Update update = new Update()
+                .set("status", Announcement.AnnouncementStatus.RUNNING)
+                .set("owner", nodeId)
+                .set("heartbeatAt", LocalDateTime.now());
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Announcement.class);
+    }
+
+    private void run(Announcement announcement) {
+        boolean resumed = announcement.getStartedAt() != null;
+        if (!resumed) {
+            announcement.setStartedAt(LocalDateTime.now());
+        }
+        logger.info("{} announcement {} for {} recipients", resumed ? "Resuming" : "Starting",
+                announcement.getId(), announcement.getTotalRecipients());
+
+        try {
+            List<String> recipients;
+            while (!(recipients = nextChunk(announcement)).isEmpty()) {
+                long failed = deliver(announcement, recipients, resumed);
+                resumed = false;
+
+                announcement.setProcessedRecipients(announcement.getProcessedRecipients() + recipients.size());
+                announcement.setFailedRecipients(announcement.getFailedRecipients() + failed);
+                if (announcement.getUserIds() != null) {
+                    announcement.setNextIndex(announcement.getNextIndex() + recipients.size());
+                } else {
+                    announcement.setLastUserId(recipients.get(recipients.size() - 1));
+                }
+                if (!checkpoint(announcement, Announcement.AnnouncementStatus.RUNNING)) {
+                    logger.warn("Lost ownership of announcement {}, stopping", announcement.getId());
+                    return;
+                }
+            }
+
+            announcement.setCompletedAt(LocalDateTime.now());
+            checkpoint(announcement, Announcement.AnnouncementStatus.COMPLETED);
+            logger.info("Announcement {} completed: {} delivered, {} failed", announcement.getId(),
+                    announcement.getProcessedRecipients() - announcement.getFailedRecipients(),
+                    announcement.getFailedRecipients());
+        } catch (Exception e) {
+            logger.error("Announcement {} failed", announcement.getId(), e);
+            announcement.setLastError(e.getMessage());
+            checkpoint(announcement, Announcement.AnnouncementStatus.FAILED);
+        }
+    }
+
+    private List<String> nextChunk(Announcement announcement) {
+        if (announcement.getUserIds() != null) {
+            List<String> userIds = announcement.getUserIds();
+            int from = Math.min(announcement.getNextIndex(), userIds.size());
+            return new ArrayList<>(userIds.subList(from, Math.min(from + chunkSize, userIds.size())));
+        }
+
+        Criteria criteria = Criteria.where("active").is(true);
+        if (announcement.getLastUserId() != null) {
+            criteria = criteria.and("_id").gt(announcement.getLastUserId());
+        }
+        Query query = Query.query(criteria).with(Sort.by("_id")).limit(chunkSize);
+        query.fields().include("_id");
+        return mongoTemplate.find(query, User.class).stream()
+                .map(User::getId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Inserts and publishes one chunk of notifications.
+     *
+     * @return number of recipients whose notification could not be published
+     */
+    private long deliver(Announcement announcement, List<String> recipients, boolean resumed) {
+        if (resumed) {
+            // The previous owner may have inserted this chunk before its last checkpoint
+            Set<String> alreadyDelivered = existingRecipients(announcement.getId(), recipients);
+            recipients = recipients.stream()
+                    .filter(userId -> !alreadyDelivered.contains(userId))
+                    .collect(Collectors.toList());
+            if (recipients.isEmpty()) {
+                return 0;
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = new ArrayList<>(recipients.size());
+        for (String userId : recipients) {
+            Notification notification = new Notification(announcement.getTitle(), announcement.getMessage(),
+                    userId, Notification.NotificationType.SYSTEM_ANNOUNCEMENT);
+            notification.setPriority(Notification.NotificationPriority.MEDIUM);
+            notification.setExpiresAt(announcement.getExpiresAt());
+            notification.setCreatedAt(now);
+            notification.setStatus(Notification.NotificationStatus.PENDING);
+            notification.setMetadata(Map.of(ANNOUNCEMENT_ID_KEY, announcement.getId()));
+            notifications.add(notification);
+        }
+
+        Collection<Notification> inserted = mongoTemplate.insert(notifications, Notification.class);
+        unreadCountService.adjustEach(recipients, 1, announcement.getExpiresAt());
+        changeVersionService.changedEach(recipients, ChangeVersionService.Scope.NOTIFICATIONS, announcement.getExpiresAt());
+        return notificationService.publishBatch(inserted);
+    }
+
+    private Set<String> existingRecipients(String announcementId, List<String> recipients) {
+        Query query = Query.query(Criteria.where("metadata." + ANNOUNCEMENT_ID_KEY).is(announcementId)
+                .and("userId").in(recipients));
+        query.fields().include("userId");
+        return mongoTemplate.find(query, Notification.class).stream()
+                .map(Notification::getUserId)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Saves progress if this node still owns the job; returns false if another node took it over.
+     */
+    private boolean checkpoint(Announcement announcement, Announcement.AnnouncementStatus status) {
+        announcement.setStatus(status);
+        Update update = new Update()
+                .set("status", status)
+                .set("processedRecipients", announcement.getProcessedRecipients())
+                .set("failedRecipients", announcement.getFailedRecipients())
+                .set("nextIndex", announcement.getNextIndex())
+                .set("lastUserId", announcement.getLastUserId())
+                .set("startedAt", announcement.getStartedAt())
+                .set("completedAt", announcement.getCompletedAt())
+                .set("lastError", announcement.getLastError())
+                .set("heartbeatAt", LocalDateTime.now());
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(announcement.getId()).and("owner").is(nodeId)),
+                update, Announcement.class).getMatchedCount() > 0;
+    }
+}
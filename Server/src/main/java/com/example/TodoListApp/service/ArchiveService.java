@@ -0,0 +1,276 @@
+package com.example.TodoListApp.service;
+
+import com.example.TodoListApp.entity.Notification;
+import com.example.TodoListApp.entity.Todo;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Moves cold documents out of the hot todos and notifications collections into todos_archive
+ * and notifications_archive, restores them on demand and finally purges them.
+ *
+ * Archived are soft-deleted documents once deletedAt is older than the deleted retention,
+ * completed todos and read notifications once completedAt/readAt is older than their retention,
+ * and nothing restored more recently than that. Each batch is copied as raw documents, stamped
+ * with archivedAt, and only then removed from the hot collection, so a crash in between leaves a
+ * copy in both places; the next run skips the existing copy and completes the move. Archived
+ * documents older than purge-after-days are deleted for good.
+ */
+@Service
+public class ArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveService.class);
+
+    public static final String TODO_ARCHIVE = "todos_archive";
+    public static final String NOTIFICATION_ARCHIVE = "notifications_archive";
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UnreadCountService unreadCountService;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${archive.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Value("${archive.todos.deleted-retention-days:30}")
+    private int todoDeletedRetentionDays;
+
+    @Value("${archive.todos.completed-retention-days:180}")
+    private int todoCompletedRetentionDays;
+
+    @Value("${archive.notifications.deleted-retention-days:30}")
+    private int notificationDeletedRetentionDays;
+
+    @Value("${archive.notifications.read-retention-days:90}")
+    private int notificationReadRetentionDays;
+
+    @Value("${archive.purge-after-days:365}")
+    private int purgeAfterDays;
+
+    /**
+     * Creates the archive collections' indexes once the application is up, like
+     * MongoIndexInitializer does for the entities; failures are logged and retried on the next start.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createArchiveIndexes() {
+        for (String archive : List.of(TODO_ARCHIVE, NOTIFICATION_ARCHIVE)) {
+            try {
+                mongoTemplate.indexOps(archive).createIndex(new Index()
+                        .on("user_id", Sort.Direction.ASC).on("archivedAt", Sort.Direction.DESC).named("user_archived_at"));
+                mongoTemplate.indexOps(archive).createIndex(new Index()
+                        .on("archivedAt", Sort.Direction.ASC).named("archived_at"));
+            } catch (DataAccessResourceFailureException e) {
+                logger.warn("Could not create archive indexes, Mongo is unreachable: {}", e.getMessage());
+                return;
+            } catch (Exception e) {
+                logger.warn("Could not create indexes for {}: {}", archive, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Runs one archival pass followed by the purge.
+     *
+     * @return documents moved or purged, per phase
+     */
+    public Map<String, Long> runArchival() {
+        LocalDateTime now = LocalDateTime.now();
+        String todos = mongoTemplate.getCollectionName(Todo.class);
+        String notifications = mongoTemplate.getCollectionName(Notification.class);
+
+        LocalDateTime todoDeletedCutoff = now.minusDays(todoDeletedRetentionDays);
+        LocalDateTime todoCompletedCutoff = now.minusDays(todoCompletedRetentionDays);
+        LocalDateTime notificationDeletedCutoff = now.minusDays(notificationDeletedRetentionDays);
+        LocalDateTime notificationReadCutoff = now.minusDays(notificationReadRetentionDays);
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("todosDeleted", archive(todos, TODO_ARCHIVE,
+                Criteria.where("isDeleted").is(true).and("deletedAt").lt(todoDeletedCutoff)
+                        .and("restoredAt").not().gte(todoDeletedCutoff)));
+        result.put("todosCompleted", archive(todos, TODO_ARCHIVE,
+                Criteria.where("status").is(Todo.TodoStatus.COMPLETED).and("completedAt").lt(todoCompletedCutoff)
+                        .and("restoredAt").not().gte(todoCompletedCutoff)));
+        result.put("notificationsDeleted", archive(notifications, NOTIFICATION_ARCHIVE,
+                Criteria.where("isDeleted").is(true).and("deletedAt").lt(notificationDeletedCutoff)
+                        .and("restoredAt").not().gte(notificationDeletedCutoff)));
+        result.put("notificationsRead", archive(notifications, NOTIFICATION_ARCHIVE,
+                Criteria.where("readAt").exists(true).lt(notificationReadCutoff)
+                        .and("restoredAt").not().gte(notificationReadCutoff)));
+
+        Query expired = Query.query(Criteria.where("archivedAt").lt(now.minusDays(purgeAfterDays)));
+        result.put("todosPurged", count(TODO_ARCHIVE, "purged", mongoTemplate.remove(expired, TODO_ARCHIVE).getDeletedCount()));
+        result.put("notificationsPurged", count(NOTIFICATION_ARCHIVE, "purged", mongoTemplate.remove(expired, NOTIFICATION_ARCHIVE).getDeletedCount()));
+        return result;
+    }
+
+    public List<Todo> findArchivedTodos(String userId, int limit) {
+        return mongoTemplate.find(archivedByUser(userId, limit), Todo.class, TODO_ARCHIVE);
+    }
+
+    public List<Notification> findArchivedNotifications(String userId, int limit) {
+        return mongoTemplate.find(archivedByUser(userId, limit), Notification.class, NOTIFICATION_ARCHIVE);
+    }
+
+    /**
+     * Moves an archived todo back into the hot collection, undeleted if it had been deleted.
+     */
+    public Optional<Todo> restoreTodo(String id, String userId) {
+        Document document = restore(id, userId, TODO_ARCHIVE, mongoTemplate.getCollectionName(Todo.class));
+        if (document == null) {
+            return Optional.empty();
+        }
+        Todo todo = mongoTemplate.getConverter().read(Todo.class, document);
+        changeVersionService.changed(userId, ChangeVersionService.Scope.TODOS, todo.isCompleted() ? null : todo.getDueDate());
+        return Optional.of(todo);
+    }
+
+    /**
+     * Moves an archived notification back into the hot collection, undeleted if it had been
+     * deleted.
+     */
+    public Optional<Notification> restoreNotification(String id, String userId) {
+        Document document = restore(id, userId, NOTIFICATION_ARCHIVE, mongoTemplate.getCollectionName(Notification.class));
+        if (document == null) {
+            return Optional.empty();
+        }
+        Notification notification = mongoTemplate.getConverter().read(Notification.class, document);
+        if (!notification.isRead()) {
+            // Only deleted notifications are archived unread, and they were uncounted on delete
+            unreadCountService.adjust(userId, 1, notification.getExpiresAt());
+        }
+        changeVersionService.changed(userId, ChangeVersionService.Scope.NOTIFICATIONS, notification.getExpiresAt());
+        return Optional.of(notification);
+    }
+
+    private Document restore(String id, String userId, String archive, String hot) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("user_id").is(userId));
+        Document document = mongoTemplate.findOne(query, Document.class, archive);
+        if (document == null) {
+            return null;
+        }
+        document.remove("archivedAt");
+        document.remove("deletedAt");
+        document.put("isDeleted", false);
+        document.put("restoredAt", new Date());
+        Object version = document.get("version");
+        document.put("version", version instanceof Number number ? number.longValue() + 1 : 0L);
+
+        mongoTemplate.save(document, hot);
+        mongoTemplate.remove(query, archive);
+        count(archive, "restored", 1);
+        return document;
+    }
+
+    private long archive(String hot, String archive, Criteria criteria) {
+        long moved = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Document> documents = mongoTemplate.find(Query.query(criteria).limit(batchSize), Document.class, hot);
+            if (documents.isEmpty()) {
+                break;
+            }
+
+            Date archivedAt = new Date();
+            List<Object> ids = new ArrayList<>(documents.size());
+            Set<String> owners = new HashSet<>();
+            for (Document document : documents) {
+                document.put("archivedAt", archivedAt);
+                ids.add(document.get("_id"));
+                owners.add(document.getString("user_id"));
+            }
+            insertIgnoringCopies(archive, documents);
+
+            // Remove only what still qualifies; anything changed meanwhile stays hot and loses its copy
+            long removed = mongoTemplate.remove(Query.query(new Criteria().andOperator(
+                    Criteria.where("_id").in(ids), criteria)), hot).getDeletedCount();
+            if (removed < ids.size()) {
+                List<Object> stillHot = mongoTemplate.findDistinct(Query.query(Criteria.where("_id").in(ids)), "_id", hot, Object.class);
+                if (!stillHot.isEmpty()) {
+                    mongoTemplate.remove(Query.query(Criteria.where("_id").in(stillHot)), archive);
+                }
+            }
+
+            // Completed todos and read notifications disappear from their owners' lists
+            owners.remove(null);
+            changeVersionService.changedEach(owners, TODO_ARCHIVE.equals(archive)
+                    ? ChangeVersionService.Scope.TODOS : ChangeVersionService.Scope.NOTIFICATIONS, null);
+
+            moved += removed;
+            if (documents.size() < batchSize) {
+                break;
+            }
+        }
+        if (moved > 0) {
+            logger.info("Archived {} documents from {} to {}", moved, hot, archive);
+        }
+        return count(archive, "archived", moved);
+    }
+
+    private void insertIgnoringCopies(String archive, List<Document> documents) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, archive).insert(documents).execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+            // Copies left by an interrupted earlier run
+        }
+    }
+
+    private Query archivedByUser(String userId, int limit) {
+        return Query.query(Criteria.where("user_id").is(userId))
+                .with(Sort.by(Sort.Direction.DESC, "archivedAt"))
+                .limit(limit);
+    }
+
+    private long count(String archive, String phase, long documents) {
+        if (documents > 0) {
+            Counter.builder("archive.documents")
+                    .tag("collection", archive)
+                    .tag("phase", phase)
+                    .register(meterRegistry)
+                    .increment(documents);
+        }
+        return documents;
+    }
+}
@@ -4,6 +4,7 @@ import com.example.TodoListApp.dto.LoginRequest;
 import com.example.TodoListApp.dto.RegisterRequest;
 import com.example.TodoListApp.entity.User;
 import com.example.TodoListApp.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,6 +13,7 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Service
+@Timed(value = "auth.service", histogram = true)
 @Transactional
 public class AuthService {
     
@@ -0,0 +1,264 @@
+package com.example.TodoListApp.service;
+
+import com.example.TodoListApp.entity.ChangeVersion;
+import com.example.TodoListApp.entity.Notification;
+import com.example.TodoListApp.entity.Todo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user change versions in the change_versions collection, the basis of the weak ETags on
+ * GET /todos, /notifications and the stats endpoints.
+ *
+ * Every write to a user's todos or notifications increments the matching version with $inc, from
+ * this application and the reactive one alike. Reads are served from a short-lived in-process
+ * cache that is refreshed on every local change; other nodes' changes become visible once the
+ * entry expires, and expired entries are evicted so the cache only holds recently active users.
+ * Responses also change without a write when a todo becomes overdue or a notification expires,
+ * so writes record the earliest such time ($min), and the first read after it increments the
+ * version and looks up the next one.
+ */
+@Service
+public class ChangeVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeVersionService.class);
+
+    public enum Scope {
+        TODOS("todos", "todosChangeAt"),
+        NOTIFICATIONS("notifications", "notificationsChangeAt");
+
+        private final String versionField;
+        private final String changeAtField;
+
+        Scope(String versionField, String changeAtField) {
+            this.versionField = versionField;
+            this.changeAtField = changeAtField;
+        }
+
+        public String versionField() {
+            return versionField;
+        }
+
+        public String changeAtField() {
+            return changeAtField;
+        }
+    }
+
+    // Time-based changes are rare; this only bounds the loop if several are due at once
+    private static final int MAX_ADVANCES = 3;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${change-version.cache-ttl:1000}")
+    private long cacheTtlMillis;
+
+    private final Map<String, CachedVersion> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Weak entity tag of everything in the scope for this user.
+     */
+    public String eTag(String userId, Scope scope) {
+        return "W/\"" + getVersion(userId, scope) + "\"";
+    }
+
+    public long getVersion(String userId, Scope scope) {
+        ChangeVersion version = load(userId);
+        for (int i = 0; i < MAX_ADVANCES; i++) {
+            LocalDateTime changeAt = changeAt(version, scope);
+            if (changeAt == null || changeAt.isAfter(LocalDateTime.now())) {
+                break;
+            }
+            version = advance(userId, scope, changeAt);
+        }
+        return version != null ? version(version, scope) : 0;
+    }
+
+    public void changed(String userId, Scope scope) {
+        changed(userId, scope, null);
+    }
+
+    /**
+     * Increments the user's version. Call after the change has been saved. changesAt is when the
+     * changed data will next change by itself (due date, expiry), if it will.
+     */
+    public void changed(String userId, Scope scope, LocalDateTime changesAt) {
+        if (userId == null) {
+            return;
+        }
+        try {
+            // Users without versions yet start with those of their existing data
+            load(userId);
+            ChangeVersion version = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(userId)),
+                    update(scope, changesAt),
+                    FindAndModifyOptions.options().returnNew(true).upsert(true),
+                    ChangeVersion.class);
+            refresh(userId, version);
+        } catch (Exception e) {
+            // Clients may get a stale 304 until this user's next change
+            cache.remove(userId);
+            logger.warn("Failed to increment {} change version for user {}: {}", scope, userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Increments many users' versions in one bulk write.
+     */
+    public void changedEach(Collection<String> userIds, Scope scope, LocalDateTime changesAt) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChangeVersion.class);
+            for (String userId : userIds) {
+                bulk.upsert(Query.query(Criteria.where("_id").is(userId)), update(scope, changesAt));
+            }
+            bulk.execute();
+        } catch (Exception e) {
+            logger.warn("Failed to increment {} change versions for {} users: {}", scope, userIds.size(), e.getMessage());
+        }
+        userIds.forEach(cache::remove);
+    }
+
+    /**
+     * Increments the versions of the owners of the given documents, which must still exist.
+     */
+    public void changedOwners(Collection<?> ids, Class<?> type, Scope scope) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        changedEach(mongoTemplate.findDistinct(Query.query(Criteria.where("_id").in(ids)), "userId", type, String.class),
+                scope, null);
+    }
+
+    /**
+     * Drops expired cache entries; a user's next read loads the versions again.
+     */
+    @Scheduled(fixedDelayString = "${change-version.cache-ttl:1000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(cached -> cached.expiresAt() <= now);
+    }
+
+    private ChangeVersion load(String userId) {
+        CachedVersion cached = cache.get(userId);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached.version();
+        }
+        ChangeVersion version = mongoTemplate.findById(userId, ChangeVersion.class);
+        if (version == null) {
+            version = initialize(userId);
+        }
+        refresh(userId, version);
+        return version;
+    }
+
+    /**
+     * Creates the versions of a user who has not written anything since they were introduced,
+     * with the pending time-based changes of their existing data.
+     */
+    private ChangeVersion initialize(String userId) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update().setOnInsert("todos", 0L).setOnInsert("notifications", 0L).setOnInsert("updatedAt", now);
+        for (Scope scope : Scope.values()) {
+            LocalDateTime next = nextChangeAt(userId, scope, now);
+            if (next != null) {
+                update.setOnInsert(scope.changeAtField, next);
+            }
+        }
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(userId)),
+                update,
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                ChangeVersion.class);
+    }
+
+    /**
+     * Increments the version for a time-based change that is due, unless another node already
+     * did, and records the next one.
+     */
+    private ChangeVersion advance(String userId, Scope scope, LocalDateTime due) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = nextChangeAt(userId, scope, now);
+        Update update = new Update().inc(scope.versionField, 1).set("updatedAt", now);
+        if (next != null) {
+            update.set(scope.changeAtField, next);
+        } else {
+            update.unset(scope.changeAtField);
+        }
+
+        ChangeVersion version = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(userId).and(scope.changeAtField).is(due)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                ChangeVersion.class);
+        if (version == null) {
+            version = mongoTemplate.findById(userId, ChangeVersion.class);
+        }
+        refresh(userId, version);
+        return version;
+    }
+
+    private LocalDateTime nextChangeAt(String userId, Scope scope, LocalDateTime now) {
+        if (scope == Scope.TODOS) {
+            Query query = Query.query(Criteria.where("userId").is(userId).and("isDeleted").is(false)
+                            .and("status").ne(Todo.TodoStatus.COMPLETED).and("dueDate").gt(now))
+                    .with(Sort.by(Sort.Direction.ASC, "dueDate"));
+            query.fields().include("dueDate");
+            Todo todo = mongoTemplate.findOne(query, Todo.class);
+            return todo != null ? todo.getDueDate() : null;
+        }
+        Query query = Query.query(Criteria.where("userId").is(userId).and("isDeleted").is(false)
+                        .and("expiresAt").gt(now))
+                .with(Sort.by(Sort.Direction.ASC, "expiresAt"));
+        query.fields().include("expiresAt");
+        Notification notification = mongoTemplate.findOne(query, Notification.class);
+        return notification != null ? notification.getExpiresAt() : null;
+    }
+
+    private Update update(Scope scope, LocalDateTime changesAt) {
+        Update update = new Update().inc(scope.versionField, 1).set("updatedAt", LocalDateTime.now());
+        if (changesAt != null && changesAt.isAfter(LocalDateTime.now())) {
+            update.min(scope.changeAtField, changesAt);
+        }
+        return update;
+    }
+
+    private void refresh(String userId, ChangeVersion version) {
+        if (version != null) {
+            cache.put(userId, new CachedVersion(version, System.currentTimeMillis() + cacheTtlMillis));
+        } else {
+            cache.remove(userId);
+        }
+    }
+
+    private static long version(ChangeVersion version, Scope scope) {
+        return scope == Scope.TODOS ? version.getTodos() : version.getNotifications();
+    }
+
+    private static LocalDateTime changeAt(ChangeVersion version, Scope scope) {
+        if (version == null) {
+            return null;
+        }
+        return scope == Scope.TODOS ? version.getTodosChangeAt() : version.getNotificationsChangeAt();
+    }
+
+    private record CachedVersion(ChangeVersion version, long expiresAt) {}
+}
@@ -0,0 +1,117 @@
+package com.example.TodoListApp.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear latency histogram in milliseconds, HdrHistogram style: values below 16 get a bucket
+ * each, larger values 16 buckets per power of two, so any recorded value is known to within
+ * 6.25%. Bucket boundaries are fixed, which makes histograms mergeable by adding counts bucket
+ * by bucket; persisted histograms are therefore plain sparse {bucket index: count} maps that
+ * can be updated with $inc.
+ *
+ * An instance accumulates values lock-free until {@link #drain()} takes them out.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Covers every non-negative long
+    static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long valueMillis) {
+        long value = Math.max(0, valueMillis);
+        counts.incrementAndGet(bucketIndex(value));
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Takes out everything recorded so far. Values recorded concurrently end up either in this
+     * snapshot or the next one.
+     */
+    public Snapshot drain() {
+        Map<Integer, Long> buckets = new TreeMap<>();
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts.get(i) != 0) {
+                long n = counts.getAndSet(i, 0);
+                if (n != 0) {
+                    buckets.put(i, n);
+                    count += n;
+                }
+            }
+        }
+        return new Snapshot(buckets, count, sum.getAndSet(0), max.getAndSet(0));
+    }
+
+    /**
+     * Puts a drained snapshot back, e.g. after it failed to persist.
+     */
+    public void restore(Snapshot snapshot) {
+        snapshot.buckets().forEach((index, n) -> counts.addAndGet(index, n));
+        sum.addAndGet(snapshot.sumMillis());
+        max.accumulateAndGet(snapshot.maxMillis(), Math::max);
+    }
+
+    public static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    public static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    }
+
+    public static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        return lowerBound(index) + (1L << shift) - 1;
+    }
+
+    /**
+     * Value at the given percentile (0-100) of sparse bucket counts, as the midpoint of the
+     * bucket it falls into, capped at max.
+     */
+    public static long percentile(Map<Integer, Long> buckets, long count, long max, double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        if (percentile >= 100) {
+            return max;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (Map.Entry<Integer, Long> bucket : new TreeMap<>(buckets).entrySet()) {
+            seen += bucket.getValue();
+            if (seen >= rank) {
+                int index = bucket.getKey();
+                long mid = lowerBound(index) + (upperBound(index) - lowerBound(index)) / 2;
+                return Math.min(mid, max);
+            }
+        }
+        return max;
+    }
+
+    public record Snapshot(Map<Integer, Long> buckets, long count, long sumMillis, long maxMillis) {
+        public boolean isEmpty() {
+            return count == 0;
+        }
+    }
+}
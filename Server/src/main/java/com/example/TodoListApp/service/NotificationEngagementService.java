@@ -0,0 +1,197 @@
+package com.example.TodoListApp.service;
+
+import com.example.TodoListApp.entity.Notification;
+import com.example.TodoListApp.entity.NotificationEngagement;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delivery (createdAt to sentAt) and read (sentAt to readAt) latency histograms per notification
+ * type, priority and hour.
+ *
+ * Transitions are recorded into in-memory histograms and flushed every flush-interval ms as one
+ * $inc upsert per histogram that changed, so the cost per notification is an array increment and
+ * every node merges into the same documents. Reports merge the stored hourly histograms, reading
+ * one small document per type, priority and hour instead of the notifications themselves. Values
+ * recorded since the last flush are lost if the process dies.
+ */
+@Service
+public class NotificationEngagementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationEngagementService.class);
+
+    public static final String DELIVERY = "delivery";
+    public static final String READ = "read";
+
+    private static final double[] PERCENTILES = {50, 90, 99};
+    private static final Duration MAX_RANGE = Duration.ofDays(92);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final Map<Key, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public void recordSent(Notification notification) {
+        if (notification.getCreatedAt() != null && notification.getSentAt() != null) {
+            record(DELIVERY, notification, notification.getCreatedAt(), notification.getSentAt());
+        }
+    }
+
+    public void recordRead(Notification notification) {
+        if (notification.getSentAt() != null && notification.getReadAt() != null) {
+            record(READ, notification, notification.getSentAt(), notification.getReadAt());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.engagement.flush-interval:10000}")
+    public void flush() {
+        LocalDateTime currentHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        histograms.forEach((key, histogram) -> {
+            LatencyHistogram.Snapshot snapshot = histogram.drain();
+            if (!snapshot.isEmpty()) {
+                try {
+                    persist(key, snapshot);
+                } catch (Exception e) {
+                    logger.warn("Failed to flush engagement histogram {}: {}", key, e.getMessage());
+                    histogram.restore(snapshot);
+                    return;
+                }
+            }
+            if (snapshot.isEmpty() && key.hour().isBefore(currentHour)) {
+                // Past hours rarely get more values; a late one simply starts a new histogram
+                histograms.remove(key, histogram);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Merges the hourly histograms in [from, to) into one per stage, type and priority, plus
+     * a total per stage. Null filters match everything.
+     */
+    public Map<String, Object> getEngagement(LocalDateTime from, LocalDateTime to, String stage,
+                                             Notification.NotificationType type,
+                                             Notification.NotificationPriority priority) {
+        if (!from.isBefore(to) || Duration.between(from, to).compareTo(MAX_RANGE) > 0) {
+            throw new IllegalArgumentException("from must be before to, at most " + MAX_RANGE.toDays() + " days apart");
+        }
+        Criteria criteria = Criteria.where("hour").gte(from).lt(to);
+        if (stage != null) {
+            criteria = criteria.and("stage").is(stage);
+        }
+        if (type != null) {
+            criteria = criteria.and("type").is(type);
+        }
+        if (priority != null) {
+            criteria = criteria.and("priority").is(priority);
+        }
+
+        Map<String, Merged> groups = new TreeMap<>();
+        Map<String, Merged> totals = new TreeMap<>();
+        for (NotificationEngagement histogram : mongoTemplate.find(Query.query(criteria), NotificationEngagement.class)) {
+            groups.computeIfAbsent(histogram.getStage() + ":" + histogram.getType() + ":" + histogram.getPriority(),
+                    k -> new Merged(histogram.getStage(), histogram.getType(), histogram.getPriority())).add(histogram);
+            totals.computeIfAbsent(histogram.getStage(), k -> new Merged(histogram.getStage(), null, null)).add(histogram);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("from", from);
+        report.put("to", to);
+        report.put("totals", totals.values().stream().map(Merged::toMap).toList());
+        report.put("groups", groups.values().stream().map(Merged::toMap).toList());
+        return report;
+    }
+
+    private void record(String stage, Notification notification, LocalDateTime start, LocalDateTime end) {
+        if (notification.getType() == null) {
+            return;
+        }
+        Key key = new Key(stage, notification.getType(), notification.getPriority(), end.truncatedTo(ChronoUnit.HOURS));
+        histograms.computeIfAbsent(key, k -> new LatencyHistogram())
+                .record(Duration.between(start, end).toMillis());
+    }
+
+    private void persist(Key key, LatencyHistogram.Snapshot snapshot) {
+        Update update = new Update()
+                .inc("count", snapshot.count())
+                .inc("sumMillis", snapshot.sumMillis())
+                .max("maxMillis", snapshot.maxMillis())
+                .setOnInsert("stage", key.stage())
+                .setOnInsert("type", key.type())
+                .setOnInsert("priority", key.priority())
+                .setOnInsert("hour", key.hour());
+        snapshot.buckets().forEach((index, n) -> update.inc("buckets." + index, n));
+        mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(NotificationEngagement.idOf(key.stage(), key.type(), key.priority(), key.hour()))),
+                update,
+                NotificationEngagement.class);
+    }
+
+    private record Key(String stage, Notification.NotificationType type,
+                       Notification.NotificationPriority priority, LocalDateTime hour) {}
+
+    /**
+     * Sum of several stored histograms.
+     */
+    private static final class Merged {
+        private final String stage;
+        private final Notification.NotificationType type;
+        private final Notification.NotificationPriority priority;
+        private final Map<Integer, Long> buckets = new HashMap<>();
+        private long count;
+        private long sumMillis;
+        private long maxMillis;
+
+        Merged(String stage, Notification.NotificationType type, Notification.NotificationPriority priority) {
+            this.stage = stage;
+            this.type = type;
+            this.priority = priority;
+        }
+
+        void add(NotificationEngagement histogram) {
+            count += histogram.getCount();
+            sumMillis += histogram.getSumMillis();
+            maxMillis = Math.max(maxMillis, histogram.getMaxMillis());
+            if (histogram.getBuckets() != null) {
+                histogram.getBuckets().forEach((index, n) -> buckets.merge(Integer.parseInt(index), n, Long::sum));
+            }
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("stage", stage);
+            if (type != null) {
+                result.put("type", type);
+                result.put("priority", priority);
+            }
+            result.put("count", count);
+            result.put("meanMillis", count > 0 ? sumMillis / count : 0);
+            for (double percentile : PERCENTILES) {
+                result.put("p" + (int) percentile + "Millis", LatencyHistogram.percentile(buckets, count, maxMillis, percentile));
+            }
+            result.put("maxMillis", maxMillis);
+            return result;
+        }
+    }
+}
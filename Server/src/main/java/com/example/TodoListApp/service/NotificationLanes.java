@@ -0,0 +1,51 @@
+package com.example.TodoListApp.service;
+
+import com.example.TodoListApp.entity.Notification;
+
+/**
+ * Which queue lane a notification goes to, and its message priority within the lane. Used by
+ * NotificationPublisher and the reactive application, so a notification is routed the same
+ * whichever application created it.
+ */
+public final class NotificationLanes {
+
+    private final String standardKey;
+    private final String highKey;
+    private final String bulkKey;
+
+    public NotificationLanes(String standardKey, String highKey, String bulkKey) {
+        this.standardKey = standardKey;
+        this.highKey = highKey;
+        this.bulkKey = bulkKey;
+    }
+
+    /**
+     * Picks the queue lane: announcements and LOW priority go to the bulk lane, HIGH/URGENT and
+     * overdue/due-soon reminders to the high-priority lane, everything else to the standard queue.
+     */
+    public String routingKeyFor(Notification.NotificationType type, Notification.NotificationPriority priority) {
+        if (type == Notification.NotificationType.SYSTEM_ANNOUNCEMENT
+                || priority == Notification.NotificationPriority.LOW) {
+            return bulkKey;
+        }
+        if (priority == Notification.NotificationPriority.HIGH
+                || priority == Notification.NotificationPriority.URGENT
+                || type == Notification.NotificationType.TODO_OVERDUE
+                || type == Notification.NotificationType.TODO_DUE_SOON) {
+            return highKey;
+        }
+        return standardKey;
+    }
+
+    public static int messagePriority(Notification.NotificationPriority priority) {
+        if (priority == null) {
+            return 0;
+        }
+        return switch (priority) {
+            case URGENT -> 9;
+            case HIGH -> 6;
+            case MEDIUM -> 3;
+            case LOW -> 0;
+        };
+    }
+}
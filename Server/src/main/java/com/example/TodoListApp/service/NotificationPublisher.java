@@ -0,0 +1,507 @@
+package com.example.TodoListApp.service;
+
+import com.example.TodoListApp.config.NotificationMessageConverter;
+import com.example.TodoListApp.dto.NotificationMessage;
+import com.example.TodoListApp.entity.Notification;
+import com.example.TodoListApp.exception.DependencyUnavailableException;
+import com.example.TodoListApp.resilience.DependencyGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes notifications to RabbitMQ with correlated publisher confirms.
+ *
+ * Each message carries a CorrelationData whose future completes when the broker confirms or
+ * rejects it, so the publishing thread never waits for a round-trip. Rejected and unroutable
+ * messages are collected and their notifications marked FAILED in one update per flush.
+ *
+ * With batching enabled, notifications are buffered and a flusher thread sends them over a
+ * single channel once batch-size messages are waiting or batch-timeout has passed since the
+ * first one. Each message still gets its own confirm. A full buffer falls back to sending on
+ * the caller's thread.
+ *
+ * Messages that cannot reach the broker are appended to a local NotificationSpool instead of
+ * failing the caller. A drain thread publishes the backlog at a limited rate once the broker
+ * accepts connections again, and only removes a batch from the spool after the broker confirmed
+ * all of it. New messages are appended behind the backlog until a drained batch has been
+ * confirmed; from then on they are sent directly, so the backlog shrinks however busy it is.
+ */
+@Component
+public class NotificationPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPublisher.class);
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    @Qualifier("rabbitGuard")
+    private DependencyGuard rabbitGuard;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    @Value("${notification.exchange.name}")
+    private String exchangeName;
+
+    @Value("${notification.routing.key}")
+    private String routingKey;
+
+    @Value("${notification.routing.high-key:todo.notification.high}")
+    private String highRoutingKey;
+
+    @Value("${notification.routing.bulk-key:todo.notification.bulk}")
+    private String bulkRoutingKey;
+
+    @Value("${notification.publisher.batching.enabled:false}")
+    private boolean batchingEnabled;
+
+    @Value("${notification.publisher.batching.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notification.publisher.batching.batch-timeout:20}")
+    private long batchTimeoutMillis;
+
+    @Value("${notification.publisher.batching.buffer-limit:10000}")
+    private int bufferLimit;
+
+    @Value("${notification.spool.enabled:true}")
+    private boolean spoolEnabled;
+
+    @Value("${notification.spool.directory:data/notification-spool}")
+    private String spoolDirectory;
+
+    @Value("${notification.spool.segment-size:67108864}")
+    private int spoolSegmentSize;
+
+    @Value("${notification.spool.drain-rate:500}")
+    private int drainRate;
+
+    @Value("${notification.spool.drain-batch-size:100}")
+    private int drainBatchSize;
+
+    @Value("${notification.spool.retry-interval:5000}")
+    private long spoolRetryMillis;
+
+    @Value("${notification.spool.confirm-timeout:10000}")
+    private long spoolConfirmTimeoutMillis;
+
+    private NotificationLanes lanes;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<String> rejectedIds = new ConcurrentLinkedQueue<>();
+    private BlockingQueue<NotificationMessage> buffer;
+    private DistributionSummary batchSizes;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private NotificationSpool spool;
+    private Thread drainer;
+    private Counter spooled;
+    private Counter drained;
+    // False from the first failed send until the drain gets a batch confirmed
+    private volatile boolean brokerReachable = true;
+
+    @PostConstruct
+    public void init() {
+        lanes = new NotificationLanes(routingKey, highRoutingKey, bulkRoutingKey);
+        meterRegistry.gauge("notification.publish.in-flight", inFlight);
+        batchSizes = DistributionSummary.builder("notification.publish.batch.size")
+                .description("Messages sent per channel checkout")
+                .register(meterRegistry);
+
+        running = true;
+        if (batchingEnabled) {
+            buffer = new ArrayBlockingQueue<>(bufferLimit);
+            meterRegistry.gauge("notification.publish.buffered", buffer, Collection::size);
+            flusher = new Thread(this::flushLoop, "notification-publisher");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+
+        if (spoolEnabled) {
+            try {
+                spool = new NotificationSpool(Paths.get(spoolDirectory), spoolSegmentSize);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Could not open notification spool in {}, publishing without it", spoolDirectory, e);
+                return;
+            }
+            if (!spool.isEmpty()) {
+                logger.info("Recovered {} spooled notifications from {}", spool.getPendingCount(), spoolDirectory);
+                brokerReachable = false;
+            }
+            meterRegistry.gauge("notification.spool.pending", spool, NotificationSpool::getPendingCount);
+            spooled = Counter.builder("notification.spool.appended")
+                    .description("Messages written to the local spool because the broker was unreachable")
+                    .register(meterRegistry);
+            drained = Counter.builder("notification.spool.drained")
+                    .description("Spooled messages published after the broker came back")
+                    .register(meterRegistry);
+            drainer = new Thread(this::drainLoop, "notification-spool-drain");
+            drainer.setDaemon(true);
+            drainer.start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        for (Thread thread : new Thread[] {flusher, drainer}) {
+            if (thread == null) {
+                continue;
+            }
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (buffer != null) {
+            // Whatever the flusher did not get to is sent (or spooled) now rather than lost
+            List<NotificationMessage> remaining = new ArrayList<>();
+            buffer.drainTo(remaining);
+            publishMessages(remaining);
+        }
+        if (spool != null) {
+            spool.close();
+        }
+    }
+
+    /**
+     * Publishes a notification. With batching enabled this only enqueues it; otherwise it is sent
+     * on the caller's thread. If the broker is unreachable, or its circuit is open, the message is
+     * spooled; a send failure is only thrown to the caller when the spool is unavailable too.
+     * Broker confirms are always handled asynchronously.
+     */
+    public void publish(Notification notification) {
+        NotificationMessage message = NotificationMessage.from(notification);
+        if (spool != null && !brokerReachable) {
+            // The broker is still unreachable; queue up behind the backlog instead of waiting on it
+            spool(message);
+            return;
+        }
+        if (batchingEnabled && buffer.offer(message)) {
+            return;
+        }
+        try {
+            rabbitGuard.run(() -> send(rabbitTemplate, message));
+            batchSizes.record(1);
+        } catch (AmqpException | DependencyUnavailableException e) {
+            if (spool == null) {
+                throw e;
+            }
+            logger.warn("Broker unreachable, spooling notification {}: {}", message.getId(), e.getMessage());
+            brokerReachable = false;
+            spool(message);
+        }
+    }
+
+    /**
+     * Sends many notifications over a single channel; those that cannot be sent are spooled.
+     *
+     * @return number of notifications that could neither be sent nor spooled and were marked FAILED
+     */
+    public long publishAll(Collection<Notification> notifications) {
+        return publishMessages(notifications.stream().map(NotificationMessage::from).toList());
+    }
+
+    public long getSpooledCount() {
+        return spool != null ? spool.getPendingCount() : 0;
+    }
+
+    /**
+     * Forces spooled messages to disk. Appends in between share one fsync.
+     */
+    @Scheduled(fixedDelayString = "${notification.spool.fsync-interval:50}")
+    public void syncSpool() {
+        if (spool != null) {
+            spool.sync();
+        }
+    }
+
+    /**
+     * Marks notifications whose messages the broker rejected or could not route as FAILED.
+     */
+    @Scheduled(fixedDelayString = "${notification.publisher.rejected-flush-interval:1000}")
+    public void flushRejected() {
+        List<String> ids = new ArrayList<>();
+        String id;
+        while ((id = rejectedIds.poll()) != null) {
+            ids.add(id);
+        }
+        markFailed(ids);
+    }
+
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    private long publishMessages(List<NotificationMessage> messages) {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        List<NotificationMessage> unsent = new ArrayList<>();
+        try {
+            rabbitGuard.run(() -> rabbitTemplate.invoke(operations -> {
+                for (NotificationMessage message : messages) {
+                    try {
+                        send(operations, message);
+                    } catch (Exception e) {
+                        unsent.add(message);
+                    }
+                }
+                return null;
+            }));
+        } catch (Exception e) {
+            // No channel could be obtained, so nothing in the batch was sent
+            logger.warn("Failed to publish batch of {} notifications: {}", messages.size(), e.getMessage());
+            brokerReachable = false;
+            unsent.clear();
+            unsent.addAll(messages);
+        }
+        batchSizes.record(messages.size() - unsent.size());
+
+        List<String> failedIds = new ArrayList<>();
+        for (NotificationMessage message : unsent) {
+            try {
+                spool(message);
+            } catch (Exception e) {
+                failedIds.add(message.getId());
+            }
+        }
+        markFailed(failedIds);
+        return failedIds.size();
+    }
+
+    private void spool(NotificationMessage message) {
+        if (spool == null) {
+            throw new IllegalStateException("Notification spool is not available");
+        }
+        spool.append(NotificationMessageConverter.encode(message));
+        spooled.increment();
+    }
+
+    private void send(RabbitOperations operations, NotificationMessage notification) {
+        send(operations, notification, true);
+    }
+
+    /**
+     * Sends one message with its own confirm. A nack marks the notification FAILED only if
+     * failOnNack is set; the drain instead keeps the message spooled and sends it again.
+     * Unroutable messages are always marked FAILED, as sending them again would not help.
+     */
+    private CorrelationData send(RabbitOperations operations, NotificationMessage notification, boolean failOnNack) {
+        String lane = lanes.routingKeyFor(notification.getType(), notification.getPriority());
+        CorrelationData correlation = new CorrelationData(notification.getId());
+        long startNanos = System.nanoTime();
+
+        inFlight.incrementAndGet();
+        try {
+            operations.convertAndSend(exchangeName, lane, notification, message -> {
+                message.getMessageProperties().setMessageId(notification.getId());
+                message.getMessageProperties().setPriority(NotificationLanes.messagePriority(notification.getPriority()));
+                return message;
+            }, correlation);
+        } catch (RuntimeException e) {
+            inFlight.decrementAndGet();
+            throw e;
+        }
+
+        correlation.getFuture().whenComplete((confirm, error) -> {
+            inFlight.decrementAndGet();
+            String outcome;
+            if (error != null || confirm == null || !confirm.isAck()) {
+                outcome = "nack";
+            } else if (correlation.getReturned() != null) {
+                outcome = "returned";
+            } else {
+                outcome = "ack";
+            }
+
+            Timer.builder("notification.publish.latency")
+                    .description("Time from publish to broker confirm")
+                    .tag("lane", lane)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+
+            if ("returned".equals(outcome) || ("nack".equals(outcome) && failOnNack)) {
+                logger.warn("Notification {} was not accepted by the broker ({}): {}", notification.getId(), outcome,
+                        confirm != null ? confirm.getReason() : error);
+                // Runs on the connection thread, so the database write is left to flushRejected
+                rejectedIds.add(notification.getId());
+            }
+        });
+        return correlation;
+    }
+
+    private void flushLoop() {
+        List<NotificationMessage> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                NotificationMessage first = buffer.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchTimeoutMillis);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    NotificationMessage next = remaining > 0 ? buffer.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    buffer.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                try {
+                    publishMessages(batch);
+                } catch (Exception e) {
+                    logger.error("Failed to flush notification batch", e);
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Publishes spooled messages in batches, at most drain-rate per second, and commits each batch
+     * once the broker confirmed every message in it. A batch that was only partly sent or
+     * confirmed (nack, lost connection, confirm-timeout) stays spooled and is sent again; the
+     * consumer drops the duplicates.
+     */
+    private void drainLoop() {
+        while (running) {
+            try {
+                if (spool.isEmpty()) {
+                    Thread.sleep(1000);
+                    continue;
+                }
+                NotificationSpool.Batch batch = spool.read(drainBatchSize);
+                List<NotificationMessage> messages = new ArrayList<>(batch.records().size());
+                for (byte[] record : batch.records()) {
+                    try {
+                        messages.add(NotificationMessageConverter.decode(record));
+                    } catch (MessageConversionException e) {
+                        logger.error("Skipping unreadable spooled message: {}", e.getMessage());
+                    }
+                }
+
+                long startNanos = System.nanoTime();
+                // While the circuit is open this fails fast; once it half-opens the drain is the probe
+                List<CorrelationData> correlations = new ArrayList<>(messages.size());
+                rabbitGuard.run(() -> rabbitTemplate.invoke(operations -> {
+                    for (NotificationMessage message : messages) {
+                        correlations.add(send(operations, message, false));
+                    }
+                    return null;
+                }));
+                awaitConfirms(correlations);
+                spool.commit(batch);
+                brokerReachable = true;
+                drained.increment(messages.size());
+                batchSizes.record(messages.size());
+
+                long minimumNanos = TimeUnit.SECONDS.toNanos(1) * batch.records().size() / drainRate;
+                long elapsedNanos = System.nanoTime() - startNanos;
+                if (elapsedNanos < minimumNanos) {
+                    TimeUnit.NANOSECONDS.sleep(minimumNanos - elapsedNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (Exception e) {
+                brokerReachable = false;
+                logger.debug("Spool drain paused, broker still unreachable: {}", e.getMessage());
+                try {
+                    Thread.sleep(spoolRetryMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits until the broker confirmed every message, failing on the first nack or once
+     * confirm-timeout has passed.
+     */
+    private void awaitConfirms(List<CorrelationData> correlations) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(spoolConfirmTimeoutMillis);
+        for (CorrelationData correlation : correlations) {
+            CorrelationData.Confirm confirm;
+            try {
+                confirm = correlation.getFuture().get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                throw new AmqpException("No confirm for spooled notification " + correlation.getId(), e);
+            }
+            if (!confirm.isAck()) {
+                throw new AmqpException("Broker rejected spooled notification " + correlation.getId() + ": " + confirm.getReason());
+            }
+        }
+    }
+
+    private void markFailed(List<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            // Only messages that never reached a consumer, so a processed notification is never downgraded
+            mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(ids).and("status").is(Notification.NotificationStatus.PENDING)),
+                new Update().set("status", Notification.NotificationStatus.FAILED).inc("version", 1),
+                Notification.class);
+            changeVersionService.changedOwners(ids, Notification.class, ChangeVersionService.Scope.NOTIFICATIONS);
+        } catch (Exception e) {
+            logger.warn("Failed to mark {} unpublished notifications as FAILED: {}", ids.size(), e.getMessage());
+        }
+    }
+}
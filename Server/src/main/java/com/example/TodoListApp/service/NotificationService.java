@@ -1,57 +1,83 @@
 package com.example.TodoListApp.service;
 
+import com.example.TodoListApp.dto.NotificationMessage;
 import com.example.TodoListApp.entity.Notification;
 import com.example.TodoListApp.repository.NotificationRepository;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed(value = "notification.service", histogram = true)
 public class NotificationService {
 
+    private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
+
     @Autowired
     private NotificationRepository notificationRepository;
 
     @Autowired
-    private RabbitTemplate rabbitTemplate;
+    private NotificationPublisher notificationPublisher;
+
+    @Autowired
+    private NotificationStreamHub notificationStreamHub;
+
+    @Autowired
+    private UnreadCountService unreadCountService;
+
+    @Autowired
+    private ProcessedMessageStore processedMessageStore;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private NotificationEngagementService notificationEngagementService;
 
-    @Value("${notification.exchange.name}")
-    private String exchangeName;
+    @Autowired
+    private OptimisticWrites optimisticWrites;
 
-    @Value("${notification.routing.key}")
-    private String routingKey;
+    @Autowired
+    private ChangeVersionService changeVersionService;
 
     public List<Notification> findAllByUserId(String userId) {
-        return notificationRepository.findByUserIdAndIsDeletedFalseOrderByCreatedAtDesc(userId);
+        return notificationRepository.findUnexpiredByUserId(userId, LocalDateTime.now());
     }
 
     public Optional<Notification> findByIdAndUserId(String id, String userId) {
-        return notificationRepository.findByIdAndUserIdAndIsDeletedFalse(id, userId);
+        return notificationRepository.findUnexpiredByIdAndUserId(id, userId, LocalDateTime.now());
     }
 
     public List<Notification> findByStatus(String userId, Notification.NotificationStatus status) {
-        return notificationRepository.findByUserIdAndStatusAndIsDeletedFalse(userId, status);
+        return notificationRepository.findUnexpiredByUserIdAndStatus(userId, status, LocalDateTime.now());
     }
 
     public List<Notification> findByType(String userId, Notification.NotificationType type) {
-        return notificationRepository.findByUserIdAndTypeAndIsDeletedFalse(userId, type);
+        return notificationRepository.findUnexpiredByUserIdAndType(userId, type, LocalDateTime.now());
     }
 
     public List<Notification> findByPriority(String userId, Notification.NotificationPriority priority) {
-        return notificationRepository.findByUserIdAndPriorityAndIsDeletedFalse(userId, priority);
+        return notificationRepository.findUnexpiredByUserIdAndPriority(userId, priority, LocalDateTime.now());
     }
 
     public List<Notification> findUnreadNotifications(String userId) {
-        return notificationRepository.findUnreadNotificationsByUserId(userId);
+        return notificationRepository.findUnreadNotificationsByUserId(userId, LocalDateTime.now());
     }
 
     public List<Notification> findReadNotifications(String userId) {
-        return notificationRepository.findReadNotificationsByUserId(userId);
+        return notificationRepository.findReadNotificationsByUserId(userId, LocalDateTime.now());
     }
 
     public List<Notification> findExpiredNotifications(String userId) {
@@ -59,19 +85,19 @@ public class NotificationService {
     }
 
     public List<Notification> findByCreatedDateRange(String userId, LocalDateTime start, LocalDateTime end) {
-        return notificationRepository.findByUserIdAndCreatedAtBetween(userId, start, end);
+        return notificationRepository.findByUserIdAndCreatedAtBetween(userId, start, end, LocalDateTime.now());
     }
 
     public List<Notification> findBySentDateRange(String userId, LocalDateTime start, LocalDateTime end) {
-        return notificationRepository.findByUserIdAndSentAtBetween(userId, start, end);
+        return notificationRepository.findByUserIdAndSentAtBetween(userId, start, end, LocalDateTime.now());
     }
 
     public List<Notification> findByReadDateRange(String userId, LocalDateTime start, LocalDateTime end) {
-        return notificationRepository.findByUserIdAndReadAtBetween(userId, start, end);
+        return notificationRepository.findByUserIdAndReadAtBetween(userId, start, end, LocalDateTime.now());
     }
 
     public List<Notification> findByTodoId(String todoId) {
-        return notificationRepository.findByTodoId(todoId);
+        return notificationRepository.findByTodoId(todoId, LocalDateTime.now());
     }
 
     public Notification createNotification(String userId, String title, String message, 
@@ -91,6 +117,9 @@ public class NotificationService {
         notification.setStatus(Notification.NotificationStatus.PENDING);
         
         Notification savedNotification = notificationRepository.save(notification);
+        unreadCountService.adjust(userId, 1, expiresAt);
+        changeVersionService.changed(userId, ChangeVersionService.Scope.NOTIFICATIONS, expiresAt);
+        notificationStreamHub.publish(savedNotification);
         
         // Send to message queue for processing
         sendToQueue(savedNotification);
@@ -98,13 +127,14 @@ public class NotificationService {
         return savedNotification;
     }
 
-    public Notification updateNotification(String id, String userId, Notification updatedNotification) {
-        Optional<Notification> existingNotificationOpt = notificationRepository.findByIdAndUserIdAndIsDeletedFalse(id, userId);
+    public Notification updateNotification(String id, String userId, Notification updatedNotification, Long expectedVersion) {
+        Optional<Notification> existingNotificationOpt = notificationRepository.findUnexpiredByIdAndUserId(id, userId, LocalDateTime.now());
         if (existingNotificationOpt.isEmpty()) {
             throw new RuntimeException("Notification not found");
         }
         
         Notification existingNotification = existingNotificationOpt.get();
+        optimisticWrites.checkVersion("notification", existingNotification.getVersion(), expectedVersion);
         
         existingNotification.setTitle(updatedNotification.getTitle());
         existingNotification.setMessage(updatedNotification.getMessage());
@@ -114,121 +144,211 @@ public class NotificationService {
         existingNotification.setActionUrl(updatedNotification.getActionUrl());
         existingNotification.setMetadata(updatedNotification.getMetadata());
         
-        return notificationRepository.save(existingNotification);
+        Notification savedNotification = optimisticWrites.save("notification", expectedVersion, existingNotification, notificationRepository::save);
+        if (!savedNotification.isRead()) {
+            unreadCountService.adjust(userId, 0, savedNotification.getExpiresAt());
+        }
+        changeVersionService.changed(userId, ChangeVersionService.Scope.NOTIFICATIONS, savedNotification.getExpiresAt());
+        return savedNotification;
     }
 
-    public Notification markAsRead(String id, String userId) {
-        Optional<Notification> notificationOpt = notificationRepository.findByIdAndUserIdAndIsDeletedFalse(id, userId);
+    public Notification markAsRead(String id, String userId, Long expectedVersion) {
+        Optional<Notification> notificationOpt = notificationRepository.findUnexpiredByIdAndUserId(id, userId, LocalDateTime.now());
         if (notificationOpt.isEmpty()) {
             throw new RuntimeException("Notification not found");
         }
         
         Notification notification = notificationOpt.get();
+        optimisticWrites.checkVersion("notification", notification.getVersion(), expectedVersion);
+        boolean wasUnread = !notification.isRead();
         notification.markAsRead();
         
-        return notificationRepository.save(notification);
+        Notification savedNotification = optimisticWrites.save("notification", expectedVersion, notification, notificationRepository::save);
+        if (wasUnread) {
+            unreadCountService.adjust(userId, -1);
+            notificationEngagementService.recordRead(savedNotification);
+        }
+        changeVersionService.changed(userId, ChangeVersionService.Scope.NOTIFICATIONS);
+        return savedNotification;
     }
 
     public void markAllAsRead(String userId) {
         List<Notification> unreadNotifications = findUnreadNotifications(userId);
+        if (unreadNotifications.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
         
+        // One conditional update instead of a versioned save per notification; any read meanwhile is skipped
+        long marked = mongoTemplate.updateMulti(
+            Query.query(Criteria.where("_id").in(unreadNotifications.stream().map(Notification::getId).toList())
+                .and("readAt").is(null)),
+            new Update().set("readAt", now).inc("version", 1),
+            Notification.class).getModifiedCount();
+        
+        unreadCountService.adjust(userId, -marked);
+        changeVersionService.changed(userId, ChangeVersionService.Scope.NOTIFICATIONS);
         for (Notification notification : unreadNotifications) {
-            notification.markAsRead();
+            notification.setReadAt(now);
+            notificationEngagementService.recordRead(notification);
         }
-        
-        notificationRepository.saveAll(unreadNotifications);
     }
 
-    public void deleteNotification(String id, String userId) {
-        Optional<Notification> notificationOpt = notificationRepository.findByIdAndUserIdAndIsDeletedFalse(id, userId);
+    public void deleteNotification(String id, String userId, Long expectedVersion) {
+        Optional<Notification> notificationOpt = notificationRepository.findUnexpiredByIdAndUserId(id, userId, LocalDateTime.now());
         if (notificationOpt.isEmpty()) {
             throw new RuntimeException("Notification not found");
         }
         
         Notification notification = notificationOpt.get();
+        optimisticWrites.checkVersion("notification", notification.getVersion(), expectedVersion);
         notification.setDeleted(true);
         notification.setDeletedAt(LocalDateTime.now());
         
-        notificationRepository.save(notification);
+        optimisticWrites.save("notification", expectedVersion, notification, notificationRepository::save);
+        if (!notification.isRead()) {
+            unreadCountService.adjust(userId, -1);
+        }
+        changeVersionService.changed(userId, ChangeVersionService.Scope.NOTIFICATIONS);
     }
 
     public void deleteAllNotifications(String userId) {
         List<Notification> notifications = findAllByUserId(userId);
+        List<String> unreadIds = notifications.stream().filter(notification -> !notification.isRead()).map(Notification::getId).toList();
+        List<String> readIds = notifications.stream().filter(Notification::isRead).map(Notification::getId).toList();
         
-        for (Notification notification : notifications) {
-            notification.setDeleted(true);
-            notification.setDeletedAt(LocalDateTime.now());
+        // Unread ones separately, so the counter drops by exactly the unread notifications deleted
+        long unread = deleteAll(unreadIds, Criteria.where("readAt").is(null));
+        deleteAll(readIds, new Criteria());
+        unreadCountService.adjust(userId, -unread);
+        if (!notifications.isEmpty()) {
+            changeVersionService.changed(userId, ChangeVersionService.Scope.NOTIFICATIONS);
         }
-        
-        notificationRepository.saveAll(notifications);
+    }
+
+    private long deleteAll(List<String> ids, Criteria criteria) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return mongoTemplate.updateMulti(
+            Query.query(new Criteria().andOperator(Criteria.where("_id").in(ids).and("isDeleted").is(false), criteria)),
+            new Update().set("isDeleted", true).set("deletedAt", LocalDateTime.now()).inc("version", 1),
+            Notification.class).getModifiedCount();
     }
 
     public long countByUserId(String userId) {
-        return notificationRepository.countByUserIdAndIsDeletedFalse(userId);
+        return notificationRepository.countUnexpiredByUserId(userId, LocalDateTime.now());
     }
 
     public long countByStatus(String userId, Notification.NotificationStatus status) {
-        return notificationRepository.countByUserIdAndStatusAndIsDeletedFalse(userId, status);
+        return notificationRepository.countUnexpiredByUserIdAndStatus(userId, status, LocalDateTime.now());
     }
 
     public long countByType(String userId, Notification.NotificationType type) {
-        return notificationRepository.countByUserIdAndTypeAndIsDeletedFalse(userId, type);
+        return notificationRepository.countUnexpiredByUserIdAndType(userId, type, LocalDateTime.now());
     }
 
     public long countUnreadByUserId(String userId) {
-        return notificationRepository.countByUserIdAndReadAtNullAndIsDeletedFalse(userId);
+        return unreadCountService.getUnreadCount(userId);
     }
 
     public List<Notification> findAllActiveNotifications(String userId) {
-        return notificationRepository.findAllActiveNotificationsByUserId(userId);
+        return notificationRepository.findAllActiveNotificationsByUserId(userId, LocalDateTime.now());
     }
 
     public void sendToQueue(Notification notification) {
         try {
-            rabbitTemplate.convertAndSend(exchangeName, routingKey, notification);
+            // Spooled locally if the broker is unreachable, so this only fails if the spool does too
+            notificationPublisher.publish(notification);
         } catch (Exception e) {
-            // Log error and mark notification as failed
+            // Mark notification as failed; the caller's own write (e.g. the todo) still succeeds
+            logger.error("Failed to send notification {} to queue", notification.getId(), e);
             notification.setStatus(Notification.NotificationStatus.FAILED);
-            notificationRepository.save(notification);
-            throw new RuntimeException("Failed to send notification to queue", e);
+            markAsFailed(notification.getId());
         }
     }
 
-    public void processNotificationFromQueue(Notification notification) {
+    /**
+     * Publishes many notifications over a single channel. Notifications that could not be
+     * published are spooled, or marked FAILED if that fails too, instead of failing the whole batch.
+     *
+     * @return number of notifications marked FAILED
+     */
+    public long publishBatch(Collection<Notification> notifications) {
+        long failed = notificationPublisher.publishAll(notifications);
+        notifications.forEach(notificationStreamHub::publish);
+        return failed;
+    }
+
+    /**
+     * Processes a queued notification at most once in effect. Messages are keyed by notification
+     * id (the publisher uses it as message id). Duplicates are dropped via the processed-message
+     * store or because the notification is no longer PENDING, and the PENDING to SENT transition
+     * is a guarded update that touches only status and sentAt, so a redelivery can neither send
+     * twice in effect nor overwrite changes made meanwhile, such as readAt.
+     */
+    public void processNotificationFromQueue(NotificationMessage message) {
+        String messageId = message.getId();
+        if (processedMessageStore.isProcessed(messageId)) {
+            return;
+        }
+        
+        // The message only identifies the notification; act on its current state
+        Query pendingQuery = Query.query(Criteria.where("_id").is(messageId)
+                .and("status").is(Notification.NotificationStatus.PENDING));
+        if (!mongoTemplate.exists(pendingQuery, Notification.class)) {
+            // Removed, or already handled by an earlier delivery
+            processedMessageStore.recordDuplicate(messageId);
+            return;
+        }
+        
         try {
             // Simulate notification processing (email, SMS, push notification, etc.)
             Thread.sleep(1000); // Simulate processing time
-            
-            notification.markAsSent();
-            notificationRepository.save(notification);
-            
         } catch (Exception e) {
-            notification.markAsFailed();
-            notificationRepository.save(notification);
+            // Left PENDING; the listener retries it and marks it failed once retries are exhausted
             throw new RuntimeException("Failed to process notification", e);
         }
+        
+        Notification sent = mongoTemplate.findAndModify(pendingQuery,
+                new Update()
+                    .set("status", Notification.NotificationStatus.SENT)
+                    .set("sentAt", LocalDateTime.now())
+                    .inc("version", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                Notification.class);
+        if (sent != null) {
+            changeVersionService.changed(sent.getUserId(), ChangeVersionService.Scope.NOTIFICATIONS);
+            notificationStreamHub.publish(sent);
+            notificationEngagementService.recordSent(sent);
+        }
+        processedMessageStore.markProcessed(messageId);
     }
 
-    public void cleanupExpiredNotifications() {
-        List<Notification> expiredNotifications = notificationRepository.findExpiredSentNotifications(LocalDateTime.now());
-        
-        for (Notification notification : expiredNotifications) {
-            notification.setDeleted(true);
-            notification.setDeletedAt(LocalDateTime.now());
+    public void markAsFailed(String id) {
+        // Only a notification that was never sent can fail
+        Notification failed = mongoTemplate.findAndModify(
+            Query.query(Criteria.where("_id").is(id).and("status").is(Notification.NotificationStatus.PENDING)),
+            new Update().set("status", Notification.NotificationStatus.FAILED).inc("version", 1),
+            FindAndModifyOptions.options().returnNew(true),
+            Notification.class);
+        if (failed != null) {
+            changeVersionService.changed(failed.getUserId(), ChangeVersionService.Scope.NOTIFICATIONS);
         }
-        
-        notificationRepository.saveAll(expiredNotifications);
     }
 
     public void cleanupOldPendingNotifications(int hoursOld) {
         LocalDateTime threshold = LocalDateTime.now().minusHours(hoursOld);
-        List<Notification> oldPendingNotifications = notificationRepository.findPendingNotificationsOlderThan(threshold);
-        
-        for (Notification notification : oldPendingNotifications) {
-            notification.markAsFailed();
+        Query stale = Query.query(Criteria.where("status").is(Notification.NotificationStatus.PENDING).and("createdAt").lt(threshold));
+        List<String> owners = mongoTemplate.findDistinct(stale, "userId", Notification.class, String.class);
+        if (owners.isEmpty()) {
+            return;
         }
-        
-        notificationRepository.saveAll(oldPendingNotifications);
+        mongoTemplate.updateMulti(
+            stale,
+            new Update().set("status", Notification.NotificationStatus.FAILED).inc("version", 1),
+            Notification.class);
+        changeVersionService.changedEach(owners, ChangeVersionService.Scope.NOTIFICATIONS, null);
     }
 
     public void sendWelcomeNotification(String userId) {
@@ -242,18 +362,4 @@ public class NotificationService {
             LocalDateTime.now().plusDays(7) // Expires in 7 days
         );
     }
-
-    public void sendSystemAnnouncement(String title, String message, List<String> userIds) {
-        for (String userId : userIds) {
-            createNotification(
-                userId,
-                title,
-                message,
-                Notification.NotificationType.SYSTEM_ANNOUNCEMENT,
-                null,
-                Notification.NotificationPriority.MEDIUM,
-                LocalDateTime.now().plusDays(30) // Expires in 30 days
-            );
-        }
-    }
 }
\ No newline at end of file
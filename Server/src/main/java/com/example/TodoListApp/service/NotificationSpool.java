@@ -0,0 +1,234 @@
+package com.example.TodoListApp.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped spool of outgoing messages, used while the broker is unreachable.
+ *
+ * Messages are written to fixed-size segment files as {@code [length][crc32][payload]} records;
+ * a zero length marks the end of written data. A separate offset file records how far the spool
+ * has been drained, and fully drained segments are deleted. Appends only copy into the mapped
+ * segment, which survives a process crash; {@link #sync()} forces the pages to disk and is called
+ * periodically, so several appends share one fsync.
+ *
+ * On startup the write position is recovered by scanning the last segment up to the first empty
+ * or corrupt record, which drops a record torn by a crash mid-write.
+ */
+public class NotificationSpool implements AutoCloseable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final MappedByteBuffer offsetFile;
+    private final Map<Long, MappedByteBuffer> segments = new TreeMap<>();
+
+    private long writeSegment;
+    private int writePosition;
+    private long readSegment;
+    private int readPosition;
+    private long pending;
+    private boolean dirty;
+
+    public NotificationSpool(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+
+        try (FileChannel channel = FileChannel.open(directory.resolve("spool.offset"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.offsetFile = channel.map(FileChannel.MapMode.READ_WRITE, 0, 16);
+        }
+        recover();
+    }
+
+    public synchronized void append(byte[] payload) {
+        if (payload.length + HEADER_BYTES > segmentSize) {
+            throw new IllegalArgumentException("Message of " + payload.length + " bytes exceeds the spool segment size");
+        }
+        if (writePosition + HEADER_BYTES + payload.length > segmentSize) {
+            segment(writeSegment).force();
+            writeSegment++;
+            writePosition = 0;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        MappedByteBuffer buffer = segment(writeSegment);
+        int next = writePosition + HEADER_BYTES + payload.length;
+        // Payload, checksum and end marker first, length last: a record only becomes visible once complete
+        buffer.putInt(writePosition + 4, (int) crc.getValue());
+        buffer.put(writePosition + HEADER_BYTES, payload);
+        if (next + 4 <= segmentSize) {
+            buffer.putInt(next, 0);
+        }
+        buffer.putInt(writePosition, payload.length);
+
+        writePosition = next;
+        pending++;
+        dirty = true;
+    }
+
+    /**
+     * Reads up to max records from the drain position without consuming them.
+     */
+    public synchronized Batch read(int max) {
+        List<byte[]> records = new ArrayList<>();
+        long segment = readSegment;
+        int position = readPosition;
+        while (records.size() < max && (segment < writeSegment || position < writePosition)) {
+            MappedByteBuffer buffer = segment(segment);
+            int length = position + HEADER_BYTES <= segmentSize ? buffer.getInt(position) : 0;
+            if (length <= 0) {
+                // Rest of this segment is unused
+                segment++;
+                position = 0;
+                continue;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + HEADER_BYTES, payload);
+            records.add(payload);
+            position += HEADER_BYTES + length;
+        }
+        return new Batch(records, segment, position);
+    }
+
+    /**
+     * Marks a batch returned by {@link #read(int)} as delivered and releases drained segments.
+     */
+    public synchronized void commit(Batch batch) {
+        for (long segment = readSegment; segment < batch.segment(); segment++) {
+            segments.remove(segment);
+            try {
+                Files.deleteIfExists(segmentPath(segment));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        readSegment = batch.segment();
+        readPosition = batch.position();
+        pending -= batch.records().size();
+
+        offsetFile.putLong(0, readSegment);
+        offsetFile.putInt(8, readPosition);
+        offsetFile.force();
+    }
+
+    public synchronized void sync() {
+        if (dirty) {
+            segment(writeSegment).force();
+            dirty = false;
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return pending == 0;
+    }
+
+    public synchronized long getPendingCount() {
+        return pending;
+    }
+
+    @Override
+    public synchronized void close() {
+        sync();
+        segments.clear();
+    }
+
+    private void recover() throws IOException {
+        List<Long> existing;
+        try (Stream<Path> files = Files.list(directory)) {
+            existing = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+
+        readSegment = offsetFile.getLong(0);
+        readPosition = offsetFile.getInt(8);
+        if (existing.isEmpty()) {
+            readSegment = 0;
+            readPosition = 0;
+        } else if (readSegment < existing.get(0)) {
+            readSegment = existing.get(0);
+            readPosition = 0;
+        }
+        for (Long segment : existing) {
+            if (segment < readSegment) {
+                Files.deleteIfExists(segmentPath(segment));
+            }
+        }
+
+        writeSegment = existing.isEmpty() ? readSegment : Math.max(readSegment, existing.get(existing.size() - 1));
+        pending = 0;
+        for (long segment = readSegment; segment <= writeSegment; segment++) {
+            int end = scan(segment, segment == readSegment ? readPosition : 0);
+            if (segment == writeSegment) {
+                writePosition = end;
+            }
+        }
+    }
+
+    /**
+     * Counts valid records from start and returns the position after the last one. A torn or
+     * corrupt record is cut off by writing an end marker in its place.
+     */
+    private int scan(long segment, int start) {
+        MappedByteBuffer buffer = segment(segment);
+        int position = start;
+        while (position + HEADER_BYTES <= segmentSize) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > segmentSize) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + HEADER_BYTES, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+            pending++;
+            position += HEADER_BYTES + length;
+        }
+        if (position + 4 <= segmentSize) {
+            buffer.putInt(position, 0);
+        }
+        return position;
+    }
+
+    private MappedByteBuffer segment(long segment) {
+        return segments.computeIfAbsent(segment, key -> {
+            try (FileChannel channel = FileChannel.open(segmentPath(key),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Records read from the spool and the position just after them.
+     */
+    public record Batch(List<byte[]> records, long segment, int position) {}
+}
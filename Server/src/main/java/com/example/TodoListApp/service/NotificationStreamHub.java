@@ -0,0 +1,310 @@
+package com.example.TodoListApp.service;
+
+import com.example.TodoListApp.entity.Notification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-node fan-out of notification changes to Server-Sent Event subscribers.
+ *
+ * Each user with an open stream has a channel holding a small replay buffer and the open
+ * emitters. Once the last stream closes the channel is kept, and keeps buffering, only for the
+ * reconnect grace period, so users without a stream cost nothing. Publishing only
+ * appends to bounded in-memory queues; a dispatcher pool performs the socket writes, so a slow
+ * client can never stall the request or listener thread that produced the event. A subscriber
+ * whose queue overflows is closed and is expected to reconnect with Last-Event-ID.
+ *
+ * Event ids have the form {@code <epoch>-<sequence>}. The epoch changes on every restart, so a
+ * client resuming against a different process, or after its channel was dropped, receives a
+ * {@code resync} event and reloads once.
+ */
+@Component
+public class NotificationStreamHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStreamHub.class);
+
+    public static final String EVENT_NOTIFICATION = "notification";
+    public static final String EVENT_RESYNC = "resync";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final long timeoutMillis;
+    private final int replaySize;
+    private final int subscriberBuffer;
+    private final long reconnectGraceMillis;
+    private final ExecutorService dispatcher;
+    private final Counter droppedSubscribers;
+
+    public NotificationStreamHub(MeterRegistry meterRegistry,
+                                 @Value("${notification.stream.timeout:1800000}") long timeoutMillis,
+                                 @Value("${notification.stream.replay-size:64}") int replaySize,
+                                 @Value("${notification.stream.subscriber-buffer:128}") int subscriberBuffer,
+                                 @Value("${notification.stream.reconnect-grace:30000}") long reconnectGraceMillis,
+                                 @Value("${notification.stream.dispatch-threads:4}") int dispatchThreads) {
+        this.timeoutMillis = timeoutMillis;
+        this.replaySize = replaySize;
+        this.subscriberBuffer = subscriberBuffer;
+        this.reconnectGraceMillis = reconnectGraceMillis;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "notification-stream-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        meterRegistry.gauge("notification.stream.subscribers", subscriberCount);
+        this.droppedSubscribers = Counter.builder("notification.stream.dropped")
+                .description("Subscribers closed because their buffer overflowed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream for the user, replaying buffered events newer than lastEventId when possible.
+     */
+    public SseEmitter subscribe(String userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        // Attach inside compute so the heartbeat sweep can never remove the channel in between
+        channels.compute(userId, (key, channel) -> {
+            Channel target = channel != null ? channel : new Channel();
+            target.attach(subscriber, lastEventId);
+            return target;
+        });
+        subscriberCount.incrementAndGet();
+
+        emitter.onCompletion(() -> detach(userId, subscriber));
+        emitter.onTimeout(() -> detach(userId, subscriber));
+        emitter.onError(error -> detach(userId, subscriber));
+
+        subscriber.schedule();
+        return emitter;
+    }
+
+    /**
+     * Buffers and sends the notification to the user's open streams. Users without a stream, or
+     * whose last one closed longer than the reconnect grace period ago, are skipped; they load
+     * their notifications when they connect.
+     */
+    public void publish(Notification notification) {
+        if (notification == null || notification.getUserId() == null) {
+            return;
+        }
+        long idleBefore = System.currentTimeMillis() - reconnectGraceMillis;
+        channels.computeIfPresent(notification.getUserId(), (key, channel) -> {
+            if (channel.isIdleSince(idleBefore)) {
+                return null;
+            }
+            channel.publish(new Event(sequence.incrementAndGet(), EVENT_NOTIFICATION, notification));
+            return channel;
+        });
+    }
+
+    /**
+     * Sends an SSE comment on every open stream so proxies keep idle connections alive, and drops
+     * replay buffers of users who have been disconnected for longer than the reconnect grace period.
+     */
+    @Scheduled(fixedRateString = "${notification.stream.heartbeat-interval:15000}")
+    public void heartbeat() {
+        long idleBefore = System.currentTimeMillis() - reconnectGraceMillis;
+        for (String userId : channels.keySet()) {
+            Channel remaining = channels.computeIfPresent(userId,
+                    (key, channel) -> channel.isIdleSince(idleBefore) ? null : channel);
+            if (remaining != null) {
+                remaining.heartbeat();
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(Channel::closeAll);
+        dispatcher.shutdownNow();
+    }
+
+    private void detach(String userId, Subscriber subscriber) {
+        Channel channel = channels.get(userId);
+        if (channel != null && channel.detach(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private String eventId(long seq) {
+        return epoch + "-" + seq;
+    }
+
+    /**
+     * Returns the sequence number encoded in lastEventId, or -1 if it was issued by another process.
+     */
+    private long parseSequence(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator <= 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record Event(long seq, String name, Object data) {
+        static final Event HEARTBEAT = new Event(0, null, null);
+    }
+
+    private class Channel {
+        private final Deque<Event> replay = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        // Events published before the channel existed were not buffered for this user
+        private long evictedUpTo = sequence.get();
+        private volatile long lastDetach = System.currentTimeMillis();
+
+        synchronized void attach(Subscriber subscriber, String lastEventId) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                long lastSeq = parseSequence(lastEventId.trim());
+                if (lastSeq < 0 || lastSeq < evictedUpTo) {
+                    subscriber.offer(new Event(sequence.get(), EVENT_RESYNC, Map.of("reason", "history unavailable")));
+                } else {
+                    for (Event event : replay) {
+                        if (event.seq() > lastSeq) {
+                            subscriber.offer(event);
+                        }
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+
+        synchronized void publish(Event event) {
+            replay.addLast(event);
+            if (replay.size() > replaySize) {
+                evictedUpTo = replay.removeFirst().seq();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.offer(event)) {
+                    subscriber.schedule();
+                } else {
+                    droppedSubscribers.increment();
+                    logger.debug("Closing notification stream after buffer overflow");
+                    subscriber.close();
+                }
+            }
+        }
+
+        void heartbeat() {
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.offer(Event.HEARTBEAT)) {
+                    subscriber.schedule();
+                }
+            }
+        }
+
+        boolean detach(Subscriber subscriber) {
+            lastDetach = System.currentTimeMillis();
+            return subscribers.remove(subscriber);
+        }
+
+        /**
+         * Whether the channel has had no subscriber since before timestamp.
+         */
+        boolean isIdleSince(long timestamp) {
+            return subscribers.isEmpty() && lastDetach < timestamp;
+        }
+
+        void closeAll() {
+            subscribers.forEach(Subscriber::close);
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(subscriberBuffer);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        boolean offer(Event event) {
+            return !closed && queue.offer(event);
+        }
+
+        void schedule() {
+            if (!closed && draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Event event;
+                while (!closed && (event = queue.poll()) != null) {
+                    send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter callbacks detach this subscriber
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void send(Event event) throws IOException {
+            if (event == Event.HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            emitter.send(SseEmitter.event()
+                    .id(eventId(event.seq()))
+                    .name(event.name())
+                    .data(event.data(), MediaType.APPLICATION_JSON));
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.clear();
+            try {
+                emitter.complete();
+            } catch (Exception e) {
+                logger.debug("Notification stream already closed: {}", e.getMessage());
+            }
+        }
+    }
+}
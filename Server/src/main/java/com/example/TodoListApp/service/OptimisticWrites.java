@@ -0,0 +1,120 @@
+package com.example.TodoListApp.service;
+
+import com.example.TodoListApp.entity.Notification;
+import com.example.TodoListApp.entity.Todo;
+import com.example.TodoListApp.exception.VersionConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Writes of versioned entities (Todo, Notification). A save only applies if the stored version is
+ * still the one the entity was read at; callers may additionally require the version the client
+ * last saw (If-Match). Outcomes are counted in concurrency.writes tagged by entity and outcome
+ * (ok, stale: If-Match no longer current, lost_race: changed between read and save), so the
+ * conflict rate is the share of non-ok outcomes.
+ */
+@Service
+public class OptimisticWrites {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticWrites.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Documents written before versioning have no version and would be taken for new ones on
+     * save; give them version 0. Runs on every start, since nodes of an earlier version may still
+     * be writing such documents during a rolling deploy; it only touches documents without a
+     * version, so concurrent runs are harmless. If Mongo is unreachable it is skipped, and
+     * {@link #save} still initializes each document it writes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeMissingVersions() {
+        for (Class<?> type : new Class<?>[] {Todo.class, Notification.class}) {
+            try {
+                long updated = mongoTemplate.updateMulti(Query.query(Criteria.where("version").exists(false)),
+                        new Update().set("version", 0L), type).getModifiedCount();
+                if (updated > 0) {
+                    logger.info("Initialized version of {} {} documents", updated, type.getSimpleName());
+                }
+            } catch (DataAccessResourceFailureException e) {
+                logger.warn("Could not initialize missing versions, Mongo is unreachable: {}", e.getMessage());
+                return;
+            } catch (Exception e) {
+                logger.warn("Could not initialize missing versions of {} documents: {}", type.getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Fails with VersionConflictException if the client expects a version other than the
+     * current one. A null expected version means the write is unconditional.
+     */
+    public void checkVersion(String entity, Long currentVersion, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            record(entity, "stale");
+            throw new VersionConflictException(entity, currentVersion);
+        }
+    }
+
+    /**
+     * Runs a versioned save of document. If another write got in between, a conditional write
+     * fails with VersionConflictException, an unconditional one with
+     * OptimisticLockingFailureException. A document without a version, as written by a node of
+     * an earlier version, first gets version 0 so it is updated instead of inserted again.
+     */
+    public <T> T save(String entity, Long expectedVersion, T document, UnaryOperator<T> save) {
+        initializeVersion(document);
+        try {
+            T saved = save.apply(document);
+            record(entity, "ok");
+            return saved;
+        } catch (OptimisticLockingFailureException e) {
+            record(entity, "lost_race");
+            if (expectedVersion != null) {
+                throw new VersionConflictException(entity, null);
+            }
+            throw e;
+        }
+    }
+
+    private void initializeVersion(Object document) {
+        if (document instanceof Todo todo && todo.getVersion() == null) {
+            initializeVersion(Todo.class, todo.getId());
+            todo.setVersion(0L);
+        } else if (document instanceof Notification notification && notification.getVersion() == null) {
+            initializeVersion(Notification.class, notification.getId());
+            notification.setVersion(0L);
+        }
+    }
+
+    private void initializeVersion(Class<?> type, String id) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id).and("version").exists(false)),
+                new Update().set("version", 0L), type);
+    }
+
+    private void record(String entity, String outcome) {
+        Counter.builder("concurrency.writes")
+                .tag("entity", entity)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.TodoListApp.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -8,6 +9,7 @@ import java.security.SecureRandom;
 import java.util.Base64;
 
 @Service
+@Timed(value = "password.service", histogram = true)
 public class PasswordService {
     
     private final PasswordEncoder passwordEncoder;
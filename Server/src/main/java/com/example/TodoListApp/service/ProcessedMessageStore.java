@@ -0,0 +1,165 @@
+package com.example.TodoListApp.service;
+
+import com.example.TodoListApp.entity.ProcessedMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Remembers which queue messages were processed, so a redelivery can be dropped early.
+ *
+ * The processed_messages collection is the record of truth (entries expire through a TTL index).
+ * An in-memory bloom filter sits in front of it: a message the filter has never seen is known
+ * to be new without a database round-trip, and only possible duplicates are looked up. The
+ * filter is split into two generations that rotate once the current one holds capacity ids, so
+ * memory stays bounded. After a restart or rotation the filter can miss an old id; callers must
+ * therefore still guard their state transitions, the store only makes duplicates cheap.
+ */
+@Service
+public class ProcessedMessageStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessedMessageStore.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final int capacity;
+    private final int bits;
+    private final int hashes;
+    private final Counter duplicates;
+    private final Counter lookups;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+
+    public ProcessedMessageStore(MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+                                 @Value("${notification.idempotency.bloom-capacity:1000000}") int capacity,
+                                 @Value("${notification.idempotency.bloom-fpp:0.01}") double falsePositiveRate) {
+        this.mongoTemplate = mongoTemplate;
+        this.capacity = capacity;
+        // Standard sizing: m = -n ln p / (ln 2)^2 bits, k = m/n ln 2 hash functions
+        this.bits = (int) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+        this.current = new BloomFilter(bits, hashes);
+        this.previous = new BloomFilter(bits, hashes);
+
+        this.duplicates = Counter.builder("notification.idempotency.duplicates")
+                .description("Redelivered messages dropped because they were already processed")
+                .register(meterRegistry);
+        this.lookups = Counter.builder("notification.idempotency.lookups")
+                .description("Possible duplicates that needed a database lookup")
+                .register(meterRegistry);
+    }
+
+    public boolean isProcessed(String messageId) {
+        if (!current.mightContain(messageId) && !previous.mightContain(messageId)) {
+            return false;
+        }
+        lookups.increment();
+        boolean processed = mongoTemplate.exists(
+                Query.query(Criteria.where("_id").is(messageId)), ProcessedMessage.class);
+        if (processed) {
+            duplicates.increment();
+        }
+        return processed;
+    }
+
+    public void markProcessed(String messageId) {
+        remember(messageId);
+        try {
+            mongoTemplate.insert(new ProcessedMessage(messageId));
+        } catch (DuplicateKeyException e) {
+            // Another consumer finished the same message first
+        } catch (Exception e) {
+            // The guarded state transition still protects against the duplicate
+            logger.warn("Failed to record processed message {}: {}", messageId, e.getMessage());
+        }
+    }
+
+    /**
+     * Counts a duplicate that was caught by the caller's own state check rather than the store.
+     */
+    public void recordDuplicate(String messageId) {
+        duplicates.increment();
+        remember(messageId);
+    }
+
+    private void remember(String messageId) {
+        BloomFilter filter = current;
+        if (filter.put(messageId) >= capacity) {
+            synchronized (this) {
+                if (current == filter) {
+                    previous = filter;
+                    current = new BloomFilter(bits, hashes);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lock-free bloom filter over an AtomicLongArray, using double hashing of two 32-bit halves of
+     * a 64-bit FNV-1a hash.
+     */
+    static final class BloomFilter {
+        private final AtomicLongArray words;
+        private final int bits;
+        private final int hashes;
+        private final AtomicLong size = new AtomicLong();
+
+        BloomFilter(int bits, int hashes) {
+            this.words = new AtomicLongArray((bits + 63) >>> 6);
+            this.bits = bits;
+            this.hashes = hashes;
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bits;
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return number of keys added to this filter so far
+         */
+        long put(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bits;
+                int index = bit >>> 6;
+                long mask = 1L << bit;
+                long word;
+                while (((word = words.get(index)) & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                    // Retry until this bit is set
+                }
+            }
+            return size.incrementAndGet();
+        }
+
+        private static long hash(String key) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.TodoListApp.service;
+
+import com.example.TodoListApp.entity.Todo;
+import com.example.TodoListApp.entity.TodoDailyStats;
+import com.example.TodoListApp.repository.TodoDailyStatsRepository;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Daily per-user todo rollups (created, completed, completion lead time, overdue), updated
+ * incrementally by TodoService as todos change and read back in O(days) for a date range.
+ *
+ * Updates are best effort: a failed $inc is logged and the change itself still succeeds.
+ * {@link #rebuild(String)} recomputes a user's rollups from their todos, which backfills
+ * history from before the rollups existed and repairs any drift.
+ */
+@Service
+@Timed(value = "todo.analytics", histogram = true)
+public class TodoAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoAnalyticsService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TodoDailyStatsRepository statsRepository;
+
+    @Value("${todo.analytics.default-range-days:30}")
+    private int defaultRangeDays;
+
+    @Value("${todo.analytics.max-range-days:366}")
+    private int maxRangeDays;
+
+    public void recordCreated(Todo todo) {
+        increment(todo.getUserId(), todo.getCreatedAt(), new Update().inc("created", 1));
+    }
+
+    public void recordCompleted(Todo todo) {
+        LocalDateTime completedAt = todo.getCompletedAt();
+        if (completedAt == null) {
+            return;
+        }
+        increment(todo.getUserId(), completedAt, new Update()
+                .inc("completed", 1)
+                .inc("completionLeadTimeMillis", leadTimeMillis(todo, completedAt)));
+        if (todo.getDueDate() != null && completedAt.isAfter(todo.getDueDate())) {
+            recordOverdue(todo);
+        }
+    }
+
+    /**
+     * Takes back the completion counted on previousCompletedAt when a todo is reopened.
+     */
+    public void recordReopened(Todo todo, LocalDateTime previousCompletedAt) {
+        if (previousCompletedAt == null) {
+            return;
+        }
+        increment(todo.getUserId(), previousCompletedAt, new Update()
+                .inc("completed", -1)
+                .inc("completionLeadTimeMillis", -leadTimeMillis(todo, previousCompletedAt)));
+    }
+
+    /**
+     * Counts a todo whose due date passed while it was open, on the day it was due. The
+     * overdueCounted flag on the todo makes this happen once per due date, however often the
+     * overdue check sees it.
+     */
+    public void recordOverdue(Todo todo) {
+        if (todo.isOverdueCounted() || todo.getDueDate() == null) {
+            return;
+        }
+        try {
+            UpdateResult result = mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(todo.getId()).and("overdueCounted").ne(true)),
+                    // Bump the version like any other write, so a save of a copy read before this fails
+                    new Update().set("overdueCounted", true).inc("version", 1),
+                    Todo.class);
+            todo.setOverdueCounted(true);
+            if (result.getModifiedCount() > 0) {
+                if (todo.getVersion() != null) {
+                    todo.setVersion(todo.getVersion() + 1);
+                }
+                increment(todo.getUserId(), todo.getDueDate(), new Update().inc("overdue", 1));
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to record overdue todo {} in analytics: {}", todo.getId(), e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getAnalytics(String userId, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        LocalDate end = to != null ? to : today;
+        LocalDate start = from != null ? from : end.minusDays(defaultRangeDays - 1L);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= maxRangeDays) {
+            throw new IllegalArgumentException("Date range must not exceed " + maxRangeDays + " days");
+        }
+
+        Map<LocalDate, TodoDailyStats> stored = new HashMap<>();
+        for (TodoDailyStats stats : statsRepository.findByUserIdAndDayRange(userId, start, end)) {
+            stored.put(stats.getDay(), stats);
+        }
+
+        long created = 0;
+        long completed = 0;
+        long overdue = 0;
+        long leadTimeMillis = 0;
+        int streak = 0;
+        int longestStreak = 0;
+        List<Map<String, Object>> days = new ArrayList<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            TodoDailyStats stats = stored.getOrDefault(day, new TodoDailyStats(userId, day));
+            created += stats.getCreated();
+            completed += stats.getCompleted();
+            overdue += stats.getOverdue();
+            leadTimeMillis += stats.getCompletionLeadTimeMillis();
+
+            if (stats.getCompleted() > 0) {
+                longestStreak = Math.max(longestStreak, ++streak);
+            } else if (!day.equals(today)) {
+                // Today without a completion yet does not break the streak
+                streak = 0;
+            }
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("day", day);
+            entry.put("created", stats.getCreated());
+            entry.put("completed", stats.getCompleted());
+            entry.put("overdue", stats.getOverdue());
+            entry.put("averageLeadTimeHours", averageHours(stats.getCompletionLeadTimeMillis(), stats.getCompleted()));
+            days.add(entry);
+        }
+
+        Map<String, Object> analytics = new LinkedHashMap<>();
+        analytics.put("from", start);
+        analytics.put("to", end);
+        analytics.put("created", created);
+        analytics.put("completed", completed);
+        analytics.put("overdue", overdue);
+        analytics.put("completionRate", created > 0 ? (double) completed / created : 0.0);
+        analytics.put("averageLeadTimeHours", averageHours(leadTimeMillis, completed));
+        analytics.put("currentStreak", streak);
+        analytics.put("longestStreak", longestStreak);
+        analytics.put("days", days);
+        return analytics;
+    }
+
+    /**
+     * Recomputes all rollups of a user from their todos, deleted and archived ones included
+     * since their history still counts. Changes made while it runs may be counted twice or not
+     * at all; run it again if that matters.
+     *
+     * @return number of days with activity
+     */
+    public int rebuild(String userId) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<LocalDate, TodoDailyStats> days = new TreeMap<>();
+        List<String> overdueIds = new ArrayList<>();
+        List<String> notOverdueIds = new ArrayList<>();
+
+        Consumer<Todo> count = todo -> {
+            if (todo.getCreatedAt() != null) {
+                TodoDailyStats stats = days.computeIfAbsent(todo.getCreatedAt().toLocalDate(), day -> new TodoDailyStats(userId, day));
+                stats.setCreated(stats.getCreated() + 1);
+            }
+            if (todo.isCompleted() && todo.getCompletedAt() != null) {
+                TodoDailyStats stats = days.computeIfAbsent(todo.getCompletedAt().toLocalDate(), day -> new TodoDailyStats(userId, day));
+                stats.setCompleted(stats.getCompleted() + 1);
+                stats.setCompletionLeadTimeMillis(stats.getCompletionLeadTimeMillis() + leadTimeMillis(todo, todo.getCompletedAt()));
+            }
+
+            LocalDateTime closedAt = todo.getCompletedAt() != null ? todo.getCompletedAt()
+                    : todo.getDeletedAt() != null ? todo.getDeletedAt() : now;
+            if (todo.getDueDate() != null && todo.getDueDate().isBefore(closedAt)) {
+                TodoDailyStats stats = days.computeIfAbsent(todo.getDueDate().toLocalDate(), day -> new TodoDailyStats(userId, day));
+                stats.setOverdue(stats.getOverdue() + 1);
+                overdueIds.add(todo.getId());
+            } else if (todo.isOverdueCounted()) {
+                notOverdueIds.add(todo.getId());
+            }
+        };
+        Query query = Query.query(Criteria.where("userId").is(userId));
+        try (Stream<Todo> todos = mongoTemplate.stream(query, Todo.class)) {
+            todos.forEach(count);
+        }
+        // Archived todos are history too
+        try (Stream<Todo> todos = mongoTemplate.stream(query, Todo.class, ArchiveService.TODO_ARCHIVE)) {
+            todos.forEach(count);
+        }
+
+        statsRepository.deleteByUserId(userId);
+        statsRepository.saveAll(days.values());
+        if (!overdueIds.isEmpty()) {
+            // Only todos whose flag changes, so the others keep their version
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(overdueIds).and("overdueCounted").ne(true)),
+                    new Update().set("overdueCounted", true).inc("version", 1), Todo.class);
+        }
+        if (!notOverdueIds.isEmpty()) {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(notOverdueIds).and("overdueCounted").is(true)),
+                    new Update().set("overdueCounted", false).inc("version", 1), Todo.class);
+        }
+        logger.info("Rebuilt todo analytics for user {}: {} days", userId, days.size());
+        return days.size();
+    }
+
+    private void increment(String userId, LocalDateTime at, Update update) {
+        LocalDate day = at.toLocalDate();
+        try {
+            mongoTemplate.upsert(
+                    Query.query(Criteria.where("_id").is(TodoDailyStats.idOf(userId, day))),
+                    update.setOnInsert("userId", userId).setOnInsert("day", day),
+                    TodoDailyStats.class);
+        } catch (Exception e) {
+            logger.warn("Failed to update todo analytics for user {} on {}: {}", userId, day, e.getMessage());
+        }
+    }
+
+    private static long leadTimeMillis(Todo todo, LocalDateTime completedAt) {
+        return todo.getCreatedAt() != null
+                ? Math.max(0, Duration.between(todo.getCreatedAt(), completedAt).toMillis())
+                : 0;
+    }
+
+    private static double averageHours(long totalMillis, long count) {
+        return count > 0 ? totalMillis / (double) count / Duration.ofHours(1).toMillis() : 0.0;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.TodoListApp.service;
+
+import com.example.TodoListApp.dto.TodoChangeEvent;
+import com.example.TodoListApp.entity.Todo;
+import com.example.TodoListApp.resilience.DependencyGuard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fans todo changes out to every WebSocket session of the owning user.
+ *
+ * With the default "rabbit" transport each change goes through the todo.events topic exchange,
+ * and every node delivers it to the sessions connected to that node (see TodoEventListener).
+ * The "local" transport delivers straight to this node's in-memory broker, which is enough
+ * for a single instance and for tests without RabbitMQ.
+ */
+@Component
+public class TodoEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoEventPublisher.class);
+
+    public static final String USER_DESTINATION = "/queue/todos";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    @Qualifier("rabbitGuard")
+    private DependencyGuard rabbitGuard;
+
+    @Value("${todo.events.transport:rabbit}")
+    private String transport;
+
+    @Value("${todo.events.exchange.name:todo.events}")
+    private String exchangeName;
+
+    public void publish(TodoChangeEvent.ChangeType type, Todo todo) {
+        TodoChangeEvent event = TodoChangeEvent.of(type, todo);
+        try {
+            if ("local".equals(transport)) {
+                deliver(event);
+            } else {
+                rabbitGuard.run(() -> rabbitTemplate.convertAndSend(exchangeName, "todo." + type.name().toLowerCase(), event));
+            }
+        } catch (Exception e) {
+            // Live sync is best effort; the change itself is already saved
+            logger.warn("Failed to publish {} event for todo {}: {}", type, todo.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Sends the event to the sessions of its user connected to this node.
+     */
+    public void deliver(TodoChangeEvent event) {
+        messagingTemplate.convertAndSendToUser(event.getUserId(), USER_DESTINATION, event);
+    }
+}
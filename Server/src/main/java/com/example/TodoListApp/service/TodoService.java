@@ -1,24 +1,46 @@
 package com.example.TodoListApp.service;
 
+import com.example.TodoListApp.dto.TodoChangeEvent;
 import com.example.TodoListApp.entity.Todo;
 import com.example.TodoListApp.entity.Notification;
 import com.example.TodoListApp.repository.TodoRepository;
+import com.example.TodoListApp.exception.DependencyUnavailableException;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
+@Timed(value = "todo.service", histogram = true)
 public class TodoService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TodoService.class);
+
     @Autowired
     private TodoRepository todoRepository;
 
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private TodoEventPublisher todoEventPublisher;
+
+    @Autowired
+    private TodoAnalyticsService todoAnalyticsService;
+
+    @Autowired
+    private OptimisticWrites optimisticWrites;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
     public List<Todo> findAllByUserId(String userId) {
         return todoRepository.findByUserIdAndIsDeletedFalse(userId);
     }
@@ -77,9 +99,11 @@ public class TodoService {
         todo.setDeleted(false);
         
         Todo savedTodo = todoRepository.save(todo);
+        publishChange(TodoChangeEvent.ChangeType.CREATED, savedTodo);
+        todoAnalyticsService.recordCreated(savedTodo);
         
         // Send notification for todo creation
-        notificationService.createNotification(
+        notifyUser(
             savedTodo.getUserId(),
             "New Todo Created",
             "You have created a new todo: " + savedTodo.getTitle(),
@@ -90,17 +114,27 @@ public class TodoService {
         return savedTodo;
     }
 
-    public Todo updateTodo(String id, String userId, Todo updatedTodo) {
+    /**
+     * Replaces the editable fields of a todo. With an expected version (If-Match) the update only
+     * applies if the todo is still at that version.
+     */
+    public Todo updateTodo(String id, String userId, Todo updatedTodo, Long expectedVersion) {
         Optional<Todo> existingTodoOpt = todoRepository.findByIdAndUserIdAndIsDeletedFalse(id, userId);
         if (existingTodoOpt.isEmpty()) {
             throw new RuntimeException("Todo not found");
         }
         
         Todo existingTodo = existingTodoOpt.get();
+        optimisticWrites.checkVersion("todo", existingTodo.getVersion(), expectedVersion);
         
         // Track if status changed to completed
         boolean wasCompleted = existingTodo.isCompleted();
         boolean isNowCompleted = updatedTodo.getStatus() == Todo.TodoStatus.COMPLETED;
+        LocalDateTime previousCompletedAt = existingTodo.getCompletedAt();
+        if (!Objects.equals(existingTodo.getDueDate(), updatedTodo.getDueDate())) {
+            // A new due date can be missed again
+            existingTodo.setOverdueCounted(false);
+        }
         
         // Update fields
         existingTodo.setTitle(updatedTodo.getTitle());
@@ -115,24 +149,32 @@ public class TodoService {
         // Handle completion
         if (isNowCompleted && !wasCompleted) {
             existingTodo.setCompletedAt(LocalDateTime.now());
+        } else if (!isNowCompleted && wasCompleted) {
+            existingTodo.setCompletedAt(null);
+        }
+        
+        Todo savedTodo = optimisticWrites.save("todo", expectedVersion, existingTodo, todoRepository::save);
+        publishChange(isNowCompleted && !wasCompleted
+                ? TodoChangeEvent.ChangeType.COMPLETED
+                : TodoChangeEvent.ChangeType.UPDATED, savedTodo);
+        if (isNowCompleted && !wasCompleted) {
+            todoAnalyticsService.recordCompleted(savedTodo);
             
             // Send completion notification
-            notificationService.createNotification(
+            notifyUser(
                 userId,
                 "Todo Completed",
-                "Congratulations! You have completed: " + existingTodo.getTitle(),
+                "Congratulations! You have completed: " + savedTodo.getTitle(),
                 Notification.NotificationType.TODO_COMPLETED,
-                existingTodo.getId()
+                savedTodo.getId()
             );
         } else if (!isNowCompleted && wasCompleted) {
-            existingTodo.setCompletedAt(null);
+            todoAnalyticsService.recordReopened(savedTodo, previousCompletedAt);
         }
         
-        Todo savedTodo = todoRepository.save(existingTodo);
-        
         // Send update notification if not completion
         if (!isNowCompleted || wasCompleted) {
-            notificationService.createNotification(
+            notifyUser(
                 userId,
                 "Todo Updated",
                 "Your todo has been updated: " + savedTodo.getTitle(),
@@ -144,66 +186,85 @@ public class TodoService {
         return savedTodo;
     }
 
-    public void deleteTodo(String id, String userId) {
+    public void deleteTodo(String id, String userId, Long expectedVersion) {
         Optional<Todo> todoOpt = todoRepository.findByIdAndUserIdAndIsDeletedFalse(id, userId);
         if (todoOpt.isEmpty()) {
             throw new RuntimeException("Todo not found");
         }
         
         Todo todo = todoOpt.get();
+        optimisticWrites.checkVersion("todo", todo.getVersion(), expectedVersion);
         todo.setDeleted(true);
         todo.setDeletedAt(LocalDateTime.now());
         todo.setUpdatedAt(LocalDateTime.now());
         
-        todoRepository.save(todo);
+        optimisticWrites.save("todo", expectedVersion, todo, todoRepository::save);
+        publishChange(TodoChangeEvent.ChangeType.DELETED, todo);
     }
 
-    public void markAsCompleted(String id, String userId) {
+    public Todo markAsCompleted(String id, String userId, Long expectedVersion) {
         Optional<Todo> todoOpt = todoRepository.findByIdAndUserIdAndIsDeletedFalse(id, userId);
         if (todoOpt.isEmpty()) {
             throw new RuntimeException("Todo not found");
         }
         
         Todo todo = todoOpt.get();
+        optimisticWrites.checkVersion("todo", todo.getVersion(), expectedVersion);
+        boolean wasCompleted = todo.isCompleted();
         todo.markAsCompleted();
         todo.setUpdatedAt(LocalDateTime.now());
         
-        Todo savedTodo = todoRepository.save(todo);
+        Todo savedTodo = optimisticWrites.save("todo", expectedVersion, todo, todoRepository::save);
+        publishChange(TodoChangeEvent.ChangeType.COMPLETED, savedTodo);
+        if (!wasCompleted) {
+            todoAnalyticsService.recordCompleted(savedTodo);
+        }
         
         // Send completion notification
-        notificationService.createNotification(
+        notifyUser(
             userId,
             "Todo Completed",
             "Congratulations! You have completed: " + savedTodo.getTitle(),
             Notification.NotificationType.TODO_COMPLETED,
             savedTodo.getId()
         );
+        return savedTodo;
     }
 
-    public void markAsPending(String id, String userId) {
+    public Todo markAsPending(String id, String userId, Long expectedVersion) {
         Optional<Todo> todoOpt = todoRepository.findByIdAndUserIdAndIsDeletedFalse(id, userId);
         if (todoOpt.isEmpty()) {
             throw new RuntimeException("Todo not found");
         }
         
         Todo todo = todoOpt.get();
+        optimisticWrites.checkVersion("todo", todo.getVersion(), expectedVersion);
+        LocalDateTime previousCompletedAt = todo.isCompleted() ? todo.getCompletedAt() : null;
         todo.markAsPending();
         todo.setUpdatedAt(LocalDateTime.now());
         
-        todoRepository.save(todo);
+        Todo savedTodo = optimisticWrites.save("todo", expectedVersion, todo, todoRepository::save);
+        publishChange(TodoChangeEvent.ChangeType.UPDATED, savedTodo);
+        todoAnalyticsService.recordReopened(savedTodo, previousCompletedAt);
+        return savedTodo;
     }
 
-    public void markAsInProgress(String id, String userId) {
+    public Todo markAsInProgress(String id, String userId, Long expectedVersion) {
         Optional<Todo> todoOpt = todoRepository.findByIdAndUserIdAndIsDeletedFalse(id, userId);
         if (todoOpt.isEmpty()) {
             throw new RuntimeException("Todo not found");
         }
         
         Todo todo = todoOpt.get();
+        optimisticWrites.checkVersion("todo", todo.getVersion(), expectedVersion);
+        LocalDateTime previousCompletedAt = todo.isCompleted() ? todo.getCompletedAt() : null;
         todo.markAsInProgress();
         todo.setUpdatedAt(LocalDateTime.now());
         
-        todoRepository.save(todo);
+        Todo savedTodo = optimisticWrites.save("todo", expectedVersion, todo, todoRepository::save);
+        publishChange(TodoChangeEvent.ChangeType.UPDATED, savedTodo);
+        todoAnalyticsService.recordReopened(savedTodo, previousCompletedAt);
+        return savedTodo;
     }
 
     public long countByUserId(String userId) {
@@ -226,6 +287,7 @@ public class TodoService {
         List<Todo> overdueTodos = findOverdueTodos(userId);
         
         for (Todo todo : overdueTodos) {
+            todoAnalyticsService.recordOverdue(todo);
             notificationService.createNotification(
                 userId,
                 "Todo Overdue",
@@ -249,4 +311,27 @@ public class TodoService {
             );
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Announces a saved change to the user's other sessions and moves on the change version behind
+     * the ETags of their todo reads.
+     */
+    private void publishChange(TodoChangeEvent.ChangeType type, Todo todo) {
+        todoEventPublisher.publish(type, todo);
+        changeVersionService.changed(todo.getUserId(), ChangeVersionService.Scope.TODOS,
+                todo.isDeleted() || todo.isCompleted() ? null : todo.getDueDate());
+    }
+
+    /**
+     * Sends a notification about a todo change. If the notification cannot be stored the change
+     * itself still goes through; the user just misses that one notification.
+     */
+    private void notifyUser(String userId, String title, String message,
+                            Notification.NotificationType type, String todoId) {
+        try {
+            notificationService.createNotification(userId, title, message, type, todoId);
+        } catch (DependencyUnavailableException | DataAccessException e) {
+            logger.warn("Skipped {} notification for todo {}: {}", type, todoId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.TodoListApp.service;
+
+import com.example.TodoListApp.entity.Notification;
+import com.example.TodoListApp.entity.NotificationCounter;
+import com.example.TodoListApp.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Maintains each user's unread notification count in the notification_counters collection.
+ *
+ * NotificationService adjusts the counter with $inc whenever a notification is created, read or
+ * deleted. Reads are served from a short-lived in-process cache that is refreshed on every local
+ * change; other nodes' changes become visible once the entry expires, and expired entries are
+ * evicted so the cache only holds recently active users. The reactive application adjusts the
+ * same counters. A missing counter is rebuilt from the notifications collection, and
+ * reconcileAll corrects any drift periodically.
+ *
+ * Expired notifications are not counted, and the TTL index removes them without touching the
+ * counter, so writes record the earliest expiry among the counted notifications ($min) and the
+ * first read after it rebuilds the counter.
+ */
+@Service
+public class UnreadCountService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnreadCountService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    @Value("${notification.unread-count.cache-ttl:5000}")
+    private long cacheTtlMillis;
+
+    private final Map<String, CachedCount> cache = new ConcurrentHashMap<>();
+    private final Map<String, List<Waiter>> waiters = new ConcurrentHashMap<>();
+
+    public long getUnreadCount(String userId) {
+        CachedCount cached = cache.get(userId);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached.value();
+        }
+
+        NotificationCounter counter = mongoTemplate.findById(userId, NotificationCounter.class);
+        long unread = counter != null && !recountDue(counter) ? counter.getUnread() : reconcile(userId);
+        refresh(userId, unread);
+        return unread;
+    }
+
+    public void adjust(String userId, long delta) {
+        adjust(userId, delta, null);
+    }
+
+    /**
+     * Applies delta to the user's counter. Call after the notification change has been saved.
+     * expiresAt is the expiry of the unread notification that was added or changed, if it has one.
+     */
+    public void adjust(String userId, long delta, LocalDateTime expiresAt) {
+        if (userId == null || (delta == 0 && expiresAt == null)) {
+            return;
+        }
+        try {
+            NotificationCounter counter = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(userId)),
+                    update(delta, expiresAt),
+                    FindAndModifyOptions.options().returnNew(true),
+                    NotificationCounter.class);
+
+            // No counter yet, it drifted below zero or a counted notification expired: rebuild it
+            // from the saved notifications
+            long unread = counter != null && counter.getUnread() >= 0 && !recountDue(counter)
+                    ? counter.getUnread() : reconcile(userId);
+            refresh(userId, unread);
+        } catch (Exception e) {
+            // The next reconciliation repairs the counter; the notification change itself succeeded
+            cache.remove(userId);
+            logger.warn("Failed to adjust unread counter for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Applies the same delta to many users' counters in one bulk write. Counters that do not
+     * exist yet are left alone and rebuilt on their first read.
+     */
+    public void adjustEach(Collection<String> userIds, long delta, LocalDateTime expiresAt) {
+        if (userIds.isEmpty() || (delta == 0 && expiresAt == null)) {
+            return;
+        }
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationCounter.class);
+            for (String userId : userIds) {
+                bulk.updateOne(Query.query(Criteria.where("_id").is(userId)), update(delta, expiresAt));
+            }
+            bulk.execute();
+        } catch (Exception e) {
+            logger.warn("Failed to adjust unread counters for {} users: {}", userIds.size(), e.getMessage());
+        }
+        userIds.forEach(cache::remove);
+    }
+
+    /**
+     * Recomputes the user's counter from the notifications collection.
+     */
+    public long reconcile(String userId) {
+        LocalDateTime now = LocalDateTime.now();
+        long unread = notificationRepository.countUnreadByUserId(userId, now);
+        mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(userId)),
+                recount(userId, unread, now),
+                NotificationCounter.class);
+        return unread;
+    }
+
+    /**
+     * Compares every stored counter with the actual count and corrects those that drifted.
+     * The correction only applies if the counter did not move meanwhile, so concurrent $inc
+     * updates are never overwritten.
+     *
+     * @return number of counters corrected
+     */
+    public int reconcileAll() {
+        int corrected = 0;
+        try (Stream<NotificationCounter> counters = mongoTemplate.stream(new Query(), NotificationCounter.class)) {
+            for (NotificationCounter counter : (Iterable<NotificationCounter>) counters::iterator) {
+                LocalDateTime now = LocalDateTime.now();
+                long actual = notificationRepository.countUnreadByUserId(counter.getUserId(), now);
+                if (actual == counter.getUnread()) {
+                    continue;
+                }
+                long matched = mongoTemplate.updateFirst(
+                        Query.query(Criteria.where("_id").is(counter.getUserId()).and("unread").is(counter.getUnread())),
+                        recount(counter.getUserId(), actual, now),
+                        NotificationCounter.class).getMatchedCount();
+                if (matched > 0) {
+                    corrected++;
+                    refresh(counter.getUserId(), actual);
+                    // The stats responses include the count
+                    changeVersionService.changed(counter.getUserId(), ChangeVersionService.Scope.NOTIFICATIONS);
+                }
+            }
+        }
+        return corrected;
+    }
+
+    /**
+     * Long-poll for a count different from since. Completes immediately if the count already
+     * differs, otherwise when it changes or the timeout elapses, always with the current count.
+     */
+    public DeferredResult<Map<String, Long>> awaitChange(String userId, long since, long timeoutMillis) {
+        DeferredResult<Map<String, Long>> result = new DeferredResult<>(timeoutMillis);
+        long current = getUnreadCount(userId);
+        if (current != since) {
+            result.setResult(Map.of("unread", current));
+            return result;
+        }
+
+        Waiter waiter = new Waiter(since, result);
+        // Atomic with removeWaiter, so a list being dropped as empty never takes this waiter along
+        waiters.compute(userId, (key, userWaiters) -> {
+            List<Waiter> list = userWaiters != null ? userWaiters : new CopyOnWriteArrayList<>();
+            list.add(waiter);
+            return list;
+        });
+        result.onTimeout(() -> result.setResult(Map.of("unread", getUnreadCount(userId))));
+        result.onCompletion(() -> removeWaiter(userId, waiter));
+
+        // Close the gap between the first read and registering the waiter
+        current = getUnreadCount(userId);
+        if (current != since) {
+            result.setResult(Map.of("unread", current));
+        }
+        return result;
+    }
+
+    /**
+     * Picks up counter changes made on other nodes for users with an open long-poll, using a
+     * single lookup for all of them.
+     */
+    @Scheduled(fixedDelayString = "${notification.unread-count.wait-poll-interval:2000}")
+    public void refreshWaitingUsers() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        List<String> userIds = new ArrayList<>(waiters.keySet());
+        List<NotificationCounter> counters = mongoTemplate.find(
+                Query.query(Criteria.where("_id").in(userIds)), NotificationCounter.class);
+        for (NotificationCounter counter : counters) {
+            refresh(counter.getUserId(), recountDue(counter) ? reconcile(counter.getUserId()) : counter.getUnread());
+        }
+    }
+
+    /**
+     * Drops expired cache entries; a user's next read loads the counter again.
+     */
+    @Scheduled(fixedDelayString = "${notification.unread-count.cache-ttl:5000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(cached -> cached.expiresAt() <= now);
+    }
+
+    private Update update(long delta, LocalDateTime expiresAt) {
+        Update update = new Update().inc("unread", delta).set("updatedAt", LocalDateTime.now());
+        if (expiresAt != null) {
+            // Already past for a notification that expires on arrival, so the next read recounts
+            update.min("recountAt", expiresAt);
+        }
+        return update;
+    }
+
+    /**
+     * Sets the counter to unread, with the earliest expiry among the counted notifications.
+     */
+    private Update recount(String userId, long unread, LocalDateTime now) {
+        Update update = new Update().set("unread", unread).set("updatedAt", now);
+        Query query = Query.query(Criteria.where("userId").is(userId).and("readAt").is(null)
+                        .and("isDeleted").is(false).and("expiresAt").gt(now))
+                .with(Sort.by(Sort.Direction.ASC, "expiresAt"));
+        query.fields().include("expiresAt");
+        Notification next = mongoTemplate.findOne(query, Notification.class);
+        if (next != null) {
+            update.set("recountAt", next.getExpiresAt());
+        } else {
+            update.unset("recountAt");
+        }
+        return update;
+    }
+
+    private static boolean recountDue(NotificationCounter counter) {
+        return counter.getRecountAt() != null && !counter.getRecountAt().isAfter(LocalDateTime.now());
+    }
+
+    private void refresh(String userId, long unread) {
+        cache.put(userId, new CachedCount(unread, System.currentTimeMillis() + cacheTtlMillis));
+
+        List<Waiter> userWaiters = waiters.get(userId);
+        if (userWaiters != null) {
+            for (Waiter waiter : userWaiters) {
+                if (waiter.since() != unread) {
+                    waiter.result().setResult(Map.of("unread", unread));
+                }
+            }
+        }
+    }
+
+    private void removeWaiter(String userId, Waiter waiter) {
+        waiters.computeIfPresent(userId, (key, userWaiters) -> {
+            userWaiters.remove(waiter);
+            return userWaiters.isEmpty() ? null : userWaiters;
+        });
+    }
+
+    private record CachedCount(long value, long expiresAt) {}
+
+    private record Waiter(long since, DeferredResult<Map<String, Long>> result) {}
+}
@@ -2,6 +2,9 @@ package com.example.TodoListApp.service;
 
 import com.example.TodoListApp.entity.User;
 import com.example.TodoListApp.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -19,8 +22,11 @@ import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 
 @Service
+@Timed(value = "user.service", histogram = true)
 public class UserService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
     @Autowired
     private UserRepository userRepository;
 
@@ -269,7 +275,7 @@ public class UserService {
             return baos.toByteArray();
         } catch (Exception e) {
             // If compression fails, return original data
-            System.err.println("Image compression failed: " + e.getMessage());
+            logger.warn("Image compression failed, storing original ({} bytes): {}", originalData.length, e.getMessage());
             return originalData;
         }
     }
@@ -0,0 +1,45 @@
+package com.example.TodoListApp.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parsing of If-Match headers into the version a conditional write requires, and matching of
+ * If-None-Match headers against the weak tags of reads.
+ */
+class ETagsTests {
+
+    @Test
+    void issuedTagsRoundTrip() {
+        assertThat(ETags.of(7L)).isEqualTo("\"7\"");
+        assertThat(ETags.expectedVersion(ETags.of(7L))).isEqualTo(7L);
+        assertThat(ETags.expectedVersion(" \"0\" ")).isEqualTo(0L);
+    }
+
+    @Test
+    void missingHeaderOrWildcardIsUnconditional() {
+        assertThat(ETags.expectedVersion(null)).isNull();
+        assertThat(ETags.expectedVersion("")).isNull();
+        assertThat(ETags.expectedVersion("*")).isNull();
+    }
+
+    @Test
+    void weakOrForeignTagsMatchNoVersion() {
+        assertThat(ETags.expectedVersion("W/\"7\"")).isEqualTo(-1L);
+        assertThat(ETags.expectedVersion("7")).isEqualTo(-1L);
+        assertThat(ETags.expectedVersion("\"abc\"")).isEqualTo(-1L);
+        assertThat(ETags.expectedVersion("\"")).isEqualTo(-1L);
+    }
+
+    @Test
+    void ifNoneMatchUsesWeakComparison() {
+        assertThat(ETags.matches("W/\"3\"", "W/\"3\"")).isTrue();
+        assertThat(ETags.matches("\"3\"", "W/\"3\"")).isTrue();
+        assertThat(ETags.matches("W/\"1\", W/\"3\"", "W/\"3\"")).isTrue();
+        assertThat(ETags.matches("*", "W/\"3\"")).isTrue();
+        assertThat(ETags.matches("W/\"2\"", "W/\"3\"")).isFalse();
+        assertThat(ETags.matches(null, "W/\"3\"")).isFalse();
+        assertThat(ETags.matches("", "W/\"3\"")).isFalse();
+    }
+}
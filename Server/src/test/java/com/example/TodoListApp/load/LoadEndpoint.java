@@ -0,0 +1,33 @@
+package com.example.TodoListApp.load;
+
+/**
+ * Endpoints a load scenario can mix, keyed by the label used in the scenario files.
+ */
+enum LoadEndpoint {
+    LIST_TODOS("GET /todos"),
+    CREATE_TODO("POST /todos"),
+    LIST_NOTIFICATIONS("GET /notifications"),
+    UNREAD_NOTIFICATIONS("GET /notifications/unread"),
+    LOGIN("POST /auth/login"),
+    GET_AVATAR("GET /users/me/avatar"),
+    UPLOAD_AVATAR("POST /users/me/avatar");
+
+    private final String label;
+
+    LoadEndpoint(String label) {
+        this.label = label;
+    }
+
+    String getLabel() {
+        return label;
+    }
+
+    static LoadEndpoint fromLabel(String label) {
+        for (LoadEndpoint endpoint : values()) {
+            if (endpoint.label.equals(label)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown load endpoint: " + label);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.TodoListApp.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms (microseconds) and error counts for one scenario run.
+ */
+class LoadReport {
+
+    private final Map<LoadEndpoint, Histogram> latencies = new EnumMap<>(LoadEndpoint.class);
+    private final Map<LoadEndpoint, LongAdder> errors = new EnumMap<>(LoadEndpoint.class);
+
+    LoadReport() {
+        for (LoadEndpoint endpoint : LoadEndpoint.values()) {
+            latencies.put(endpoint, new ConcurrentHistogram(3));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+
+    void record(LoadEndpoint endpoint, long latencyMicros, boolean error) {
+        latencies.get(endpoint).recordValue(latencyMicros);
+        if (error) {
+            errors.get(endpoint).increment();
+        }
+    }
+
+    long totalRequests() {
+        return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    long totalErrors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    double errorRate() {
+        long total = totalRequests();
+        return total == 0 ? 0 : (double) totalErrors() / total;
+    }
+
+    String summary(String scenario, double seconds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%nLoad scenario '%s' (%.0fs measured)%n", scenario, seconds));
+        sb.append(String.format("%-26s %10s %10s %10s %10s %10s %10s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors"));
+        for (LoadEndpoint endpoint : LoadEndpoint.values()) {
+            Histogram histogram = latencies.get(endpoint);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            sb.append(String.format("%-26s %10d %10.1f %10.2f %10.2f %10.2f %10.2f %7.2f%%%n",
+                    endpoint.getLabel(),
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / seconds,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0,
+                    100.0 * errors.get(endpoint).sum() / histogram.getTotalCount()));
+        }
+        sb.append(String.format("total %d requests, %.1f req/s, error rate %.2f%%%n",
+                totalRequests(), totalRequests() / seconds, 100 * errorRate()));
+        return sb.toString();
+    }
+
+    void writeJson(Path path, String scenario, double seconds) throws IOException {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (LoadEndpoint endpoint : LoadEndpoint.values()) {
+            Histogram histogram = latencies.get(endpoint);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", histogram.getTotalCount());
+            stats.put("throughputPerSecond", histogram.getTotalCount() / seconds);
+            stats.put("errors", errors.get(endpoint).sum());
+            stats.put("p50Micros", histogram.getValueAtPercentile(50));
+            stats.put("p99Micros", histogram.getValueAtPercentile(99));
+            stats.put("p999Micros", histogram.getValueAtPercentile(99.9));
+            stats.put("maxMicros", histogram.getMaxValue());
+            endpoints.put(endpoint.getLabel(), stats);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenario", scenario);
+        report.put("measuredSeconds", seconds);
+        report.put("totalRequests", totalRequests());
+        report.put("errorRate", errorRate());
+        report.put("endpoints", endpoints);
+
+        Files.createDirectories(path.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+    }
+}
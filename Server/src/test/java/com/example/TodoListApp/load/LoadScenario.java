@@ -0,0 +1,118 @@
+package com.example.TodoListApp.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A load profile read from src/test/resources/load/{name}.json.
+ * The mix maps endpoint labels (see {@link LoadEndpoint}) to relative weights.
+ */
+public class LoadScenario {
+
+    private String name;
+    private int users = 50;
+    private int todosPerUser = 100;
+    private int notificationsPerUser = 50;
+    private int concurrency = 50;
+    private int warmupSeconds = 10;
+    private int durationSeconds = 60;
+    private double maxErrorRate = 0.01;
+    private Map<String, Integer> mix = new LinkedHashMap<>();
+
+    public static LoadScenario load(String name) throws IOException {
+        try (InputStream in = LoadScenario.class.getResourceAsStream("/load/" + name + ".json")) {
+            if (in == null) {
+                throw new IllegalArgumentException("Load scenario not found: " + name);
+            }
+            LoadScenario scenario = new ObjectMapper().readValue(in, LoadScenario.class);
+            if (scenario.getName() == null) {
+                scenario.setName(name);
+            }
+            return scenario;
+        }
+    }
+
+    public Map<LoadEndpoint, Integer> endpointWeights() {
+        Map<LoadEndpoint, Integer> weights = new EnumMap<>(LoadEndpoint.class);
+        mix.forEach((label, weight) -> weights.put(LoadEndpoint.fromLabel(label), weight));
+        return weights;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public void setUsers(int users) {
+        this.users = users;
+    }
+
+    public int getTodosPerUser() {
+        return todosPerUser;
+    }
+
+    public void setTodosPerUser(int todosPerUser) {
+        this.todosPerUser = todosPerUser;
+    }
+
+    public int getNotificationsPerUser() {
+        return notificationsPerUser;
+    }
+
+    public void setNotificationsPerUser(int notificationsPerUser) {
+        this.notificationsPerUser = notificationsPerUser;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public void setWarmupSeconds(int warmupSeconds) {
+        this.warmupSeconds = warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(int durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public double getMaxErrorRate() {
+        return maxErrorRate;
+    }
+
+    public void setMaxErrorRate(double maxErrorRate) {
+        this.maxErrorRate = maxErrorRate;
+    }
+
+    public Map<String, Integer> getMix() {
+        return mix;
+    }
+
+    public void setMix(Map<String, Integer> mix) {
+        this.mix = mix;
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.TodoListApp.load;
+
+import com.example.TodoListApp.entity.Notification;
+import com.example.TodoListApp.entity.Todo;
+import com.example.TodoListApp.entity.User;
+import com.example.TodoListApp.service.PasswordService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives weighted request mixes against the full application backed by Testcontainers
+ * Mongo and RabbitMQ, and reports per-endpoint latency percentiles, throughput and errors.
+ *
+ * Excluded from the default build; run with:
+ * mvn test -Pload-test -Dload.scenarios=power-user,login-storm
+ *
+ * Reports are logged and written to target/load-reports/{scenario}-{threadMode}.json. The load is
+ * closed-loop (each worker waits for its response), so latencies are not corrected for
+ * coordinated omission.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "ratelimit.enabled=false")
+@Testcontainers(disabledWithoutDocker = true)
+class LoadTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTests.class);
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Container
+    @ServiceConnection
+    static RabbitMQContainer rabbit = new RabbitMQContainer("rabbitmq:3.12-management");
+
+    private static final String PASSWORD = "L0adTest!Pass";
+    private static final int INSERT_BATCH = 1000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+
+    private byte[] avatar;
+
+    static Stream<String> scenarios() {
+        return Arrays.stream(System.getProperty("load.scenarios", "mixed,power-user,login-storm,thread-ceiling").split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("scenarios")
+    void runScenario(String name) throws Exception {
+        LoadScenario scenario = LoadScenario.load(name);
+        avatar = sampleImage();
+        List<VirtualUser> users = seed(scenario);
+
+        Map<LoadEndpoint, Integer> weights = scenario.endpointWeights();
+        List<LoadEndpoint> endpoints = new ArrayList<>(weights.keySet());
+        int[] cumulative = new int[endpoints.size()];
+        int totalWeight = 0;
+        for (int i = 0; i < endpoints.size(); i++) {
+            totalWeight += weights.get(endpoints.get(i));
+            cumulative[i] = totalWeight;
+        }
+
+        LoadReport report = new LoadReport();
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(scenario.getWarmupSeconds());
+        long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(scenario.getDurationSeconds());
+
+        ExecutorService workers = Executors.newFixedThreadPool(scenario.getConcurrency());
+        for (int w = 0; w < scenario.getConcurrency(); w++) {
+            List<VirtualUser> owned = usersForWorker(users, w, scenario.getConcurrency());
+            int total = totalWeight;
+            workers.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int next = 0;
+                while (System.nanoTime() < stopAt) {
+                    VirtualUser user = owned.get(next++ % owned.size());
+                    int roll = random.nextInt(total);
+                    LoadEndpoint endpoint = endpoints.get(0);
+                    for (int i = 0; i < cumulative.length; i++) {
+                        if (roll < cumulative[i]) {
+                            endpoint = endpoints.get(i);
+                            break;
+                        }
+                    }
+
+                    long start = System.nanoTime();
+                    boolean error;
+                    try {
+                        if (endpoint != LoadEndpoint.LOGIN && user.session == null) {
+                            login(user);
+                        }
+                        error = execute(endpoint, user) >= 300;
+                    } catch (Exception e) {
+                        error = true;
+                    }
+                    long end = System.nanoTime();
+                    if (start >= measureFrom) {
+                        report.record(endpoint, TimeUnit.NANOSECONDS.toMicros(end - start), error);
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(scenario.getWarmupSeconds() + scenario.getDurationSeconds() + 60L, TimeUnit.SECONDS);
+
+        double seconds = scenario.getDurationSeconds();
+        String reportName = scenario.getName() + "-" + threadMode();
+        logger.info("{}", report.summary(reportName, seconds));
+        report.writeJson(Paths.get("target", "load-reports", reportName + ".json"), reportName, seconds);
+
+        assertThat(report.totalRequests()).isPositive();
+        assertThat(report.errorRate()).isLessThanOrEqualTo(scenario.getMaxErrorRate());
+    }
+
+    /**
+     * Request execution model of the application under test, used to name the reports.
+     */
+    protected String threadMode() {
+        return "platform";
+    }
+
+    /**
+     * Gives each worker a disjoint set of users when there are enough of them, so a login by one
+     * worker never replaces the session another worker is using (sessions are limited to one per user).
+     */
+    private List<VirtualUser> usersForWorker(List<VirtualUser> users, int worker, int workers) {
+        if (users.size() < workers) {
+            return List.of(users.get(worker % users.size()));
+        }
+        List<VirtualUser> owned = new ArrayList<>();
+        for (int i = worker; i < users.size(); i += workers) {
+            owned.add(users.get(i));
+        }
+        return owned;
+    }
+
+    private List<VirtualUser> seed(LoadScenario scenario) {
+        String prefix = scenario.getName() + "-" + System.currentTimeMillis();
+        String passwordHash = passwordService.hashPassword(PASSWORD);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<User> users = new ArrayList<>(scenario.getUsers());
+        for (int u = 0; u < scenario.getUsers(); u++) {
+            String username = prefix + "-" + u;
+            User user = new User(username, username + "@load.test", null);
+            user.setPassword(passwordHash);
+            user.setPasswordEnabled(true);
+            user.setAvatarData(avatar);
+            user.setAvatarContentType("image/jpeg");
+            user.setAvatarSize((long) avatar.length);
+            users.add(user);
+        }
+        mongoTemplate.insert(users, User.class);
+
+        List<Todo> todos = new ArrayList<>(INSERT_BATCH);
+        List<Notification> notifications = new ArrayList<>(INSERT_BATCH);
+        for (User user : users) {
+            for (int i = 0; i < scenario.getTodosPerUser(); i++) {
+                Todo todo = new Todo("Load todo " + i, user.getId());
+                todo.setDescription("Seeded for load scenario " + scenario.getName());
+                todo.setDueDate(now.plusHours(i % 500 - 250));
+                todo.setTags(List.of(i % 2 == 0 ? "work" : "home"));
+                todos.add(todo);
+                if (todos.size() == INSERT_BATCH) {
+                    mongoTemplate.insert(todos, Todo.class);
+                    todos.clear();
+                }
+            }
+            for (int i = 0; i < scenario.getNotificationsPerUser(); i++) {
+                Notification notification = new Notification("Load notification " + i, "Seeded notification",
+                        user.getId(), Notification.NotificationType.TODO_UPDATED);
+                notification.markAsSent();
+                if (i % 2 == 0) {
+                    notification.markAsRead();
+                }
+                notifications.add(notification);
+                if (notifications.size() == INSERT_BATCH) {
+                    mongoTemplate.insert(notifications, Notification.class);
+                    notifications.clear();
+                }
+            }
+        }
+        if (!todos.isEmpty()) {
+            mongoTemplate.insert(todos, Todo.class);
+        }
+        if (!notifications.isEmpty()) {
+            mongoTemplate.insert(notifications, Notification.class);
+        }
+
+        return users.stream().map(user -> new VirtualUser(user.getUsername())).toList();
+    }
+
+    private int execute(LoadEndpoint endpoint, VirtualUser user) throws IOException, InterruptedException {
+        return switch (endpoint) {
+            case LOGIN -> login(user);
+            case LIST_TODOS -> send(user, get("/todos"));
+            case CREATE_TODO -> send(user, post("/todos", "application/json",
+                    "{\"title\":\"Created under load\",\"description\":\"load test\"}"));
+            case LIST_NOTIFICATIONS -> send(user, get("/notifications"));
+            case UNREAD_NOTIFICATIONS -> send(user, get("/notifications/unread"));
+            case GET_AVATAR -> send(user, get("/users/me/avatar"));
+            case UPLOAD_AVATAR -> uploadAvatar(user);
+        };
+    }
+
+    private int login(VirtualUser user) throws IOException, InterruptedException {
+        String body = "{\"usernameOrEmail\":\"" + user.username + "\",\"password\":\"" + PASSWORD + "\"}";
+        HttpResponse<Void> response = httpClient.send(post("/auth/login", "application/json", body).build(),
+                HttpResponse.BodyHandlers.discarding());
+        response.headers().allValues("Set-Cookie").stream()
+                .filter(cookie -> cookie.startsWith("JSESSIONID="))
+                .findFirst()
+                .ifPresent(cookie -> user.session = cookie.substring(0, cookie.indexOf(';') > 0 ? cookie.indexOf(';') : cookie.length()));
+        return response.statusCode();
+    }
+
+    private int uploadAvatar(VirtualUser user) throws IOException, InterruptedException {
+        String boundary = "load-" + Long.toHexString(System.nanoTime());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"avatar.jpg\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(avatar);
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri("/users/me/avatar"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+        return send(user, request);
+    }
+
+    private int send(VirtualUser user, HttpRequest.Builder request) throws IOException, InterruptedException {
+        String session = user.session;
+        if (session != null) {
+            request.header("Cookie", session);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(30)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String contentType, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static byte[] sampleImage() throws IOException {
+        BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, (x * 255 / image.getWidth()) << 16 | (y * 255 / image.getHeight()) << 8);
+            }
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", baos);
+        return baos.toByteArray();
+    }
+
+    private static class VirtualUser {
+        private final String username;
+        private volatile String session;
+
+        VirtualUser(String username) {
+            this.username = username;
+        }
+    }
+}
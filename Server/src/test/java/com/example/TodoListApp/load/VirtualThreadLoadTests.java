@@ -0,0 +1,22 @@
+package com.example.TodoListApp.load;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs the same load scenarios with the virtual-threads profile, writing
+ * target/load-reports/{scenario}-virtual.json next to the platform-thread reports for comparison.
+ * The thread-ceiling scenario exceeds Tomcat's 200 platform workers to show the difference.
+ */
+@ActiveProfiles("virtual-threads")
+@EnabledForJreRange(min = JRE.JAVA_21)
+@Testcontainers(disabledWithoutDocker = true)
+class VirtualThreadLoadTests extends LoadTests {
+
+    @Override
+    protected String threadMode() {
+        return "virtual";
+    }
+}
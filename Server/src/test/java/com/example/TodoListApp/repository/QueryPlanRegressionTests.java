@@ -0,0 +1,378 @@
+package com.example.TodoListApp.repository;
+
+import com.example.TodoListApp.config.MongoIndexInitializer;
+import com.example.TodoListApp.entity.Notification;
+import com.example.TodoListApp.entity.Todo;
+import com.example.TodoListApp.entity.User;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds a synthetic dataset, runs every declared repository method, and explains the command
+ * each one sends to Mongo. Fails if a winning plan contains a COLLSCAN, uses no index at all, or
+ * examines more documents than one user owns (or than it returns, for cross-user queries).
+ *
+ * A report is written to target/query-plan-report.md. Dataset size can be raised with
+ * -Dqueryplan.users and -Dqueryplan.docsPerUser.
+ */
+@DataMongoTest
+@Testcontainers(disabledWithoutDocker = true)
+@Import({QueryPlanRegressionTests.CommandCaptureConfig.class, MongoIndexInitializer.class})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanRegressionTests {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    private static final int USERS = Integer.getInteger("queryplan.users", 200);
+    private static final int DOCS_PER_USER = Integer.getInteger("queryplan.docsPerUser", 50);
+
+    private static final Set<String> INDEX_STAGES = Set.of("IXSCAN", "IDHACK", "EXPRESS_IXSCAN", "COUNT_SCAN", "DISTINCT_SCAN");
+
+    // Methods allowed to scan; keep this list short and justify every entry
+    private static final Map<String, String> EXEMPT = Map.of(
+        "UserRepository.findByFirstNameContainingIgnoreCase", "unanchored regex on unindexed field, not exposed by any endpoint",
+        "UserRepository.findByLastNameContainingIgnoreCase", "unanchored regex on unindexed field, not exposed by any endpoint"
+    );
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoIndexInitializer mongoIndexInitializer;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final CommandCapture capture = CommandCaptureConfig.CAPTURE;
+
+    private String userId;
+    private String todoId;
+    private String notificationId;
+
+    @BeforeAll
+    void seed() {
+        // The indexes the application creates at startup
+        mongoIndexInitializer.createIndexes();
+
+        LocalDateTime now = LocalDateTime.now();
+        Todo.TodoStatus[] todoStatuses = Todo.TodoStatus.values();
+        Todo.TodoPriority[] todoPriorities = Todo.TodoPriority.values();
+        Notification.NotificationType[] types = Notification.NotificationType.values();
+        Notification.NotificationPriority[] priorities = Notification.NotificationPriority.values();
+        List<String> tagPool = List.of("work", "home", "errands", "health", "finance");
+
+        List<User> users = new ArrayList<>(USERS);
+        for (int u = 0; u < USERS; u++) {
+            User user = new User(String.format("user-%05d", u), String.format("user-%05d@example.com", u), "gh-" + u);
+            user.setId(String.format("u%05d", u));
+            user.setFirstName("First" + u);
+            user.setLastName("Last" + u);
+            user.setActive(u % 10 != 0);
+            user.setRoles(u % 50 == 0 ? List.of("USER", "ADMIN") : List.of("USER"));
+            users.add(user);
+        }
+        mongoTemplate.insert(users, User.class);
+
+        for (User user : users) {
+            List<Todo> todos = new ArrayList<>(DOCS_PER_USER);
+            List<Notification> notifications = new ArrayList<>(DOCS_PER_USER);
+            for (int i = 0; i < DOCS_PER_USER; i++) {
+                Todo todo = new Todo("Todo " + i + " for " + user.getUsername(), user.getId());
+                todo.setDescription("Synthetic todo " + i);
+                todo.setStatus(todoStatuses[i % todoStatuses.length]);
+                todo.setPriority(todoPriorities[i % todoPriorities.length]);
+                todo.setTags(List.of(tagPool.get(i % tagPool.size())));
+                todo.setDueDate(now.plusHours(i - DOCS_PER_USER / 2));
+                todo.setCreatedAt(now.minusDays(i));
+                todo.setUpdatedAt(now.minusDays(i / 2));
+                todo.setDeleted(i % 20 == 0);
+                todos.add(todo);
+
+                Notification notification = new Notification("Notification " + i, "Synthetic notification " + i,
+                        user.getId(), types[i % types.length]);
+                notification.setPriority(priorities[i % priorities.length]);
+                notification.setCreatedAt(now.minusHours(i));
+                if (i % 3 != 0) {
+                    notification.markAsSent();
+                    notification.setSentAt(now.minusHours(i).plusMinutes(1));
+                }
+                if (i % 2 == 0) {
+                    notification.setReadAt(now.minusHours(i).plusMinutes(5));
+                }
+                if (i % 4 == 0) {
+                    notification.setExpiresAt(now.plusDays(7 - i));
+                }
+                notification.setDeleted(i % 20 == 0);
+                notifications.add(notification);
+            }
+            mongoTemplate.insert(todos, Todo.class);
+            for (int i = 0; i < notifications.size(); i += 2) {
+                notifications.get(i).setTodoId(todos.get(i).getId());
+            }
+            mongoTemplate.insert(notifications, Notification.class);
+
+            if (userId == null) {
+                userId = user.getId();
+                todoId = todos.get(1).getId();
+                notificationId = notifications.get(1).getId();
+            }
+        }
+    }
+
+    @Test
+    void everyRepositoryMethodUsesAnIndex() throws IOException {
+        Map<String, Runnable> cases = queryCases();
+
+        Set<String> declared = new TreeSet<>();
+        for (Class<?> repository : List.of(TodoRepository.class, NotificationRepository.class, UserRepository.class)) {
+            for (Method method : repository.getDeclaredMethods()) {
+                declared.add(repository.getSimpleName() + "." + method.getName());
+            }
+        }
+        assertThat(cases.keySet())
+            .as("every declared repository method needs a query-plan case")
+            .containsAll(declared);
+
+        List<String> failures = new ArrayList<>();
+        StringBuilder report = new StringBuilder()
+            .append("# Query plan report\n\n")
+            .append("Dataset: ").append(USERS).append(" users, ").append(DOCS_PER_USER).append(" todos and notifications per user\n\n")
+            .append("| Method | Stages | Indexes | nReturned | docsExamined | Bound | Result |\n")
+            .append("|---|---|---|---|---|---|---|\n");
+
+        for (Map.Entry<String, Runnable> entry : cases.entrySet()) {
+            String name = entry.getKey();
+            capture.clear();
+            entry.getValue().run();
+            BsonDocument command = capture.last();
+            if (command == null) {
+                failures.add(name + ": no query command captured");
+                continue;
+            }
+
+            Document explain = explain(command);
+            List<String> stages = new ArrayList<>();
+            Set<String> indexes = new TreeSet<>();
+            collectWinningPlan(explain, false, stages, indexes);
+            long nReturned = maxLong(explain, "nReturned");
+            long docsExamined = maxLong(explain, "totalDocsExamined");
+            long bound = Math.max(nReturned, DOCS_PER_USER);
+
+            String result;
+            if (EXEMPT.containsKey(name)) {
+                result = "EXEMPT (" + EXEMPT.get(name) + ")";
+            } else if (stages.contains("COLLSCAN") || stages.stream().noneMatch(INDEX_STAGES::contains)) {
+                result = "FAIL: no index";
+                failures.add(name + ": " + stages);
+            } else if (docsExamined > bound) {
+                result = "FAIL: examined " + docsExamined;
+                failures.add(name + ": examined " + docsExamined + " documents, bound " + bound);
+            } else {
+                result = "OK";
+            }
+
+            report.append("| ").append(name)
+                .append(" | ").append(String.join(" > ", stages))
+                .append(" | ").append(String.join(", ", indexes))
+                .append(" | ").append(nReturned)
+                .append(" | ").append(docsExamined)
+                .append(" | ").append(bound)
+                .append(" | ").append(result)
+                .append(" |\n");
+        }
+
+        Path reportPath = Paths.get("target", "query-plan-report.md");
+        Files.createDirectories(reportPath.getParent());
+        Files.writeString(reportPath, report);
+
+        assertThat(failures).as("query plan regressions, see " + reportPath).isEmpty();
+    }
+
+    private Map<String, Runnable> queryCases() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime monthAgo = now.minusDays(30);
+        Map<String, Runnable> cases = new LinkedHashMap<>();
+
+        cases.put("TodoRepository.findByUserIdAndIsDeletedFalse", () -> todoRepository.findByUserIdAndIsDeletedFalse(userId));
+        cases.put("TodoRepository.findByUserIdAndStatusAndIsDeletedFalse", () -> todoRepository.findByUserIdAndStatusAndIsDeletedFalse(userId, Todo.TodoStatus.PENDING));
+        cases.put("TodoRepository.findByUserIdAndPriorityAndIsDeletedFalse", () -> todoRepository.findByUserIdAndPriorityAndIsDeletedFalse(userId, Todo.TodoPriority.HIGH));
+        cases.put("TodoRepository.findByUserIdAndTagsContainingAndIsDeletedFalse", () -> todoRepository.findByUserIdAndTagsContainingAndIsDeletedFalse(userId, "work"));
+        cases.put("TodoRepository.findOverdueTodosByUserId", () -> todoRepository.findOverdueTodosByUserId(userId, now));
+        cases.put("TodoRepository.findTodosDueSoonByUserId", () -> todoRepository.findTodosDueSoonByUserId(userId, now, now.plusHours(24)));
+        cases.put("TodoRepository.findByUserIdAndTitleContainingIgnoreCase", () -> todoRepository.findByUserIdAndTitleContainingIgnoreCase(userId, "todo 1"));
+        cases.put("TodoRepository.findByUserIdAndDescriptionContainingIgnoreCase", () -> todoRepository.findByUserIdAndDescriptionContainingIgnoreCase(userId, "synthetic"));
+        cases.put("TodoRepository.findByUserIdAndCreatedAtBetween", () -> todoRepository.findByUserIdAndCreatedAtBetween(userId, monthAgo, now));
+        cases.put("TodoRepository.findByUserIdAndUpdatedAtBetween", () -> todoRepository.findByUserIdAndUpdatedAtBetween(userId, monthAgo, now));
+        cases.put("TodoRepository.findByUserIdAndCompletedAtBetween", () -> todoRepository.findByUserIdAndCompletedAtBetween(userId, monthAgo, now));
+        cases.put("TodoRepository.countByUserIdAndIsDeletedFalse", () -> todoRepository.countByUserIdAndIsDeletedFalse(userId));
+        cases.put("TodoRepository.countByUserIdAndStatusAndIsDeletedFalse", () -> todoRepository.countByUserIdAndStatusAndIsDeletedFalse(userId, Todo.TodoStatus.COMPLETED));
+        cases.put("TodoRepository.countByUserIdAndPriorityAndIsDeletedFalse", () -> todoRepository.countByUserIdAndPriorityAndIsDeletedFalse(userId, Todo.TodoPriority.URGENT));
+        cases.put("TodoRepository.findByIdAndUserIdAndIsDeletedFalse", () -> todoRepository.findByIdAndUserIdAndIsDeletedFalse(todoId, userId));
+        cases.put("TodoRepository.findByIsDeletedTrue", () -> todoRepository.findByIsDeletedTrue());
+        cases.put("TodoRepository.findAllActiveTodosByUserId", () -> todoRepository.findAllActiveTodosByUserId(userId));
+
+        cases.put("NotificationRepository.findUnexpiredByUserId", () -> notificationRepository.findUnexpiredByUserId(userId, now));
+        cases.put("NotificationRepository.findUnexpiredByUserIdAndStatus", () -> notificationRepository.findUnexpiredByUserIdAndStatus(userId, Notification.NotificationStatus.SENT, now));
+        cases.put("NotificationRepository.findUnexpiredByUserIdAndType", () -> notificationRepository.findUnexpiredByUserIdAndType(userId, Notification.NotificationType.TODO_CREATED, now));
+        cases.put("NotificationRepository.findUnexpiredByUserIdAndPriority", () -> notificationRepository.findUnexpiredByUserIdAndPriority(userId, Notification.NotificationPriority.URGENT, now));
+        cases.put("NotificationRepository.findUnreadNotificationsByUserId", () -> notificationRepository.findUnreadNotificationsByUserId(userId, now));
+        cases.put("NotificationRepository.findReadNotificationsByUserId", () -> notificationRepository.findReadNotificationsByUserId(userId, now));
+        cases.put("NotificationRepository.findExpiredNotificationsByUserId", () -> notificationRepository.findExpiredNotificationsByUserId(userId, now));
+        cases.put("NotificationRepository.findByUserIdAndCreatedAtBetween", () -> notificationRepository.findByUserIdAndCreatedAtBetween(userId, monthAgo, now, now));
+        cases.put("NotificationRepository.findByUserIdAndSentAtBetween", () -> notificationRepository.findByUserIdAndSentAtBetween(userId, monthAgo, now, now));
+        cases.put("NotificationRepository.findByUserIdAndReadAtBetween", () -> notificationRepository.findByUserIdAndReadAtBetween(userId, monthAgo, now, now));
+        cases.put("NotificationRepository.findByTodoId", () -> notificationRepository.findByTodoId(todoId, now));
+        cases.put("NotificationRepository.countUnexpiredByUserId", () -> notificationRepository.countUnexpiredByUserId(userId, now));
+        cases.put("NotificationRepository.countUnexpiredByUserIdAndStatus", () -> notificationRepository.countUnexpiredByUserIdAndStatus(userId, Notification.NotificationStatus.PENDING, now));
+        cases.put("NotificationRepository.countUnexpiredByUserIdAndType", () -> notificationRepository.countUnexpiredByUserIdAndType(userId, Notification.NotificationType.REMINDER, now));
+        cases.put("NotificationRepository.countUnreadByUserId", () -> notificationRepository.countUnreadByUserId(userId, now));
+        cases.put("NotificationRepository.findUnexpiredByIdAndUserId", () -> notificationRepository.findUnexpiredByIdAndUserId(notificationId, userId, now));
+        cases.put("NotificationRepository.findByIsDeletedTrue", () -> notificationRepository.findByIsDeletedTrue());
+        cases.put("NotificationRepository.findAllActiveNotificationsByUserId", () -> notificationRepository.findAllActiveNotificationsByUserId(userId, now));
+
+        cases.put("UserRepository.findByUsername", () -> userRepository.findByUsername("user-00042"));
+        cases.put("UserRepository.findByEmail", () -> userRepository.findByEmail("user-00042@example.com"));
+        cases.put("UserRepository.findByGithubId", () -> userRepository.findByGithubId("gh-42"));
+        cases.put("UserRepository.findByActiveTrue", () -> userRepository.findByActiveTrue());
+        cases.put("UserRepository.findByRolesContaining", () -> userRepository.findByRolesContaining("ADMIN"));
+        cases.put("UserRepository.findByUsernameContainingIgnoreCase", () -> userRepository.findByUsernameContainingIgnoreCase("user-0004"));
+        cases.put("UserRepository.findByEmailContainingIgnoreCase", () -> userRepository.findByEmailContainingIgnoreCase("user-0004"));
+        cases.put("UserRepository.findByFirstNameContainingIgnoreCase", () -> userRepository.findByFirstNameContainingIgnoreCase("first4"));
+        cases.put("UserRepository.findByLastNameContainingIgnoreCase", () -> userRepository.findByLastNameContainingIgnoreCase("last4"));
+        cases.put("UserRepository.existsByUsername", () -> userRepository.existsByUsername("user-00042"));
+        cases.put("UserRepository.existsByEmail", () -> userRepository.existsByEmail("user-00042@example.com"));
+        cases.put("UserRepository.existsByGithubId", () -> userRepository.existsByGithubId("gh-42"));
+
+        return cases;
+    }
+
+    private Document explain(BsonDocument command) {
+        BsonDocument explainable = new BsonDocument();
+        command.forEach((key, value) -> {
+            if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                explainable.put(key, value);
+            }
+        });
+        BsonDocument explain = new BsonDocument("explain", explainable)
+            .append("verbosity", new BsonString("executionStats"));
+        return mongoTemplate.getDb().runCommand(explain);
+    }
+
+    /**
+     * Walks the explain output and collects stage and index names found under any winningPlan.
+     * Handles both classic plans and aggregate/SBE explains where the plan is nested deeper.
+     */
+    private void collectWinningPlan(Object node, boolean inWinningPlan, List<String> stages, Set<String> indexes) {
+        if (node instanceof Document document) {
+            for (Map.Entry<String, Object> entry : document.entrySet()) {
+                if (entry.getKey().equals("rejectedPlans")) {
+                    continue;
+                }
+                boolean winning = inWinningPlan || entry.getKey().equals("winningPlan");
+                if (winning && entry.getKey().equals("stage") && entry.getValue() instanceof String stage) {
+                    stages.add(stage);
+                } else if (winning && entry.getKey().equals("indexName") && entry.getValue() instanceof String index) {
+                    indexes.add(index);
+                } else {
+                    collectWinningPlan(entry.getValue(), winning, stages, indexes);
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            list.forEach(child -> collectWinningPlan(child, inWinningPlan, stages, indexes));
+        }
+    }
+
+    private long maxLong(Object node, String key) {
+        long max = 0;
+        if (node instanceof Document document) {
+            for (Map.Entry<String, Object> entry : document.entrySet()) {
+                if (entry.getKey().equals(key) && entry.getValue() instanceof Number number) {
+                    max = Math.max(max, number.longValue());
+                } else {
+                    max = Math.max(max, maxLong(entry.getValue(), key));
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object child : list) {
+                max = Math.max(max, maxLong(child, key));
+            }
+        }
+        return max;
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class CommandCaptureConfig {
+
+        static final CommandCapture CAPTURE = new CommandCapture();
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer commandCaptureCustomizer() {
+            return builder -> builder.addCommandListener(CAPTURE);
+        }
+    }
+
+    /**
+     * Remembers the last read command the driver sent, so it can be replayed through explain.
+     */
+    static class CommandCapture implements CommandListener {
+
+        private static final Set<String> QUERY_COMMANDS = Set.of("find", "aggregate", "count");
+
+        private volatile BsonDocument last;
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            if (QUERY_COMMANDS.contains(event.getCommandName())) {
+                last = event.getCommand().clone();
+            }
+        }
+
+        void clear() {
+            last = null;
+        }
+
+        BsonDocument last() {
+            return last;
+        }
+    }
+}
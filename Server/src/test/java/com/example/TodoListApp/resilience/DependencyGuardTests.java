@@ -0,0 +1,111 @@
+package com.example.TodoListApp.resilience;
+
+import com.example.TodoListApp.exception.DependencyUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Circuit transitions and bulkhead limits of the dependency guard.
+ */
+class DependencyGuardTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void opensAfterFailureRateAndClosesAfterSuccessfulProbe() throws Exception {
+        DependencyGuard guard = guard(1, Duration.ofMillis(100));
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> guard.run(() -> { throw new IllegalStateException("down"); }))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+        assertThat(guard.getState()).isEqualTo(DependencyGuard.State.OPEN);
+        assertThatThrownBy(() -> guard.run(() -> {}))
+                .isInstanceOf(DependencyUnavailableException.class);
+
+        Thread.sleep(150);
+        assertThat(guard.execute(() -> "ok")).isEqualTo("ok");
+        assertThat(guard.getState()).isEqualTo(DependencyGuard.State.CLOSED);
+    }
+
+    @Test
+    void failedProbeOpensAgain() throws Exception {
+        DependencyGuard guard = guard(1, Duration.ofMillis(50));
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> guard.run(() -> { throw new IllegalStateException("down"); }));
+        }
+
+        Thread.sleep(80);
+        assertThatThrownBy(() -> guard.run(() -> { throw new IllegalStateException("still down"); }));
+        assertThat(guard.getState()).isEqualTo(DependencyGuard.State.OPEN);
+    }
+
+    @Test
+    void errorDuringProbeReleasesItAndOpensAgain() throws Exception {
+        DependencyGuard guard = guard(1, Duration.ofMillis(50));
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> guard.run(() -> { throw new IllegalStateException("down"); }));
+        }
+
+        Thread.sleep(80);
+        assertThatThrownBy(() -> guard.run(() -> { throw new AssertionError("probe crashed"); }))
+                .isInstanceOf(AssertionError.class);
+        assertThat(guard.getState()).isEqualTo(DependencyGuard.State.OPEN);
+
+        Thread.sleep(80);
+        assertThat(guard.execute(() -> "ok")).isEqualTo("ok");
+        assertThat(guard.getState()).isEqualTo(DependencyGuard.State.CLOSED);
+    }
+
+    @Test
+    void ignoresExceptionsThatAreNotDependencyFailures() {
+        DependencyGuard guard = guard(1, Duration.ofSeconds(10));
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> guard.run(() -> { throw new IllegalArgumentException("Todo not found"); }));
+        }
+        assertThat(guard.getState()).isEqualTo(DependencyGuard.State.CLOSED);
+    }
+
+    @Test
+    void rejectsCallsBeyondBulkheadAndLetsNestedCallsThrough() throws Exception {
+        DependencyGuard guard = guard(1, Duration.ofSeconds(10));
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> guard.run(() -> {
+            // A nested call on the same thread does not need a second permit
+            guard.run(entered::countDown);
+            awaitQuietly(release);
+        }));
+        holder.start();
+        assertThat(entered.await(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> guard.run(() -> {}))
+                .isInstanceOf(DependencyUnavailableException.class)
+                .hasMessageContaining("concurrent");
+
+        release.countDown();
+        holder.join();
+        guard.run(() -> {});
+    }
+
+    private DependencyGuard guard(int maxConcurrentCalls, Duration openDuration) {
+        DependencyGuard.Settings settings = new DependencyGuard.Settings(maxConcurrentCalls, Duration.ofMillis(20),
+                10, 4, 0.5, Duration.ofSeconds(5), openDuration, 1);
+        return new DependencyGuard("test", settings, e -> e instanceof IllegalStateException, meterRegistry);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
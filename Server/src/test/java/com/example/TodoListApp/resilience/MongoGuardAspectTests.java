@@ -0,0 +1,104 @@
+package com.example.TodoListApp.resilience;
+
+import com.example.TodoListApp.entity.Todo;
+import com.example.TodoListApp.exception.DependencyUnavailableException;
+import com.example.TodoListApp.repository.TodoRepository;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The Mongo guard applies to MongoTemplate and repository calls, against a database that is not
+ * reachable.
+ */
+class MongoGuardAspectTests {
+
+    private AnnotationConfigApplicationContext context;
+
+    @BeforeEach
+    void startContext() {
+        context = new AnnotationConfigApplicationContext(Config.class);
+    }
+
+    @AfterEach
+    void closeContext() {
+        context.close();
+    }
+
+    @Test
+    void opensOnFailedTemplateCalls() {
+        MongoTemplate mongoTemplate = context.getBean(MongoTemplate.class);
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> mongoTemplate.findById("id", Todo.class))
+                    .isInstanceOf(DataAccessResourceFailureException.class);
+        }
+
+        assertThat(context.getBean(DependencyGuard.class).getState()).isEqualTo(DependencyGuard.State.OPEN);
+        assertThatThrownBy(() -> mongoTemplate.findById("id", Todo.class))
+                .isInstanceOf(DependencyUnavailableException.class);
+    }
+
+    @Test
+    void countsRepositoryCallThroughTemplateOnce() {
+        TodoRepository todoRepository = context.getBean(TodoRepository.class);
+        assertThatThrownBy(() -> todoRepository.findById("id"))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+
+        assertThat(context.getBean(MeterRegistry.class).get("resilience.calls")
+                .tag("outcome", "failure").counter().count()).isEqualTo(1);
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    @EnableMongoRepositories(basePackageClasses = TodoRepository.class)
+    @Import(MongoGuardAspect.class)
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean(destroyMethod = "close")
+        MongoClient mongoClient() {
+            // Nothing listens on port 1, so every call fails once server selection times out
+            return MongoClients.create(MongoClientSettings.builder()
+                    .applyConnectionString(new ConnectionString("mongodb://localhost:1"))
+                    .applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(50, TimeUnit.MILLISECONDS))
+                    .build());
+        }
+
+        @Bean
+        MongoTemplate mongoTemplate(MongoClient mongoClient) {
+            return new MongoTemplate(mongoClient, "guard_test");
+        }
+
+        @Bean
+        DependencyGuard mongoGuard(MeterRegistry meterRegistry) {
+            DependencyGuard.Settings settings = new DependencyGuard.Settings(4, Duration.ofMillis(100),
+                    10, 4, 0.5, Duration.ofSeconds(5), Duration.ofSeconds(30), 1);
+            return new DependencyGuard("mongo", settings,
+                    e -> e instanceof DataAccessResourceFailureException, meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.TodoListApp.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bucket accounting, rule reload and idle eviction of the rate limiter.
+ */
+class RateLimiterTests {
+
+    @TempDir
+    Path directory;
+
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("ratelimit.classes.fanout.endpoints", "POST /todos/check-overdue")
+            .withProperty("ratelimit.classes.fanout.capacity", "3")
+            .withProperty("ratelimit.classes.fanout.refill-per-second", "0.01")
+            .withProperty("ratelimit.classes.read.endpoints", "GET /**")
+            .withProperty("ratelimit.classes.read.capacity", "1000")
+            .withProperty("ratelimit.classes.read.refill-per-second", "1000");
+
+    @Test
+    void allowsBurstThenRejectsPerClient() {
+        RateLimiter limiter = new RateLimiter(environment, new SimpleMeterRegistry(), "", 600000);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("alice", "POST", "/todos/check-overdue")).isZero();
+        }
+        assertThat(limiter.tryAcquire("alice", "POST", "/todos/check-overdue")).isPositive();
+        assertThat(limiter.tryAcquire("bob", "POST", "/todos/check-overdue")).isZero();
+        assertThat(limiter.tryAcquire("alice", "GET", "/todos")).isZero();
+        assertThat(limiter.tryAcquire("alice", "DELETE", "/todos/1")).isZero();
+    }
+
+    @Test
+    void appliesChangedRulesFileToExistingBuckets() throws Exception {
+        Path rules = directory.resolve("rate-limits.properties");
+        RateLimiter limiter = new RateLimiter(environment, new SimpleMeterRegistry(), rules.toString(), 600000);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("alice", "POST", "/todos/check-overdue");
+        }
+        assertThat(limiter.tryAcquire("alice", "POST", "/todos/check-overdue")).isPositive();
+
+        Files.writeString(rules, "ratelimit.classes.fanout.capacity=10\n");
+        Files.setLastModifiedTime(rules, FileTime.from(Instant.now()));
+        limiter.reloadIfChanged();
+        assertThat(limiter.tryAcquire("alice", "POST", "/todos/check-overdue")).isZero();
+
+        Files.writeString(rules, "ratelimit.enabled=false\n");
+        Files.setLastModifiedTime(rules, FileTime.from(Instant.now().plusSeconds(1)));
+        limiter.reloadIfChanged();
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquire("alice", "POST", "/todos/check-overdue")).isZero();
+        }
+    }
+
+    @Test
+    void evictsOnlyBucketsThatAreFullAndIdle() throws Exception {
+        RateLimiter limiter = new RateLimiter(environment, new SimpleMeterRegistry(), "", 0);
+        limiter.tryAcquire("alice", "GET", "/todos");
+        limiter.tryAcquire("bob", "POST", "/todos/check-overdue");
+        assertThat(limiter.getBucketCount()).isEqualTo(2);
+
+        // alice's read bucket refills within a millisecond, bob's fanout bucket takes 100 seconds
+        Thread.sleep(5);
+        limiter.evictIdleBuckets();
+        assertThat(limiter.getBucketCount()).isEqualTo(1);
+    }
+}
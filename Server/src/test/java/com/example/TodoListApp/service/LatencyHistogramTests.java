@@ -0,0 +1,69 @@
+package com.example.TodoListApp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.Percentage.withPercentage;
+
+/**
+ * Bucket layout, percentile accuracy and draining of the mergeable latency histogram.
+ */
+class LatencyHistogramTests {
+
+    @Test
+    void bucketsAreContiguousAndWithinRelativeError() {
+        for (long value = 0; value < 1_000_000; value += value < 1000 ? 1 : 997) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertThat(value).isBetween(LatencyHistogram.lowerBound(index), LatencyHistogram.upperBound(index));
+            assertThat(LatencyHistogram.upperBound(index) - LatencyHistogram.lowerBound(index))
+                    .isLessThanOrEqualTo(value / 16);
+        }
+        for (int index = 1; index < LatencyHistogram.BUCKETS; index++) {
+            assertThat(LatencyHistogram.lowerBound(index)).isEqualTo(LatencyHistogram.upperBound(index - 1) + 1);
+        }
+        assertThat(LatencyHistogram.bucketIndex(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKETS - 1);
+    }
+
+    @Test
+    void mergedSnapshotsGivePercentilesOfAllValues() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        for (int value = 1; value <= 10_000; value++) {
+            (value % 2 == 0 ? first : second).record(value);
+        }
+
+        Map<Integer, Long> merged = new HashMap<>();
+        long count = 0;
+        long max = 0;
+        for (LatencyHistogram histogram : new LatencyHistogram[] {first, second}) {
+            LatencyHistogram.Snapshot snapshot = histogram.drain();
+            snapshot.buckets().forEach((index, n) -> merged.merge(index, n, Long::sum));
+            count += snapshot.count();
+            max = Math.max(max, snapshot.maxMillis());
+        }
+
+        assertThat(count).isEqualTo(10_000);
+        assertThat(LatencyHistogram.percentile(merged, count, max, 50)).isCloseTo(5_000L, withPercentage(6.25));
+        assertThat(LatencyHistogram.percentile(merged, count, max, 99)).isCloseTo(9_900L, withPercentage(6.25));
+        assertThat(LatencyHistogram.percentile(merged, count, max, 100)).isEqualTo(10_000L);
+        assertThat(first.drain().isEmpty()).isTrue();
+    }
+
+    @Test
+    void restoredSnapshotIsDrainedAgain() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(42);
+        histogram.record(420);
+        LatencyHistogram.Snapshot snapshot = histogram.drain();
+
+        histogram.restore(snapshot);
+        histogram.record(7);
+        LatencyHistogram.Snapshot again = histogram.drain();
+        assertThat(again.count()).isEqualTo(3);
+        assertThat(again.sumMillis()).isEqualTo(469);
+        assertThat(again.maxMillis()).isEqualTo(420);
+    }
+}
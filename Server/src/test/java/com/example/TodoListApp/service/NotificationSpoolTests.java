@@ -0,0 +1,97 @@
+package com.example.TodoListApp.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Append, drain and crash recovery of the on-disk notification spool.
+ */
+class NotificationSpoolTests {
+
+    private static final int SEGMENT_SIZE = 256;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void drainsRecordsInOrderAcrossSegments() throws Exception {
+        try (NotificationSpool spool = new NotificationSpool(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 40; i++) {
+                spool.append(bytes("message-" + i));
+            }
+            assertThat(spool.getPendingCount()).isEqualTo(40);
+
+            int next = 0;
+            while (!spool.isEmpty()) {
+                NotificationSpool.Batch batch = spool.read(7);
+                for (byte[] record : batch.records()) {
+                    assertThat(text(record)).isEqualTo("message-" + next++);
+                }
+                spool.commit(batch);
+            }
+            assertThat(next).isEqualTo(40);
+        }
+        assertThat(segmentFiles()).hasSize(1);
+    }
+
+    @Test
+    void recoversUndrainedRecordsAfterRestart() throws Exception {
+        try (NotificationSpool spool = new NotificationSpool(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 20; i++) {
+                spool.append(bytes("message-" + i));
+            }
+            spool.commit(spool.read(5));
+        }
+
+        try (NotificationSpool spool = new NotificationSpool(directory, SEGMENT_SIZE)) {
+            assertThat(spool.getPendingCount()).isEqualTo(15);
+            assertThat(text(spool.read(1).records().get(0))).isEqualTo("message-5");
+        }
+    }
+
+    @Test
+    void dropsTornRecordOnRecovery() throws Exception {
+        try (NotificationSpool spool = new NotificationSpool(directory, SEGMENT_SIZE)) {
+            spool.append(bytes("complete"));
+            spool.append(bytes("torn"));
+        }
+
+        // Corrupt the payload of the second record as if the process died mid-write
+        Path segment = segmentFiles().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(8 + "complete".length() + 8);
+            file.write('X');
+        }
+
+        try (NotificationSpool spool = new NotificationSpool(directory, SEGMENT_SIZE)) {
+            assertThat(spool.getPendingCount()).isEqualTo(1);
+            spool.append(bytes("after"));
+
+            List<byte[]> records = spool.read(10).records();
+            assertThat(records).extracting(NotificationSpoolTests::text).containsExactly("complete", "after");
+        }
+    }
+
+    private List<Path> segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".spool")).sorted().toList();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
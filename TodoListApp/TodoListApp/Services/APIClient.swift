@@ -6,6 +6,7 @@ class APIClient: ObservableObject {
     
     private let config = NetworkConfigManager.shared
     private let session: URLSession
+    private let streamSession: URLSession
     
     private init() {
         let configuration = URLSessionConfiguration.default
@@ -21,6 +22,14 @@ class APIClient: ObservableObject {
         
         self.session = URLSession(configuration: configuration)
         
+        // Event streams stay open far longer than a normal request, so they get their own session
+        let streamConfiguration = URLSessionConfiguration.default
+        streamConfiguration.timeoutIntervalForRequest = 60
+        streamConfiguration.timeoutIntervalForResource = 24 * 60 * 60
+        streamConfiguration.httpCookieStorage = HTTPCookieStorage.shared
+        streamConfiguration.httpCookieAcceptPolicy = .always
+        self.streamSession = URLSession(configuration: streamConfiguration)
+        
         // Restore cookies from UserDefaults
         restoreCookiesFromUserDefaults()
         
@@ -293,6 +302,81 @@ class APIClient: ObservableObject {
     }
 }
 
+// MARK: - Server-Sent Events
+struct ServerSentEvent {
+    let id: String?
+    let event: String
+    let data: String
+}
+
+extension APIClient {
+    /// Opens a text/event-stream endpoint and yields each event as it arrives.
+    /// The server sends a heartbeat comment every few seconds, which keeps the request timeout from firing.
+    func eventStream(endpoint: String, lastEventId: String? = nil) -> AsyncThrowingStream<ServerSentEvent, Error> {
+        AsyncThrowingStream { continuation in
+            let task = Task {
+                guard let url = config.getFullURL(for: endpoint) else {
+                    continuation.finish(throwing: APIError.invalidURL)
+                    return
+                }
+                
+                var request = URLRequest(url: url)
+                request.setValue("text/event-stream", forHTTPHeaderField: "Accept")
+                if let lastEventId = lastEventId {
+                    request.setValue(lastEventId, forHTTPHeaderField: "Last-Event-ID")
+                }
+                
+                do {
+                    let (bytes, response) = try await streamSession.bytes(for: request)
+                    guard let httpResponse = response as? HTTPURLResponse else {
+                        throw APIError.invalidResponse
+                    }
+                    guard httpResponse.statusCode >= 200 && httpResponse.statusCode < 300 else {
+                        throw APIError.httpError(httpResponse.statusCode)
+                    }
+                    
+                    var id: String?
+                    var event = "message"
+                    
+                    // bytes.lines skips the blank separator lines, so an event is emitted on its data line.
+                    // The server always writes id and event before a single line of compact JSON data.
+                    for try await line in bytes.lines {
+                        if line.hasPrefix(":") {
+                            continue // heartbeat comment
+                        }
+                        
+                        let parts = line.split(separator: ":", maxSplits: 1, omittingEmptySubsequences: false)
+                        let field = String(parts[0])
+                        var value = parts.count > 1 ? String(parts[1]) : ""
+                        if value.hasPrefix(" ") {
+                            value.removeFirst()
+                        }
+                        
+                        switch field {
+                        case "id":
+                            id = value
+                        case "event":
+                            event = value
+                        case "data":
+                            continuation.yield(ServerSentEvent(id: id, event: event, data: value))
+                            event = "message"
+                        default:
+                            break
+                        }
+                    }
+                    continuation.finish()
+                } catch {
+                    continuation.finish(throwing: error)
+                }
+            }
+            
+            continuation.onTermination = { _ in
+                task.cancel()
+            }
+        }
+    }
+}
+
 // MARK: - HTTP Methods
 enum HTTPMethod: String {
     case GET = "GET"
@@ -52,10 +52,24 @@ class NotificationService: ObservableObject {
         )
     }
     
+    // MARK: - Live Updates
+    func streamEvents(lastEventId: String? = nil) -> AsyncThrowingStream<ServerSentEvent, Error> {
+        APIClient.shared.eventStream(endpoint: config.endpoints.notifications.stream, lastEventId: lastEventId)
+    }
+    
     // MARK: - Statistics
-    func getUnreadCount() async throws -> Int {
-        let notifications = try await getAllNotifications()
-        return notifications.filter { !$0.isRead }.count
+    /// Returns the unread count. Pass the last known count as `since` to long-poll:
+    /// the server answers as soon as the count differs from it, or after `timeoutMillis`.
+    func getUnreadCount(since: Int? = nil, timeoutMillis: Int = 25000) async throws -> Int {
+        var endpoint = config.endpoints.notifications.unreadCount
+        if let since = since {
+            endpoint += "?since=\(since)&timeout=\(timeoutMillis)"
+        }
+        let response: [String: Int] = try await APIClient.shared.request(
+            endpoint: endpoint,
+            responseType: [String: Int].self
+        )
+        return response["unread"] ?? 0
     }
     
     func getNotificationsByType(_ type: NotificationType) async throws -> [Notification] {
@@ -65,6 +65,8 @@ struct NetworkConfig: Codable {
             let markAsRead: String
             let markAllAsRead: String
             let delete: String
+            let stream: String
+            let unreadCount: String
         }
     }
     
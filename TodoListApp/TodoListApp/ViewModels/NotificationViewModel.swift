@@ -7,6 +7,7 @@ class NotificationViewModel: ObservableObject {
     @Published var errorMessage: String?
     
     private let notificationService = NotificationService.shared
+    private var lastEventId: String?
     
     func loadNotifications() async {
         isLoading = true
@@ -21,6 +22,51 @@ class NotificationViewModel: ObservableObject {
         isLoading = false
     }
     
+    /// Keeps the list current from the server's event stream instead of polling.
+    /// Runs until the calling task is cancelled, reconnecting with Last-Event-ID after drops.
+    func streamNotifications() async {
+        var retryDelay: UInt64 = 1
+        
+        while !Task.isCancelled {
+            do {
+                for try await event in notificationService.streamEvents(lastEventId: lastEventId) {
+                    retryDelay = 1
+                    if let id = event.id {
+                        lastEventId = id
+                    }
+                    
+                    switch event.event {
+                    case "notification":
+                        if let data = event.data.data(using: .utf8),
+                           let notification = try? JSONDecoder().decode(Notification.self, from: data) {
+                            apply(notification)
+                        }
+                    case "resync":
+                        await loadNotifications()
+                    default:
+                        break
+                    }
+                }
+            } catch {
+                if Task.isCancelled {
+                    break
+                }
+                print("⚠️ Notification stream disconnected: \(error.localizedDescription)")
+            }
+            
+            try? await Task.sleep(nanoseconds: retryDelay * 1_000_000_000)
+            retryDelay = min(retryDelay * 2, 30)
+        }
+    }
+    
+    private func apply(_ notification: Notification) {
+        if let index = notifications.firstIndex(where: { $0.id == notification.id }) {
+            notifications[index] = notification
+        } else {
+            notifications.insert(notification, at: 0)
+        }
+    }
+    
     func markAsRead(_ notification: Notification) async {
         do {
             let updatedNotification = try await notificationService.markAsRead(id: notification.id)
@@ -56,6 +56,7 @@ struct NotificationListView: View {
         }
         .task {
             await viewModel.loadNotifications()
+            await viewModel.streamNotifications()
         }
     }
 }